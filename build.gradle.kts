@@ -16,6 +16,7 @@ plugins {
     `maven-publish`
     `java-library`
     alias(libs.plugins.freefair.lombok)
+    alias(libs.plugins.jmh)
     alias(libs.plugins.jreleaser)
     alias(libs.plugins.spotless)
 }
@@ -72,6 +73,18 @@ tasks.test {
     maxParallelForks = (Runtime.getRuntime().availableProcessors() / 2).coerceAtLeast(1)
 }
 
+// Benchmarks live in src/jmh; the flow throughput benchmarks run against real Hydra containers, so
+// Docker is required for those. Not part of `build`; run explicitly with `./gradlew jmh`, optionally
+// narrowed with `-PjmhIncludes=<regex>`. Results, including the GC profiler's allocation rates, are
+// written as JSON to build/results/jmh/results.json.
+jmh {
+    jmhVersion.set(libs.versions.jmh.get())
+    includes.set(providers.gradleProperty("jmhIncludes").map { listOf(it) }.orElse(listOf()))
+    profilers.set(listOf("gc"))
+    resultFormat.set("JSON")
+    resultsFile.set(layout.buildDirectory.file("results/jmh/results.json"))
+}
+
 java {
     withJavadocJar()
     withSourcesJar()
@@ -0,0 +1,65 @@
+package com.ardetrick.testcontainers;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Client-credentials token requests per second against a real Hydra container, with and without
+ * {@link OryHydraContainer.Builder#fastSecretHashing(boolean)} — every request authenticates the
+ * client, so Hydra verifies its secret hash each time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Threads(4)
+public class ClientCredentialsThroughputBenchmark {
+
+  private static final String CLIENT_ID = "benchmark-client";
+  private static final String CLIENT_SECRET = "benchmark-secret";
+
+  @Param({"false", "true"})
+  public boolean fastSecretHashing;
+
+  private OryHydraContainer hydra;
+
+  @Setup
+  public void startHydra() {
+    hydra =
+        OryHydraContainer.builder()
+            .fastSecretHashing(fastSecretHashing)
+            .client(
+                client ->
+                    client
+                        .clientId(CLIENT_ID)
+                        .clientSecret(CLIENT_SECRET)
+                        .grantTypes("client_credentials")
+                        .tokenEndpointAuthMethod("client_secret_basic"))
+            .build();
+    hydra.start();
+  }
+
+  @TearDown
+  public void stopHydra() {
+    hydra.stop();
+  }
+
+  @Benchmark
+  public FlowResult clientCredentialsToken() {
+    return hydra.clientCredentialsFlow().clientId(CLIENT_ID).clientSecret(CLIENT_SECRET).execute();
+  }
+}
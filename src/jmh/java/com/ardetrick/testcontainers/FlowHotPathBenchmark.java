@@ -0,0 +1,95 @@
+package com.ardetrick.testcontainers;
+
+import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The CPU-bound steps the authorization-code flow repeats on every execution or redirect hop:
+ * parsing a redirect's query, generating the state and a PKCE verifier with its S256 challenge, and
+ * re-targeting an issuer-derived URI at the mapped port. No Docker needed.
+ *
+ * <p>Each execution's random values are measured three ways: taken from {@link PkceGenerator}'s
+ * pool as flows do, generated with its per-thread DRBG and digest alone (the path flows fall back
+ * to once bulk minting drains the pool), and with the {@link LegacyPkce} code it replaced. The
+ * {@code Contended} variants run on eight threads, where the legacy code's shared entropy source
+ * shows.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class FlowHotPathBenchmark {
+
+  private static final String CALLBACK_QUERY =
+      "code=ory_ac_pQ2wXz8Jv1mKc7sYb0TnRf4LhGd9EaUi3Oo6Ny5Wl.Zq1Xr2Cs3Dt4Eu5Fv6Gw7Hx8Iy9"
+          + "&scope=openid+offline_access&state=Yb0TnRf4LhGd9EaUi3Oo6Ny5Wl%2DKc7sYb0Tn";
+
+  private final URI advertised =
+      URI.create(
+          "http://gateway.example/hydra/oauth2/auth?client_id=tc-client&login_verifier=abc%2Fdef");
+  private final URI publicBaseUri = URI.create("http://127.0.0.1:49153");
+  private final String verifier = PkceGenerator.generate().codeVerifier();
+  private final PkceGenerator generator =
+      new PkceGenerator(PkceGenerator.DEFAULT_POOL_SIZE, ForkJoinPool.commonPool());
+
+  @Benchmark
+  public Map<String, String> parseCallbackQuery() {
+    return AuthorizationCodeFlow.parseQuery(CALLBACK_QUERY);
+  }
+
+  @Benchmark
+  public PkceGenerator.Secrets flowSecrets() {
+    return generator.next();
+  }
+
+  @Benchmark
+  public PkceGenerator.Secrets flowSecretsUnpooled() {
+    return PkceGenerator.generate();
+  }
+
+  @Benchmark
+  public PkceGenerator.Secrets legacyFlowSecrets() {
+    return LegacyPkce.generate();
+  }
+
+  @Benchmark
+  @Threads(8)
+  public PkceGenerator.Secrets flowSecretsContended() {
+    return generator.next();
+  }
+
+  @Benchmark
+  @Threads(8)
+  public PkceGenerator.Secrets legacyFlowSecretsContended() {
+    return LegacyPkce.generate();
+  }
+
+  @Benchmark
+  public String pkceChallenge() {
+    return PkceGenerator.challenge(verifier);
+  }
+
+  @Benchmark
+  public String legacyPkceChallenge() {
+    return LegacyPkce.s256(verifier);
+  }
+
+  @Benchmark
+  public URI retarget() {
+    return OpenIdConfiguration.retarget(advertised, "/hydra", publicBaseUri);
+  }
+}
@@ -0,0 +1,96 @@
+package com.ardetrick.testcontainers;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Parsing Hydra response bodies with the byte-level {@link Json} reader versus the String-based
+ * {@link LegacyJson} it replaced. The legacy path includes the UTF-8 decode that {@code
+ * BodyHandlers.ofString()} used to perform, since the byte reader makes it unnecessary. No Docker
+ * needed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class JsonParseBenchmark {
+
+  static final String TOKEN_RESPONSE =
+      "{\"access_token\":\"ory_at_pQ2wXz8Jv1mKc7sYb0TnRf4LhGd9EaUi3Oo6Ny5Wl.Zq1Xr2Cs3Dt4Eu5Fv6Gw7Hx8Iy9"
+          + "Jz0Ka1Lb2Mc3\",\"expires_in\":3599,\"id_token\":\"eyJhbGciOiJSUzI1NiIsImtpZCI6ImE5"
+          + "ZjMifQ.eyJhdWQiOlsidGMtY2xpZW50Il0sImF1dGhfdGltZSI6MTcwMDAwMDAwMCwiZXhwIjoxNzAwMDAzNjAw"
+          + "LCJpYXQiOjE3MDAwMDAwMDAsImlzcyI6Imh0dHA6Ly8xMjcuMC4wLjE6NDQ0NC8iLCJzdWIiOiJ0ZXN0LXN1Ympl"
+          + "Y3QifQ.c2lnbmF0dXJl\",\"refresh_token\":\"ory_rt_Yb0TnRf4LhGd9EaUi3Oo6Ny5Wl.Kc7sYb0Tn\","
+          + "\"scope\":\"openid offline_access\",\"token_type\":\"bearer\"}";
+
+  static final String INTROSPECTION_RESPONSE =
+      "{\"active\":true,\"client_id\":\"tc-3f2a9c1e-6b7d-4e8f-9a0b-1c2d3e4f5a6b\",\"sub\":"
+          + "\"test-subject\",\"exp\":1700003600,\"iat\":1700000000,\"nbf\":1700000000,\"aud\":"
+          + "[\"https://api.example\"],\"iss\":\"http://127.0.0.1:4444/\",\"token_type\":"
+          + "\"Bearer\",\"token_use\":\"access_token\",\"scope\":\"openid offline_access\","
+          + "\"ext\":{\"dept\":\"eng\",\"level\":3,\"roles\":[\"admin\",\"user\"]}}";
+
+  static final String DISCOVERY_DOCUMENT =
+      "{\"issuer\":\"http://127.0.0.1:4444/\",\"authorization_endpoint\":"
+          + "\"http://127.0.0.1:4444/oauth2/auth\",\"registration_endpoint\":"
+          + "\"http://127.0.0.1:4444/oauth2/register\",\"token_endpoint\":"
+          + "\"http://127.0.0.1:4444/oauth2/token\",\"jwks_uri\":"
+          + "\"http://127.0.0.1:4444/.well-known/jwks.json\",\"subject_types_supported\":"
+          + "[\"public\"],\"response_types_supported\":[\"code\",\"code id_token\",\"id_token\","
+          + "\"token id_token\",\"token\",\"token id_token code\"],\"claims_supported\":[\"sub\"],"
+          + "\"grant_types_supported\":[\"authorization_code\",\"implicit\",\"client_credentials\","
+          + "\"refresh_token\"],\"response_modes_supported\":[\"query\",\"fragment\",\"form_post\"],"
+          + "\"userinfo_endpoint\":\"http://127.0.0.1:4444/userinfo\",\"scopes_supported\":"
+          + "[\"offline_access\",\"offline\",\"openid\"],\"token_endpoint_auth_methods_supported\":"
+          + "[\"client_secret_post\",\"client_secret_basic\",\"private_key_jwt\",\"none\"],"
+          + "\"userinfo_signing_alg_values_supported\":[\"none\",\"RS256\"],"
+          + "\"id_token_signing_alg_values_supported\":[\"RS256\"],"
+          + "\"request_parameter_supported\":true,\"request_uri_parameter_supported\":true,"
+          + "\"require_request_uri_registration\":true,\"claims_parameter_supported\":false,"
+          + "\"revocation_endpoint\":\"http://127.0.0.1:4444/oauth2/revoke\","
+          + "\"backchannel_logout_supported\":true,\"backchannel_logout_session_supported\":true,"
+          + "\"frontchannel_logout_supported\":true,\"frontchannel_logout_session_supported\":true,"
+          + "\"end_session_endpoint\":\"http://127.0.0.1:4444/oauth2/sessions/logout\","
+          + "\"request_object_signing_alg_values_supported\":[\"none\",\"RS256\",\"ES256\"],"
+          + "\"code_challenge_methods_supported\":[\"plain\",\"S256\"]}";
+
+  @Param({"token", "introspection", "discovery"})
+  public String payload;
+
+  private byte[] body;
+
+  @Setup
+  public void encode() {
+    String json =
+        switch (payload) {
+          case "token" -> TOKEN_RESPONSE;
+          case "introspection" -> INTROSPECTION_RESPONSE;
+          default -> DISCOVERY_DOCUMENT;
+        };
+    body = json.getBytes(StandardCharsets.UTF_8);
+  }
+
+  @Benchmark
+  public Map<String, Object> legacyStringParser() {
+    return LegacyJson.parseObject(new String(body, StandardCharsets.UTF_8));
+  }
+
+  @Benchmark
+  public Map<String, Object> byteParser() {
+    return Json.parseObject(body);
+  }
+}
@@ -0,0 +1,63 @@
+package com.ardetrick.testcontainers;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Serializing admin API request bodies: a full client registration through {@link
+ * JsonWriter#write(Object)}, and an accept-consent body through a {@link JsonWriter.Template} like
+ * the one {@link AdminClient} uses. No Docker needed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class JsonWriteBenchmark {
+
+  private static final JsonWriter.Template ACCEPT_CONSENT =
+      JsonWriter.template(
+          "{\"grant_scope\":",
+          ",\"grant_access_token_audience\":",
+          ",\"remember\":false,\"remember_for\":0,\"session\":",
+          "}");
+
+  private final Map<String, Object> registration =
+      OAuth2ClientRegistration.create()
+          .clientId("tc-3f2a9c1e-6b7d-4e8f-9a0b-1c2d3e4f5a6b")
+          .clientSecret("benchmark-secret")
+          .redirectUris("http://localhost/callback", "http://127.0.0.1:8080/callback")
+          .grantTypes("authorization_code", "refresh_token", "client_credentials")
+          .responseTypes("code", "id_token")
+          .scope("openid", "offline_access", "profile", "email")
+          .tokenEndpointAuthMethod("client_secret_basic")
+          .put("audience", List.of("https://api.example"))
+          .put("metadata", Map.of("owner", "benchmarks", "tier", 3))
+          .toMap();
+
+  private final List<String> scopes = List.of("openid", "offline_access");
+  private final List<String> audience = List.of("https://api.example");
+  private final Map<String, Object> session =
+      Map.of("access_token", Map.of("dept", "engineering"), "id_token", Map.of("name", "Tëst"));
+
+  @Benchmark
+  public byte[] registration() {
+    return JsonWriter.write(registration);
+  }
+
+  @Benchmark
+  public byte[] acceptConsentTemplate() {
+    return ACCEPT_CONSENT.write(scopes, audience, session);
+  }
+}
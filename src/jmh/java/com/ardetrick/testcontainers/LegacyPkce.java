@@ -0,0 +1,39 @@
+package com.ardetrick.testcontainers;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * The per-execution state and PKCE generation {@link PkceGenerator} replaced, kept verbatim as the
+ * baseline for {@link FlowHotPathBenchmark}.
+ */
+final class LegacyPkce {
+
+  private LegacyPkce() {}
+
+  static PkceGenerator.Secrets generate() {
+    String state = UUID.randomUUID().toString();
+    String codeVerifier = randomUrlSafe();
+    return new PkceGenerator.Secrets(state, codeVerifier, s256(codeVerifier));
+  }
+
+  static String randomUrlSafe() {
+    byte[] buffer = new byte[64];
+    new SecureRandom().nextBytes(buffer);
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(buffer);
+  }
+
+  static String s256(String verifier) {
+    try {
+      MessageDigest digest = MessageDigest.getInstance("SHA-256");
+      byte[] hash = digest.digest(verifier.getBytes(StandardCharsets.US_ASCII));
+      return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+    } catch (NoSuchAlgorithmException e) {
+      throw new HydraFlowException("SHA-256 is not available", e);
+    }
+  }
+}
@@ -1,79 +1,99 @@
 package com.ardetrick.testcontainers;
 
 import java.net.URI;
-import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
-import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /** Operations against Hydra's admin API used by the OAuth flows. */
 final class AdminClient {
 
-  private final HttpClient http;
+  // The fixed-shape bodies of the login and consent steps, which every authorization-code flow
+  // runs.
+  private static final JsonWriter.Template ACCEPT_LOGIN =
+      JsonWriter.template("{\"subject\":", ",\"remember\":false,\"remember_for\":0}");
+  private static final JsonWriter.Template ACCEPT_CONSENT =
+      JsonWriter.template(
+          "{\"grant_scope\":",
+          ",\"grant_access_token_audience\":",
+          ",\"remember\":false,\"remember_for\":0}");
+  private static final JsonWriter.Template ACCEPT_CONSENT_WITH_SESSION =
+      JsonWriter.template(
+          "{\"grant_scope\":",
+          ",\"grant_access_token_audience\":",
+          ",\"remember\":false,\"remember_for\":0,\"session\":",
+          "}");
+  private static final JsonWriter.Template ERROR =
+      JsonWriter.template("{\"error\":", ",\"error_description\":", "}");
+
+  private final HttpTransport http;
   private final URI adminBaseUri;
+  private final FlowTracer tracer;
+
+  AdminClient(HttpTransport http, URI adminBaseUri) {
+    this(http, adminBaseUri, null);
+  }
 
-  AdminClient(HttpClient http, URI adminBaseUri) {
+  // The tracer, if any, records the login and consent answers as hops of a traced flow.
+  AdminClient(HttpTransport http, URI adminBaseUri, FlowTracer tracer) {
     this.http = http;
     this.adminBaseUri = adminBaseUri;
+    this.tracer = tracer;
   }
 
   /** Registers an OAuth 2.0 client via {@code POST /admin/clients}. */
-  void createClient(Map<String, Object> registration) {
-    HttpResponse<String> response =
-        Http.send(
-            http,
+  CompletableFuture<Void> createClientAsync(Map<String, Object> registration) {
+    return http.sendAsync(
             HttpRequest.newBuilder(adminBaseUri.resolve("/admin/clients"))
                 .header("Content-Type", "application/json")
                 .header("Accept", "application/json")
-                .POST(HttpRequest.BodyPublishers.ofString(JsonWriter.write(registration)))
-                .build());
-    if (!Http.is2xx(response.statusCode())) {
-      throw new HydraFlowException(
-          "Failed to create OAuth2 client (HTTP "
-              + response.statusCode()
-              + "): "
-              + response.body());
-    }
+                .POST(HttpRequest.BodyPublishers.ofByteArray(JsonWriter.write(registration)))
+                .build())
+        .thenAccept(
+            response -> {
+              if (!Http.is2xx(response.statusCode())) {
+                throw new HydraFlowException(
+                    "Failed to create OAuth2 client (HTTP "
+                        + response.statusCode()
+                        + "): "
+                        + Http.text(response));
+              }
+            });
   }
 
-  URI acceptLogin(String challenge, String subject) {
-    Map<String, Object> body = new LinkedHashMap<>();
-    body.put("subject", subject);
-    body.put("remember", false);
-    body.put("remember_for", 0);
-    return redirectTarget(put("login", "accept", "login_challenge", challenge, body));
+  CompletableFuture<URI> acceptLoginAsync(String challenge, String subject) {
+    byte[] body = ACCEPT_LOGIN.write(subject);
+    return put("login", "accept", "login_challenge", challenge, body)
+        .thenApply(AdminClient::redirectTarget);
   }
 
-  URI rejectLogin(String challenge, String error, String description) {
-    return redirectTarget(
-        put("login", "reject", "login_challenge", challenge, errorBody(error, description)));
+  CompletableFuture<URI> rejectLoginAsync(String challenge, String error, String description) {
+    return put("login", "reject", "login_challenge", challenge, errorBody(error, description))
+        .thenApply(AdminClient::redirectTarget);
   }
 
-  URI acceptConsent(
+  CompletableFuture<URI> acceptConsentAsync(
       String challenge,
       List<String> grantScope,
       List<String> grantAudience,
       Map<String, Object> session) {
-    Map<String, Object> body = new LinkedHashMap<>();
-    body.put("grant_scope", grantScope);
-    body.put("grant_access_token_audience", grantAudience);
-    body.put("remember", false);
-    body.put("remember_for", 0);
-    if (session != null && !session.isEmpty()) {
-      body.put("session", session);
-    }
-    return redirectTarget(put("consent", "accept", "consent_challenge", challenge, body));
+    byte[] body =
+        session == null || session.isEmpty()
+            ? ACCEPT_CONSENT.write(grantScope, grantAudience)
+            : ACCEPT_CONSENT_WITH_SESSION.write(grantScope, grantAudience, session);
+    return put("consent", "accept", "consent_challenge", challenge, body)
+        .thenApply(AdminClient::redirectTarget);
   }
 
-  URI rejectConsent(String challenge, String error, String description) {
-    return redirectTarget(
-        put("consent", "reject", "consent_challenge", challenge, errorBody(error, description)));
+  CompletableFuture<URI> rejectConsentAsync(String challenge, String error, String description) {
+    return put("consent", "reject", "consent_challenge", challenge, errorBody(error, description))
+        .thenApply(AdminClient::redirectTarget);
   }
 
-  private HttpResponse<String> put(
-      String flow, String action, String param, String challenge, Map<String, Object> body) {
+  private CompletableFuture<HttpResponse<byte[]>> put(
+      String flow, String action, String param, String challenge, byte[] body) {
     URI uri =
         adminBaseUri.resolve(
             "/admin/oauth2/auth/requests/"
@@ -84,36 +104,37 @@ final class AdminClient {
                 + param
                 + "="
                 + Http.encode(challenge));
-    return Http.send(
-        http,
+    HttpRequest request =
         HttpRequest.newBuilder(uri)
             .header("Content-Type", "application/json")
             .header("Accept", "application/json")
-            .PUT(HttpRequest.BodyPublishers.ofString(JsonWriter.write(body)))
-            .build());
+            .PUT(HttpRequest.BodyPublishers.ofByteArray(body))
+            .build();
+    if (tracer == null) {
+      return http.sendAsync(request);
+    }
+    FlowTrace.Kind kind = flow.equals("login") ? FlowTrace.Kind.LOGIN : FlowTrace.Kind.CONSENT;
+    return tracer.record(kind, request, System.nanoTime(), http.sendAsync(request));
   }
 
-  private static Map<String, Object> errorBody(String error, String description) {
-    Map<String, Object> body = new LinkedHashMap<>();
-    body.put("error", error);
-    body.put("error_description", description == null ? "" : description);
-    return body;
+  private static byte[] errorBody(String error, String description) {
+    return ERROR.write(error, description == null ? "" : description);
   }
 
-  private static URI redirectTarget(HttpResponse<String> response) {
+  private static URI redirectTarget(HttpResponse<byte[]> response) {
     if (!Http.is2xx(response.statusCode())) {
       throw new HydraFlowException(
-          "Admin request failed (HTTP " + response.statusCode() + "): " + response.body());
+          "Admin request failed (HTTP " + response.statusCode() + "): " + Http.text(response));
     }
     Map<String, Object> json;
     try {
       json = Json.parseObject(response.body());
     } catch (JsonParseException e) {
-      throw new HydraFlowException("Unparseable admin response: " + response.body(), e);
+      throw new HydraFlowException("Unparseable admin response: " + Http.text(response), e);
     }
     Object redirect = json.get("redirect_to");
     if (redirect == null) {
-      throw new HydraFlowException("Admin response missing redirect_to: " + response.body());
+      throw new HydraFlowException("Admin response missing redirect_to: " + Http.text(response));
     }
     return URI.create(redirect.toString());
   }
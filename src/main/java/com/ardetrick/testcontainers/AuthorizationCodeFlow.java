@@ -3,21 +3,16 @@ package com.ardetrick.testcontainers;
 import com.ardetrick.testcontainers.FlowResult.OAuthError;
 import java.net.CookieManager;
 import java.net.URI;
-import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
-import java.nio.charset.StandardCharsets;
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
-import java.security.SecureRandom;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Base64;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 /**
  * Drives a full OAuth 2.0 authorization-code flow against Hydra, auto-accepting (or rejecting) the
@@ -37,6 +32,9 @@ public final class AuthorizationCodeFlow {
 
   private final URI publicBaseUri;
   private final URI adminBaseUri;
+  private final HttpTransport http;
+  private final EphemeralClients ephemeralClients;
+  private final MetadataCache metadata;
 
   private String clientId;
   private String clientSecret;
@@ -52,6 +50,8 @@ public final class AuthorizationCodeFlow {
   private boolean usePkce = false;
   private boolean publicClient = false;
   private String redirectUri = DEFAULT_REDIRECT_URI;
+  private boolean fastMode = false;
+  private Consumer<? super FlowTrace> traceListener;
 
   /**
    * Creates a flow bound to a running Hydra container's endpoints.
@@ -60,8 +60,27 @@ public final class AuthorizationCodeFlow {
    * @param adminBaseUri the admin API base URI
    */
   public AuthorizationCodeFlow(URI publicBaseUri, URI adminBaseUri) {
+    this(
+        publicBaseUri,
+        adminBaseUri,
+        HttpTransport.shared(),
+        new EphemeralClients(),
+        new MetadataCache());
+  }
+
+  // Ephemeral clients and the discovery document come from the container's registry and cache, so
+  // its flows share them.
+  AuthorizationCodeFlow(
+      URI publicBaseUri,
+      URI adminBaseUri,
+      HttpTransport http,
+      EphemeralClients ephemeralClients,
+      MetadataCache metadata) {
     this.publicBaseUri = publicBaseUri;
     this.adminBaseUri = adminBaseUri;
+    this.http = http;
+    this.ephemeralClients = ephemeralClients;
+    this.metadata = metadata;
   }
 
   /**
@@ -225,6 +244,53 @@ public final class AuthorizationCodeFlow {
     return this;
   }
 
+  /**
+   * Trades the browser-faithful flow for fewer requests per token (default disabled), e.g. when
+   * minting many tokens for a load test.
+   *
+   * <p>The ephemeral client is registered with Hydra's {@code skip_consent}, so Hydra grants
+   * consent itself instead of redirecting to the consent endpoint — saving the consent redirect and
+   * its admin answer, and leaving {@link #rejectConsent(String, String)} without effect. A supplied
+   * client skips consent only if it was registered that way. Only consent is skipped: Hydra sends
+   * every execution to the login endpoint, even for a subject with a remembered session, so the
+   * login redirect and its admin answer remain and no login is remembered. A {@linkplain
+   * #trace(Consumer) trace} lists the requests actually sent.
+   *
+   * @param enabled whether to use the fast path
+   * @return this flow
+   */
+  public AuthorizationCodeFlow fastMode(boolean enabled) {
+    this.fastMode = enabled;
+    return this;
+  }
+
+  /**
+   * Traces each execution (default disabled) and hands its {@link FlowTrace} to the listener once
+   * the execution has a result: every request it sent — the authorization request, each redirect
+   * followed, the login and consent answers, and the code exchange — with its status, body sizes,
+   * and timings. The listener runs on the thread completing the execution; concurrent executions
+   * call it concurrently. An exception it throws fails the execution. A disabled trace costs
+   * nothing.
+   *
+   * @param listener receives the trace of each execution, or {@code null} to disable tracing
+   * @return this flow
+   */
+  public AuthorizationCodeFlow trace(Consumer<? super FlowTrace> listener) {
+    this.traceListener = listener;
+    return this;
+  }
+
+  /**
+   * Captures this flow's configuration in an immutable {@link Spec} that any number of threads may
+   * execute at once — built once, e.g., and shared by every virtual thread of a load driver instead
+   * of each configuring a flow of its own. Later changes to this flow do not affect the spec.
+   *
+   * @return a spec of the flow as configured now
+   */
+  public Spec spec() {
+    return new Spec(this);
+  }
+
   /**
    * Runs the flow and returns the result.
    *
@@ -233,78 +299,77 @@ public final class AuthorizationCodeFlow {
    * @throws HydraFlowException if the flow cannot be completed
    */
   public FlowResult execute() {
-    HttpClient http =
-        HttpClient.newBuilder()
-            .cookieHandler(new CookieManager())
-            .followRedirects(HttpClient.Redirect.NEVER)
-            .build();
-    AdminClient admin = new AdminClient(http, adminBaseUri);
-
-    resolveClient(admin);
-
-    String state = UUID.randomUUID().toString();
-    String codeVerifier = usePkce || publicClient ? randomUrlSafe() : null;
-    URI current = buildAuthorizeUri(state, codeVerifier == null ? null : s256(codeVerifier));
-    // A path-bearing issuer (Hydra behind a gateway in production) prefixes every issuer-derived
-    // redirect with a path the container does not serve; learn it once so rewrites can strip it.
-    String issuerPathPrefix =
-        OpenIdConfiguration.issuerPathPrefix(OpenIdConfiguration.fetch(publicBaseUri).issuer());
-
-    // Each hop is one of: an OAuth error, a login/consent challenge to answer via the admin API,
-    // the client callback carrying the code, or another Hydra-bound redirect to follow.
-    for (int hop = 0; hop < MAX_HOPS; hop++) {
-      URI location = followRedirect(http, current);
-      Map<String, String> query = parseQuery(location.getRawQuery());
-
-      if (query.containsKey("error")) {
-        return new OAuthError(
-            query.get("error"), query.get("error_description"), query.get("error_uri"));
-      }
-      if (query.containsKey("login_challenge")) {
-        current = rewrite(answerLogin(admin, query.get("login_challenge")), issuerPathPrefix);
-      } else if (query.containsKey("consent_challenge")) {
-        current = rewrite(answerConsent(admin, query.get("consent_challenge")), issuerPathPrefix);
-      } else if (isRedirectUri(location)) {
-        return exchangeCode(query, state, codeVerifier);
-      } else {
-        current = rewrite(location, issuerPathPrefix);
-      }
-    }
+    return spec().execute();
+  }
 
-    throw new HydraFlowException(
-        "Authorization code not received within " + MAX_HOPS + " redirects");
+  /**
+   * Runs the flow without blocking the calling thread — each redirect hop, login and consent
+   * answer, and the code exchange is sent asynchronously — and completes with the same result
+   * {@link #execute()} returns.
+   *
+   * <p>The execution uses the configuration at the time of the call, so the flow may be
+   * reconfigured or run again before the returned future has completed.
+   *
+   * @return completes with a {@link FlowResult.TokenResponse} on success, or a {@link OAuthError}
+   *     if Hydra returned an OAuth error; fails with a {@link HydraFlowException} if the flow
+   *     cannot be completed
+   */
+  public CompletableFuture<FlowResult> executeAsync() {
+    return spec().executeAsync();
   }
 
   /**
-   * Exchanges a refresh token for a new token pair (RFC 6749 §6) using this flow's client.
+   * Exchanges a refresh token for a new token pair (RFC 6749 §6) using this flow's client — the
+   * supplied one, or the ephemeral client that flows configured like this one share.
    *
-   * <p>Call after {@link #execute()} so this flow's client — ephemeral or supplied — is resolved,
-   * or pre-set {@link #clientId(String)} (and {@link #clientSecret(String)}, unless {@link
-   * #publicClient(boolean)}) to refresh a token minted elsewhere by that client.
+   * <p>To refresh a token minted elsewhere, set {@link #clientId(String)} (and {@link
+   * #clientSecret(String)}, unless {@link #publicClient(boolean)}) to the client it was issued to.
    *
    * @param refreshToken the refresh token to exchange
    * @return a {@link FlowResult.TokenResponse} on success, or a {@link OAuthError} (e.g. {@code
    *     invalid_grant} for an unknown, expired, or already-rotated refresh token)
-   * @throws HydraFlowException if no client is resolved or the request cannot be completed
+   * @throws HydraFlowException if the client is misconfigured or the request cannot be completed
    */
   public FlowResult refresh(String refreshToken) {
-    if (clientId == null) {
-      throw new HydraFlowException(
-          "No client resolved: call execute() first, or set clientId() to refresh with a known"
-              + " client");
+    return spec().refresh(refreshToken);
+  }
+
+  /** Builds the consent session carrying the given claims, as {@link #claims(Map)} and co. do. */
+  static Map<String, Object> session(
+      Map<String, Object> accessTokenClaims, Map<String, Object> idTokenClaims) {
+    Map<String, Object> session = new LinkedHashMap<>();
+    if (!accessTokenClaims.isEmpty()) {
+      session.put("access_token", new LinkedHashMap<>(accessTokenClaims));
     }
-    return TokenEndpointClient.refreshToken(
-        publicBaseUri.resolve("/oauth2/token"), clientId, clientSecret, refreshToken);
+    if (!idTokenClaims.isEmpty()) {
+      session.put("id_token", new LinkedHashMap<>(idTokenClaims));
+    }
+    return session;
   }
 
-  private static URI followRedirect(HttpClient http, URI current) {
-    HttpResponse<String> response = Http.send(http, HttpRequest.newBuilder(current).GET().build());
+  static Map<String, String> parseQuery(String rawQuery) {
+    Map<String, String> map = new LinkedHashMap<>();
+    if (rawQuery == null || rawQuery.isEmpty()) {
+      return map;
+    }
+    for (String pair : rawQuery.split("&")) {
+      int idx = pair.indexOf('=');
+      if (idx < 0) {
+        map.put(Http.decode(pair), "");
+      } else {
+        map.put(Http.decode(pair.substring(0, idx)), Http.decode(pair.substring(idx + 1)));
+      }
+    }
+    return map;
+  }
+
+  private static URI redirectLocation(URI current, HttpResponse<byte[]> response) {
     if (!Http.is3xx(response.statusCode())) {
       throw new HydraFlowException(
           "Unexpected non-redirect response (HTTP "
               + response.statusCode()
               + ") during authorization flow: "
-              + response.body());
+              + Http.text(response));
     }
     return current.resolve(
         response
@@ -314,137 +379,319 @@ public final class AuthorizationCodeFlow {
                 () -> new HydraFlowException("Redirect response without Location header")));
   }
 
-  private URI answerLogin(AdminClient admin, String challenge) {
-    return rejectLoginError != null
-        ? admin.rejectLogin(challenge, rejectLoginError, rejectLoginDescription)
-        : admin.acceptLogin(challenge, subject);
-  }
-
-  private URI answerConsent(AdminClient admin, String challenge) {
-    return rejectConsentError != null
-        ? admin.rejectConsent(challenge, rejectConsentError, rejectConsentDescription)
-        : admin.acceptConsent(
-            challenge, new ArrayList<>(scopes), new ArrayList<>(audience), session());
-  }
-
-  private FlowResult exchangeCode(Map<String, String> query, String state, String codeVerifier) {
-    if (!state.equals(query.get("state"))) {
-      throw new HydraFlowException("State mismatch in authorization response");
+  /**
+   * An authorization-code flow configured by {@link AuthorizationCodeFlow#spec()}: immutable, and
+   * safe to execute from any number of threads at once. Each execution keeps its browser session,
+   * state, and PKCE verifier to itself.
+   *
+   * <p>Without a supplied client, each execution obtains the ephemeral client shared by flows
+   * configured alike, registering it once.
+   */
+  public static final class Spec {
+
+    private final URI publicBaseUri;
+    private final URI adminBaseUri;
+    private final HttpTransport http;
+    private final EphemeralClients ephemeralClients;
+    private final MetadataCache metadata;
+    private final String clientId;
+    private final String clientSecret;
+    private final List<String> scopes;
+    private final String subject;
+    private final List<String> audience;
+    private final Map<String, Object> session;
+    private final String rejectLoginError;
+    private final String rejectLoginDescription;
+    private final String rejectConsentError;
+    private final String rejectConsentDescription;
+    private final boolean pkce;
+    private final boolean publicClient;
+    private final String redirectUri;
+    private final boolean fastMode;
+    private final Consumer<? super FlowTrace> traceListener;
+
+    private Spec(AuthorizationCodeFlow flow) {
+      this.publicBaseUri = flow.publicBaseUri;
+      this.adminBaseUri = flow.adminBaseUri;
+      this.http = flow.http;
+      this.ephemeralClients = flow.ephemeralClients;
+      this.metadata = flow.metadata;
+      this.clientId = flow.clientId;
+      this.clientSecret = flow.clientSecret;
+      this.scopes = List.copyOf(flow.scopes);
+      this.subject = flow.subject;
+      this.audience = List.copyOf(flow.audience);
+      this.session = session(flow.accessTokenClaims, flow.idTokenClaims);
+      this.rejectLoginError = flow.rejectLoginError;
+      this.rejectLoginDescription = flow.rejectLoginDescription;
+      this.rejectConsentError = flow.rejectConsentError;
+      this.rejectConsentDescription = flow.rejectConsentDescription;
+      this.pkce = flow.usePkce || flow.publicClient;
+      this.publicClient = flow.publicClient;
+      this.redirectUri = flow.redirectUri;
+      this.fastMode = flow.fastMode;
+      this.traceListener = flow.traceListener;
     }
-    String code = query.get("code");
-    if (code == null) {
-      throw new HydraFlowException("Authorization response contains neither code nor error");
+
+    /**
+     * Runs the flow and returns the result.
+     *
+     * @return a {@link FlowResult.TokenResponse} on success, or a {@link OAuthError} if Hydra
+     *     returned an OAuth error (e.g. from a rejected login/consent)
+     * @throws HydraFlowException if the flow cannot be completed
+     */
+    public FlowResult execute() {
+      return Http.await(executeAsync());
     }
-    return TokenEndpointClient.authorizationCode(
-        publicBaseUri.resolve("/oauth2/token"),
-        clientId,
-        clientSecret,
-        code,
-        redirectUri,
-        codeVerifier);
-  }
 
-  private void resolveClient(AdminClient admin) {
-    if (publicClient && clientSecret != null) {
-      throw new HydraFlowException("public clients have no client secret");
+    /**
+     * Runs the flow like {@link #execute()} without blocking the calling thread.
+     *
+     * @return completes with a {@link FlowResult.TokenResponse} on success, or a {@link OAuthError}
+     *     if Hydra returned an OAuth error; fails with a {@link HydraFlowException} if the flow
+     *     cannot be completed
+     */
+    public CompletableFuture<FlowResult> executeAsync() {
+      return prepareAsync().thenCompose(prepared -> executeAsync(subject, session, prepared));
     }
-    if (clientId != null) {
-      if (clientSecret == null && !publicClient) {
-        throw new HydraFlowException("clientSecret must be set when clientId is provided");
-      }
-      return;
+
+    /**
+     * Exchanges a refresh token for a new token pair like {@link
+     * AuthorizationCodeFlow#refresh(String)}.
+     *
+     * @param refreshToken the refresh token to exchange
+     * @return a {@link FlowResult.TokenResponse} on success, or a {@link OAuthError}
+     * @throws HydraFlowException if the client is misconfigured or the request cannot be completed
+     */
+    public FlowResult refresh(String refreshToken) {
+      return Http.await(refreshAsync(refreshToken));
     }
-    String id = "tc-" + UUID.randomUUID();
-    Map<String, Object> registration = new LinkedHashMap<>();
-    registration.put("client_id", id);
-    registration.put("grant_types", List.of("authorization_code", "refresh_token"));
-    registration.put("response_types", List.of("code"));
-    registration.put("redirect_uris", List.of(redirectUri));
-    registration.put("scope", String.join(" ", scopes));
-    if (publicClient) {
-      registration.put("token_endpoint_auth_method", "none");
-    } else {
-      String secret = UUID.randomUUID().toString();
-      registration.put("client_secret", secret);
-      registration.put("token_endpoint_auth_method", "client_secret_basic");
-      this.clientSecret = secret;
+
+    /** Sends the refresh request of {@link #refresh(String)}. */
+    CompletableFuture<FlowResult> refreshAsync(String refreshToken) {
+      return resolveClientAsync()
+          .thenCompose(
+              client ->
+                  TokenEndpointClient.refreshToken(
+                      http,
+                      publicBaseUri.resolve("/oauth2/token"),
+                      client.clientId(),
+                      client.clientSecret(),
+                      refreshToken));
     }
-    if (!audience.isEmpty()) {
-      registration.put("audience", new ArrayList<>(audience));
+
+    /**
+     * Resolves the client — obtaining the ephemeral one unless supplied — and learns the issuer's
+     * path prefix, once for any number of {@link #executeAsync(String, Map, Prepared)} calls.
+     */
+    CompletableFuture<Prepared> prepareAsync() {
+      // A path-bearing issuer (Hydra behind a gateway in production) prefixes every issuer-derived
+      // redirect with a path the container does not serve; learn it so rewrites can strip it. The
+      // document is cached, so this costs a round trip only when it is stale.
+      CompletableFuture<String> issuerPathPrefix =
+          metadata
+              .openIdConfiguration(http, publicBaseUri)
+              .thenApply(
+                  configuration -> OpenIdConfiguration.issuerPathPrefix(configuration.issuer()));
+      return resolveClientAsync().thenCombine(issuerPathPrefix, Prepared::new);
     }
-    admin.createClient(registration);
-    this.clientId = id;
-  }
 
-  private Map<String, Object> session() {
-    Map<String, Object> session = new LinkedHashMap<>();
-    if (!accessTokenClaims.isEmpty()) {
-      session.put("access_token", accessTokenClaims);
+    /**
+     * Runs the flow for the given subject and consent session with the client and issuer prefix of
+     * {@link #prepareAsync()}; calls for different subjects may run concurrently.
+     */
+    CompletableFuture<FlowResult> executeAsync(
+        String subject, Map<String, Object> session, Prepared prepared) {
+      // The browser session: Hydra's CSRF cookies must travel between the hops of this execution
+      // only.
+      FlowTracer tracer = traceListener != null ? new FlowTracer() : null;
+      CookieManager cookies = new CookieManager();
+      PkceGenerator.Secrets secrets = PkceGenerator.shared().next();
+      Execution execution =
+          new Execution(
+              new AdminClient(http, adminBaseUri, tracer),
+              tracer,
+              cookies,
+              prepared.client(),
+              secrets.state(),
+              pkce ? secrets.codeVerifier() : null,
+              prepared.issuerPathPrefix(),
+              subject,
+              session);
+      URI authorize = buildAuthorizeUri(execution, pkce ? secrets.codeChallenge() : null);
+      CompletableFuture<FlowResult> result = hop(execution, authorize, 0);
+      if (tracer != null) {
+        result =
+            result.thenApply(
+                outcome -> {
+                  traceListener.accept(tracer.finish());
+                  return outcome;
+                });
+      }
+      return result;
     }
-    if (!idTokenClaims.isEmpty()) {
-      session.put("id_token", idTokenClaims);
+
+    // Each hop is one of: an OAuth error, a login/consent challenge to answer via the admin API,
+    // the client callback carrying the code, or another Hydra-bound redirect to follow.
+    private CompletableFuture<FlowResult> hop(Execution execution, URI current, int hop) {
+      if (hop == MAX_HOPS) {
+        return CompletableFuture.failedFuture(
+            new HydraFlowException(
+                "Authorization code not received within " + MAX_HOPS + " redirects"));
+      }
+      return followRedirect(execution, current, hop == 0)
+          .thenCompose(
+              location -> {
+                Map<String, String> query = parseQuery(location.getRawQuery());
+                if (query.containsKey("error")) {
+                  return CompletableFuture.completedFuture(
+                      new OAuthError(
+                          query.get("error"),
+                          query.get("error_description"),
+                          query.get("error_uri")));
+                }
+                CompletableFuture<URI> next;
+                if (query.containsKey("login_challenge")) {
+                  next = answerLogin(execution, query.get("login_challenge"));
+                } else if (query.containsKey("consent_challenge")) {
+                  next = answerConsent(execution, query.get("consent_challenge"));
+                } else if (isRedirectUri(location)) {
+                  return exchangeCode(query, execution);
+                } else {
+                  next = CompletableFuture.completedFuture(location);
+                }
+                return next.thenCompose(
+                    target ->
+                        hop(execution, rewrite(target, execution.issuerPathPrefix()), hop + 1));
+              });
     }
-    return session;
-  }
 
-  private URI buildAuthorizeUri(String state, String codeChallenge) {
-    StringBuilder query = new StringBuilder();
-    query.append("client_id=").append(Http.encode(clientId));
-    query.append("&response_type=code");
-    query.append("&redirect_uri=").append(Http.encode(redirectUri));
-    query.append("&scope=").append(Http.encode(String.join(" ", scopes)));
-    query.append("&state=").append(Http.encode(state));
-    for (String aud : audience) {
-      query.append("&audience=").append(Http.encode(aud));
+    private CompletableFuture<URI> followRedirect(Execution execution, URI current, boolean first) {
+      HttpRequest request = HttpRequest.newBuilder(current).GET().build();
+      CompletableFuture<HttpResponse<byte[]>> response;
+      if (execution.tracer() == null) {
+        response = http.sendAsync(request, execution.cookies());
+      } else {
+        response =
+            execution
+                .tracer()
+                .record(
+                    first ? FlowTrace.Kind.AUTHORIZE : FlowTrace.Kind.REDIRECT,
+                    request,
+                    System.nanoTime(),
+                    http.sendAsync(request, execution.cookies()));
+      }
+      return response.thenApply(completed -> redirectLocation(current, completed));
     }
-    if (codeChallenge != null) {
-      query.append("&code_challenge=").append(Http.encode(codeChallenge));
-      query.append("&code_challenge_method=S256");
+
+    private CompletableFuture<URI> answerLogin(Execution execution, String challenge) {
+      if (rejectLoginError != null) {
+        return execution
+            .admin()
+            .rejectLoginAsync(challenge, rejectLoginError, rejectLoginDescription);
+      }
+      return execution.admin().acceptLoginAsync(challenge, execution.subject());
     }
-    return publicBaseUri.resolve("/oauth2/auth?" + query);
-  }
 
-  private boolean isRedirectUri(URI location) {
-    URI redirect = URI.create(redirectUri);
-    return Objects.equals(redirect.getScheme(), location.getScheme())
-        && Objects.equals(redirect.getHost(), location.getHost())
-        && redirect.getPort() == location.getPort()
-        && Objects.equals(redirect.getPath(), location.getPath());
-  }
+    private CompletableFuture<URI> answerConsent(Execution execution, String challenge) {
+      return rejectConsentError != null
+          ? execution
+              .admin()
+              .rejectConsentAsync(challenge, rejectConsentError, rejectConsentDescription)
+          : execution.admin().acceptConsentAsync(challenge, scopes, audience, execution.session());
+    }
 
-  private URI rewrite(URI location, String issuerPathPrefix) {
-    return OpenIdConfiguration.retarget(location, issuerPathPrefix, publicBaseUri);
-  }
+    private CompletableFuture<FlowResult> exchangeCode(
+        Map<String, String> query, Execution execution) {
+      if (!execution.state().equals(query.get("state"))) {
+        throw new HydraFlowException("State mismatch in authorization response");
+      }
+      String code = query.get("code");
+      if (code == null) {
+        throw new HydraFlowException("Authorization response contains neither code nor error");
+      }
+      return TokenEndpointClient.authorizationCode(
+          http,
+          publicBaseUri.resolve("/oauth2/token"),
+          execution.client().clientId(),
+          execution.client().clientSecret(),
+          code,
+          redirectUri,
+          execution.codeVerifier(),
+          execution.tracer());
+    }
 
-  private static Map<String, String> parseQuery(String rawQuery) {
-    Map<String, String> map = new LinkedHashMap<>();
-    if (rawQuery == null || rawQuery.isEmpty()) {
-      return map;
+    // Validation failures complete the future exceptionally, like the registration's.
+    private CompletableFuture<EphemeralClients.Client> resolveClientAsync() {
+      if (publicClient && clientSecret != null) {
+        return CompletableFuture.failedFuture(
+            new HydraFlowException("public clients have no client secret"));
+      }
+      if (clientId != null) {
+        if (clientSecret == null && !publicClient) {
+          return CompletableFuture.failedFuture(
+              new HydraFlowException("clientSecret must be set when clientId is provided"));
+        }
+        return CompletableFuture.completedFuture(
+            new EphemeralClients.Client(clientId, clientSecret));
+      }
+      Map<String, Object> registration = new LinkedHashMap<>();
+      registration.put("grant_types", List.of("authorization_code", "refresh_token"));
+      registration.put("response_types", List.of("code"));
+      registration.put("redirect_uris", List.of(redirectUri));
+      registration.put("scope", String.join(" ", scopes));
+      registration.put("token_endpoint_auth_method", publicClient ? "none" : "client_secret_basic");
+      if (!audience.isEmpty()) {
+        registration.put("audience", audience);
+      }
+      if (fastMode) {
+        registration.put("skip_consent", true);
+      }
+      return ephemeralClients.obtain(http, adminBaseUri, registration);
     }
-    for (String pair : rawQuery.split("&")) {
-      int idx = pair.indexOf('=');
-      if (idx < 0) {
-        map.put(Http.decode(pair), "");
-      } else {
-        map.put(Http.decode(pair.substring(0, idx)), Http.decode(pair.substring(idx + 1)));
+
+    private URI buildAuthorizeUri(Execution execution, String codeChallenge) {
+      StringBuilder query = new StringBuilder();
+      query.append("client_id=").append(Http.encode(execution.client().clientId()));
+      query.append("&response_type=code");
+      query.append("&redirect_uri=").append(Http.encode(redirectUri));
+      query.append("&scope=").append(Http.encode(String.join(" ", scopes)));
+      query.append("&state=").append(Http.encode(execution.state()));
+      for (String aud : audience) {
+        query.append("&audience=").append(Http.encode(aud));
+      }
+      if (codeChallenge != null) {
+        query.append("&code_challenge=").append(Http.encode(codeChallenge));
+        query.append("&code_challenge_method=S256");
       }
+      return publicBaseUri.resolve("/oauth2/auth?" + query);
     }
-    return map;
-  }
 
-  private static String randomUrlSafe() {
-    byte[] buffer = new byte[64];
-    new SecureRandom().nextBytes(buffer);
-    return Base64.getUrlEncoder().withoutPadding().encodeToString(buffer);
-  }
+    private boolean isRedirectUri(URI location) {
+      URI redirect = URI.create(redirectUri);
+      return Objects.equals(redirect.getScheme(), location.getScheme())
+          && Objects.equals(redirect.getHost(), location.getHost())
+          && redirect.getPort() == location.getPort()
+          && Objects.equals(redirect.getPath(), location.getPath());
+    }
 
-  private static String s256(String verifier) {
-    try {
-      MessageDigest digest = MessageDigest.getInstance("SHA-256");
-      byte[] hash = digest.digest(verifier.getBytes(StandardCharsets.US_ASCII));
-      return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
-    } catch (NoSuchAlgorithmException e) {
-      throw new HydraFlowException("SHA-256 is not available", e);
+    private URI rewrite(URI location, String issuerPathPrefix) {
+      return OpenIdConfiguration.retarget(location, issuerPathPrefix, publicBaseUri);
     }
   }
+
+  /** The client and issuer path prefix that any number of executions of a spec share. */
+  record Prepared(EphemeralClients.Client client, String issuerPathPrefix) {}
+
+  // Per-execution state threaded through the asynchronous redirect loop.
+  private record Execution(
+      AdminClient admin,
+      FlowTracer tracer,
+      CookieManager cookies,
+      EphemeralClients.Client client,
+      String state,
+      String codeVerifier,
+      String issuerPathPrefix,
+      String subject,
+      Map<String, Object> session) {}
 }
@@ -1,29 +1,34 @@
 package com.ardetrick.testcontainers;
 
 import java.net.URI;
-import java.net.http.HttpClient;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Drives an OAuth 2.0 client-credentials grant (RFC 6749 §4.4) against Hydra.
  *
  * <p>The grant has no end-user, so a successful {@link FlowResult.TokenResponse} never carries an
- * ID token or refresh token. If no client is supplied via {@link #clientId(String)}, an ephemeral
- * client is created for the request.
+ * ID token or refresh token. If no client is supplied via {@link #clientId(String)}, the flow uses
+ * an ephemeral client that every flow with the same configuration shares; the container deletes it
+ * on {@code stop()} or {@code reset()}, or once a janitor run finds it unused.
  */
 public final class ClientCredentialsFlow {
 
   private final URI publicBaseUri;
   private final URI adminBaseUri;
+  private final HttpTransport http;
+  private final TokenCache cache;
+  private final EphemeralClients ephemeralClients;
 
   private String clientId;
   private String clientSecret;
   private final List<String> scopes = new ArrayList<>();
+  private boolean cached = false;
 
   /**
    * Creates a flow bound to a running Hydra container's endpoints.
@@ -32,8 +37,25 @@ public final class ClientCredentialsFlow {
    * @param adminBaseUri the admin API base URI
    */
   public ClientCredentialsFlow(URI publicBaseUri, URI adminBaseUri) {
+    this(
+        publicBaseUri,
+        adminBaseUri,
+        HttpTransport.shared(),
+        TokenCache.shared(),
+        new EphemeralClients());
+  }
+
+  ClientCredentialsFlow(
+      URI publicBaseUri,
+      URI adminBaseUri,
+      HttpTransport http,
+      TokenCache cache,
+      EphemeralClients ephemeralClients) {
     this.publicBaseUri = publicBaseUri;
     this.adminBaseUri = adminBaseUri;
+    this.http = http;
+    this.cache = cache;
+    this.ephemeralClients = ephemeralClients;
   }
 
   /**
@@ -71,6 +93,35 @@ public final class ClientCredentialsFlow {
     return this;
   }
 
+  /**
+   * Reuses a token minted earlier for the same client, secret, and scopes while it is still valid,
+   * instead of requesting a new one on every execution (default disabled).
+   *
+   * <p>Cached tokens are shared by every cached flow of the container and expire a skew before the
+   * token itself does (see {@link OryHydraContainer.Builder#tokenCacheSkew(Duration)}). Concurrent
+   * executions for the same key send a single token request. A flow without a supplied client
+   * creates its ephemeral client on the first execution and caches from then on. Leave disabled
+   * when a test needs distinct tokens, e.g. to revoke one.
+   *
+   * @param enabled whether to use the token cache
+   * @return this flow
+   * @see OryHydraContainer#tokenCacheStats()
+   */
+  public ClientCredentialsFlow cached(boolean enabled) {
+    this.cached = enabled;
+    return this;
+  }
+
+  /**
+   * Captures this flow's configuration in an immutable {@link Spec} that any number of threads may
+   * execute at once. Later changes to this flow do not affect the spec.
+   *
+   * @return a spec of the flow as configured now
+   */
+  public Spec spec() {
+    return new Spec(this);
+  }
+
   /**
    * Runs the flow and returns the result.
    *
@@ -79,28 +130,104 @@ public final class ClientCredentialsFlow {
    * @throws HydraFlowException if the request cannot be completed
    */
   public FlowResult execute() {
-    if (clientId == null) {
-      createEphemeralClient();
-    } else if (clientSecret == null) {
-      throw new HydraFlowException("clientSecret must be set when clientId is provided");
-    }
-    return TokenEndpointClient.clientCredentials(
-        publicBaseUri.resolve("/oauth2/token"), clientId, clientSecret, scopes);
+    return spec().execute();
+  }
+
+  /**
+   * Runs the flow without blocking the calling thread; completes with the same result {@link
+   * #execute()} returns.
+   *
+   * <p>The execution uses the configuration at the time of the call, so the flow may be
+   * reconfigured or run again before the returned future has completed.
+   *
+   * @return completes with a {@link FlowResult.TokenResponse} on success, or a {@link
+   *     FlowResult.OAuthError} on an OAuth error response; fails with a {@link HydraFlowException}
+   *     if the request cannot be completed
+   */
+  public CompletableFuture<FlowResult> executeAsync() {
+    return spec().executeAsync();
   }
 
-  private void createEphemeralClient() {
-    String id = "tc-" + UUID.randomUUID();
-    String secret = UUID.randomUUID().toString();
-    Map<String, Object> registration = new LinkedHashMap<>();
-    registration.put("client_id", id);
-    registration.put("client_secret", secret);
-    registration.put("grant_types", List.of("client_credentials"));
-    registration.put("token_endpoint_auth_method", "client_secret_basic");
-    if (!scopes.isEmpty()) {
-      registration.put("scope", String.join(" ", scopes));
+  /**
+   * A client-credentials flow configured by {@link ClientCredentialsFlow#spec()}: immutable, and
+   * safe to execute from any number of threads at once. Without a supplied client, each execution
+   * obtains the ephemeral client shared by flows with the same scopes, registering it once.
+   */
+  public static final class Spec {
+
+    private final URI tokenEndpoint;
+    private final URI adminBaseUri;
+    private final HttpTransport http;
+    private final TokenCache cache;
+    private final EphemeralClients ephemeralClients;
+    private final String clientId;
+    private final String clientSecret;
+    private final List<String> scopes;
+    private final boolean cached;
+
+    private Spec(ClientCredentialsFlow flow) {
+      this.tokenEndpoint = flow.publicBaseUri.resolve("/oauth2/token");
+      this.adminBaseUri = flow.adminBaseUri;
+      this.http = flow.http;
+      this.cache = flow.cache;
+      this.ephemeralClients = flow.ephemeralClients;
+      this.clientId = flow.clientId;
+      this.clientSecret = flow.clientSecret;
+      this.scopes = List.copyOf(flow.scopes);
+      this.cached = flow.cached;
+    }
+
+    /**
+     * Runs the flow and returns the result.
+     *
+     * @return a {@link FlowResult.TokenResponse} on success, or a {@link FlowResult.OAuthError} on
+     *     an OAuth error response
+     * @throws HydraFlowException if the request cannot be completed
+     */
+    public FlowResult execute() {
+      return Http.await(executeAsync());
+    }
+
+    /**
+     * Runs the flow like {@link #execute()} without blocking the calling thread.
+     *
+     * @return completes with a {@link FlowResult.TokenResponse} on success, or a {@link
+     *     FlowResult.OAuthError} on an OAuth error response; fails with a {@link
+     *     HydraFlowException} if the request cannot be completed
+     */
+    public CompletableFuture<FlowResult> executeAsync() {
+      CompletableFuture<EphemeralClients.Client> client;
+      if (clientId == null) {
+        client = obtainEphemeralClient();
+      } else if (clientSecret == null) {
+        return CompletableFuture.failedFuture(
+            new HydraFlowException("clientSecret must be set when clientId is provided"));
+      } else {
+        client =
+            CompletableFuture.completedFuture(new EphemeralClients.Client(clientId, clientSecret));
+      }
+      return client.thenCompose(this::requestToken);
+    }
+
+    private CompletableFuture<FlowResult> requestToken(EphemeralClients.Client client) {
+      String id = client.clientId();
+      String secret = client.clientSecret();
+      if (!cached) {
+        return TokenEndpointClient.clientCredentials(http, tokenEndpoint, id, secret, scopes);
+      }
+      return cache.get(
+          TokenCache.Key.of(tokenEndpoint, id, secret, scopes),
+          () -> TokenEndpointClient.clientCredentials(http, tokenEndpoint, id, secret, scopes));
+    }
+
+    private CompletableFuture<EphemeralClients.Client> obtainEphemeralClient() {
+      Map<String, Object> registration = new LinkedHashMap<>();
+      registration.put("grant_types", List.of("client_credentials"));
+      registration.put("token_endpoint_auth_method", "client_secret_basic");
+      if (!scopes.isEmpty()) {
+        registration.put("scope", String.join(" ", scopes));
+      }
+      return ephemeralClients.obtain(http, adminBaseUri, registration);
     }
-    new AdminClient(HttpClient.newHttpClient(), adminBaseUri).createClient(registration);
-    this.clientId = id;
-    this.clientSecret = secret;
   }
 }
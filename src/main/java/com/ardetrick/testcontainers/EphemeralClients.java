@@ -0,0 +1,162 @@
+package com.ardetrick.testcontainers;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registers the {@code tc-<uuid>} clients that flows create when none is supplied, once per
+ * distinct registration, so flows with the same configuration share one client instead of each
+ * paying for a client write (and a bcrypt-hashed secret) and leaving it behind in the database.
+ *
+ * <p>A registration is identified by everything the flow would send except the generated client ID
+ * and secret: grant and response types, redirect URIs, scope, audience, and token endpoint
+ * authentication method. Concurrent requests for a registration in flight wait for it instead of
+ * registering their own; a failed registration reaches every waiter and is then forgotten.
+ *
+ * <p>A client not obtained between two calls of {@link #deleteUnused(HttpTransport)} is stale: the
+ * second call deletes it, and the next flow with its registration registers a new one.
+ */
+final class EphemeralClients {
+
+  private final ConcurrentHashMap<Key, Entry> clients = new ConcurrentHashMap<>();
+
+  /**
+   * Returns the client registered with the given metadata, waits for its registration in flight, or
+   * registers it.
+   *
+   * @param registration the client metadata without {@code client_id} and {@code client_secret}; a
+   *     secret is generated unless {@code token_endpoint_auth_method} is {@code none}
+   * @return the client; cancelling it does not affect other callers waiting for the same client
+   */
+  CompletableFuture<Client> obtain(
+      HttpTransport http, URI adminBaseUri, Map<String, Object> registration) {
+    Key key = new Key(adminBaseUri, Map.copyOf(registration));
+    Entry added = new Entry();
+    // Marked within compute(), so deleteUnused() never deletes a client handed out meanwhile.
+    Entry entry =
+        clients.compute(
+            key,
+            (k, existing) -> {
+              Entry current = existing != null ? existing : added;
+              current.used = true;
+              return current;
+            });
+    if (entry != added) {
+      return entry.client.copy();
+    }
+    CompletableFuture<Client> created = added.client;
+    Client client =
+        new Client(
+            "tc-" + UUID.randomUUID(),
+            "none".equals(registration.get("token_endpoint_auth_method"))
+                ? null
+                : UUID.randomUUID().toString());
+    Map<String, Object> body = new LinkedHashMap<>();
+    body.put("client_id", client.clientId());
+    if (client.clientSecret() != null) {
+      body.put("client_secret", client.clientSecret());
+    }
+    body.putAll(registration);
+    CompletableFuture<Void> registered;
+    try {
+      registered = new AdminClient(http, adminBaseUri).createClientAsync(body);
+    } catch (RuntimeException e) {
+      registered = CompletableFuture.failedFuture(e);
+    }
+    registered.whenComplete(
+        (ignored, failure) -> {
+          if (failure != null) {
+            clients.remove(key, added);
+            created.completeExceptionally(Http.unwrap(failure));
+          } else {
+            created.complete(client);
+          }
+        });
+    return created.copy();
+  }
+
+  /** Returns the number of registrations known, including those in flight. */
+  int size() {
+    return clients.size();
+  }
+
+  /**
+   * Deletes every client registered so far, with the tokens issued to it, and forgets them.
+   * Registrations still in flight are forgotten without being deleted.
+   *
+   * @param http the transport to send the requests with
+   * @return the number of clients deleted
+   * @throws HydraFlowException if a request fails; clients not deleted yet stay registered
+   */
+  int deleteAll(HttpTransport http) {
+    int deleted = 0;
+    for (Map.Entry<Key, Entry> entry : clients.entrySet()) {
+      if (!clients.remove(entry.getKey(), entry.getValue())) {
+        continue;
+      }
+      CompletableFuture<Client> client = entry.getValue().client;
+      if (client.isDone() && !client.isCompletedExceptionally()) {
+        OAuth2Clients.delete(http, entry.getKey().adminBaseUri(), client.join().clientId());
+        deleted++;
+      }
+    }
+    return deleted;
+  }
+
+  /**
+   * Deletes the clients not obtained since the previous call, with the tokens issued to them, and
+   * forgets them; the others count as unused from now on. Registrations in flight are kept.
+   *
+   * @param http the transport to send the requests with
+   * @return the number of clients deleted
+   * @throws HydraFlowException if a request fails; clients not deleted yet are forgotten anyway
+   */
+  int deleteUnused(HttpTransport http) {
+    List<Map.Entry<Key, Client>> stale = new ArrayList<>();
+    for (Key key : clients.keySet()) {
+      clients.computeIfPresent(
+          key,
+          (k, entry) -> {
+            if (entry.used || !entry.client.isDone()) {
+              entry.used = false;
+              return entry;
+            }
+            if (!entry.client.isCompletedExceptionally()) {
+              stale.add(Map.entry(k, entry.client.join()));
+            }
+            return null;
+          });
+    }
+    for (Map.Entry<Key, Client> client : stale) {
+      OAuth2Clients.delete(http, client.getKey().adminBaseUri(), client.getValue().clientId());
+    }
+    return stale.size();
+  }
+
+  /** Forgets every client without deleting it, e.g. after all clients were deleted anyway. */
+  void clear() {
+    clients.clear();
+  }
+
+  /**
+   * A registered client.
+   *
+   * @param clientSecret {@code null} for a public client
+   */
+  record Client(String clientId, String clientSecret) {}
+
+  private record Key(URI adminBaseUri, Map<String, Object> registration) {}
+
+  private static final class Entry {
+
+    private final CompletableFuture<Client> client = new CompletableFuture<>();
+    // Only read and written within the map's compute methods, which lock the entry's bin.
+    private boolean used;
+  }
+}
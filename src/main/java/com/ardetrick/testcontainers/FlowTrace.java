@@ -0,0 +1,70 @@
+package com.ardetrick.testcontainers;
+
+import java.net.URI;
+import java.util.List;
+
+/**
+ * The requests one authorization-code flow execution sent, with their timings — handed to the
+ * {@linkplain AuthorizationCodeFlow#trace(java.util.function.Consumer) trace listener} along with
+ * the execution's {@link FlowResult}, to tell whether the authorization redirects, an admin answer,
+ * or the code exchange made a flow slow.
+ *
+ * @param hops the requests in the order they were sent
+ * @param durationNanos the time from the start of the execution to its result
+ */
+public record FlowTrace(List<Hop> hops, long durationNanos) {
+
+  /** What a request in the flow did. */
+  public enum Kind {
+    /** The authorization request to {@code /oauth2/auth}. */
+    AUTHORIZE,
+    /** A Hydra-bound redirect followed after the authorization request. */
+    REDIRECT,
+    /** The admin API's answer to the login challenge, accepting or rejecting it. */
+    LOGIN,
+    /** The admin API's answer to the consent challenge, accepting or rejecting it. */
+    CONSENT,
+    /** The token endpoint request exchanging the authorization code. */
+    CODE_EXCHANGE
+  }
+
+  /**
+   * One request of the flow. Its duration includes waiting for a free connection of the container's
+   * HTTP transport.
+   *
+   * @param kind what the request did
+   * @param method the HTTP method
+   * @param uri the request URI
+   * @param status the HTTP status of the response
+   * @param requestBytes the size of the request body
+   * @param responseBytes the size of the response body
+   * @param startNanos when the request was started, relative to the start of the execution
+   * @param durationNanos the time from starting the request to receiving the whole response
+   */
+  public record Hop(
+      Kind kind,
+      String method,
+      URI uri,
+      int status,
+      long requestBytes,
+      long responseBytes,
+      long startNanos,
+      long durationNanos) {}
+
+  /**
+   * Returns the time spent in requests of one kind, e.g. to compare the admin answers against the
+   * code exchange.
+   *
+   * @param kind the kind of request
+   * @return the summed durations of the hops of that kind, in nanoseconds
+   */
+  public long nanos(Kind kind) {
+    long nanos = 0;
+    for (Hop hop : hops) {
+      if (hop.kind() == kind) {
+        nanos += hop.durationNanos();
+      }
+    }
+    return nanos;
+  }
+}
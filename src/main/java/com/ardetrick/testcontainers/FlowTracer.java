@@ -0,0 +1,53 @@
+package com.ardetrick.testcontainers;
+
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Collects the {@link FlowTrace} of one flow execution. Callers hold {@code null} instead of a
+ * tracer when tracing is disabled and skip it with a single check, so untraced flows neither
+ * allocate nor read the clock for it.
+ */
+final class FlowTracer {
+
+  private final long start = System.nanoTime();
+  // Hops are sent one after another, each from the completion of the previous one, so additions
+  // never race and each happens-before the next.
+  private final List<FlowTrace.Hop> hops = new ArrayList<>();
+
+  /**
+   * Records the request as a hop of the given kind once its response arrives.
+   *
+   * @param sentNanos the {@link System#nanoTime()} at which the request was started
+   * @param response the pending response
+   * @return the same response, completing once the hop is recorded
+   */
+  CompletableFuture<HttpResponse<byte[]>> record(
+      FlowTrace.Kind kind,
+      HttpRequest request,
+      long sentNanos,
+      CompletableFuture<HttpResponse<byte[]>> response) {
+    return response.thenApply(
+        completed -> {
+          long received = System.nanoTime();
+          hops.add(
+              new FlowTrace.Hop(
+                  kind,
+                  request.method(),
+                  request.uri(),
+                  completed.statusCode(),
+                  request.bodyPublisher().map(body -> Math.max(body.contentLength(), 0)).orElse(0L),
+                  completed.body() == null ? 0 : completed.body().length,
+                  sentNanos - start,
+                  received - sentNanos));
+          return completed;
+        });
+  }
+
+  FlowTrace finish() {
+    return new FlowTrace(List.copyOf(hops), System.nanoTime() - start);
+  }
+}
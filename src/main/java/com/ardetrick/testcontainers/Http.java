@@ -1,29 +1,123 @@
 package com.ardetrick.testcontainers;
 
-import java.io.IOException;
 import java.net.URLDecoder;
 import java.net.URLEncoder;
-import java.net.http.HttpClient;
-import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Function;
 
 /** Small HTTP helpers shared by the OAuth flows. */
 final class Http {
 
   private Http() {}
 
-  static HttpResponse<String> send(HttpClient http, HttpRequest request) {
+  /**
+   * Waits for the future, rethrowing its failure as thrown by the asynchronous code — so a blocking
+   * call fails exactly like its asynchronous variant.
+   */
+  static <T> T await(CompletableFuture<T> future) {
     try {
-      return http.send(request, HttpResponse.BodyHandlers.ofString());
-    } catch (IOException e) {
-      throw new HydraFlowException("Request to " + request.uri() + " failed", e);
+      return future.get();
+    } catch (ExecutionException e) {
+      Throwable cause = unwrap(e);
+      if (cause instanceof RuntimeException runtime) {
+        throw runtime;
+      }
+      if (cause instanceof Error error) {
+        throw error;
+      }
+      throw new HydraFlowException(cause.getMessage(), cause);
     } catch (InterruptedException e) {
       Thread.currentThread().interrupt();
-      throw new HydraFlowException("Request to " + request.uri() + " was interrupted", e);
+      future.cancel(true);
+      throw new HydraFlowException("Interrupted while waiting for Hydra", e);
     }
   }
 
+  /**
+   * Runs {@code task} for every item, at most {@code parallelism} at a time, and waits for all of
+   * them. Every item is attempted even if some fail; the failures are then reported together in one
+   * exception, each attached as a suppressed exception.
+   *
+   * @param what the plural noun for the tasks in the failure message, e.g. {@code client
+   *     registrations}
+   * @throws HydraFlowException if any task fails, or the calling thread is interrupted
+   */
+  static <T> void inLanes(
+      List<T> items, int parallelism, Function<T, CompletableFuture<?>> task, String what) {
+    if (items.isEmpty()) {
+      return;
+    }
+    // A fixed number of lanes each start the next queued item once their previous one completes,
+    // so at most that many are in flight without a thread per item.
+    Queue<T> queue = new ConcurrentLinkedQueue<>(items);
+    Queue<Throwable> failures = new ConcurrentLinkedQueue<>();
+    CompletableFuture<?>[] lanes = new CompletableFuture<?>[Math.min(items.size(), parallelism)];
+    for (int i = 0; i < lanes.length; i++) {
+      lanes[i] = runNext(queue, task, failures);
+    }
+    await(CompletableFuture.allOf(lanes));
+    if (!failures.isEmpty()) {
+      StringBuilder message =
+          new StringBuilder()
+              .append(failures.size())
+              .append(" of ")
+              .append(items.size())
+              .append(' ')
+              .append(what)
+              .append(" failed:");
+      for (Throwable failure : failures) {
+        message.append("\n  - ").append(failure.getMessage());
+      }
+      HydraFlowException exception = new HydraFlowException(message.toString());
+      failures.forEach(exception::addSuppressed);
+      throw exception;
+    }
+  }
+
+  private static <T> CompletableFuture<Void> runNext(
+      Queue<T> queue, Function<T, CompletableFuture<?>> task, Queue<Throwable> failures) {
+    T item = queue.poll();
+    if (item == null) {
+      return CompletableFuture.completedFuture(null);
+    }
+    CompletableFuture<?> started;
+    try {
+      started = task.apply(item);
+    } catch (RuntimeException e) {
+      started = CompletableFuture.failedFuture(e);
+    }
+    return started
+        .handle(
+            (done, failure) -> {
+              if (failure != null) {
+                failures.add(unwrap(failure));
+              }
+              return null;
+            })
+        .thenCompose(ignored -> runNext(queue, task, failures));
+  }
+
+  /** Returns the failure a {@link CompletableFuture} stage wrapped, or {@code failure} itself. */
+  static Throwable unwrap(Throwable failure) {
+    while ((failure instanceof CompletionException || failure instanceof ExecutionException)
+        && failure.getCause() != null) {
+      failure = failure.getCause();
+    }
+    return failure;
+  }
+
+  /** Decodes the response body for error messages; parsing reads the bytes directly. */
+  static String text(HttpResponse<byte[]> response) {
+    return new String(response.body(), StandardCharsets.UTF_8);
+  }
+
   static String encode(String value) {
     return URLEncoder.encode(value, StandardCharsets.UTF_8);
   }
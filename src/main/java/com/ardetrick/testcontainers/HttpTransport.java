@@ -0,0 +1,204 @@
+package com.ardetrick.testcontainers;
+
+import java.io.IOException;
+import java.net.CookieManager;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The HTTP transport shared by every flow and helper talking to one Hydra container: a single
+ * keep-alive {@link HttpClient}, so requests reuse pooled connections instead of each opening its
+ * own client, selector thread, and TCP connection.
+ *
+ * <p>Requests are sent asynchronously; the blocking variants wait for the asynchronous ones, so
+ * both return the same responses. At most {@code maxConnections} requests are in flight at once;
+ * further requests queue for a permit without holding a thread. The JDK client opens a new
+ * connection only when no idle one to the same host is pooled, so this also bounds the number of
+ * connections. Cookies are never stored on the shared client — callers that need a cookie jar (the
+ * authorization-code flow's browser session) pass their own per request.
+ */
+final class HttpTransport implements AutoCloseable {
+
+  static final int DEFAULT_MAX_CONNECTIONS = 32;
+
+  private final HttpClient client;
+  private final Semaphore permits;
+  private final Queue<CompletableFuture<Void>> waiting = new ConcurrentLinkedQueue<>();
+  private final int maxConnections;
+  private final Map<String, Authority> authorities = new ConcurrentHashMap<>();
+  private final AtomicLong requests = new AtomicLong();
+  private volatile boolean closed;
+
+  /**
+   * Creates a transport.
+   *
+   * @param maxConnections the maximum number of requests in flight, and so of open connections
+   * @param executor runs the client's asynchronous tasks, or {@code null} for the JDK default
+   */
+  HttpTransport(int maxConnections, Executor executor) {
+    HttpClient.Builder builder =
+        HttpClient.newBuilder()
+            // Hydra serves plain HTTP/1.1; without this every new connection first offers an h2c
+            // upgrade that Hydra ignores.
+            .version(HttpClient.Version.HTTP_1_1)
+            .followRedirects(HttpClient.Redirect.NEVER);
+    if (executor != null) {
+      builder.executor(executor);
+    }
+    this.client = builder.build();
+    this.permits = new Semaphore(maxConnections);
+    this.maxConnections = maxConnections;
+  }
+
+  /**
+   * The transport used by flows and helpers created without a container, e.g. via the public {@link
+   * ClientCredentialsFlow#ClientCredentialsFlow(URI, URI)} constructor. Never closed.
+   */
+  static HttpTransport shared() {
+    return Shared.INSTANCE;
+  }
+
+  HttpResponse<byte[]> send(HttpRequest request) {
+    return Http.await(sendAsync(request));
+  }
+
+  /**
+   * Sends the request once a permit is free.
+   *
+   * @return the response; fails with a {@link HydraFlowException} if the request cannot be sent
+   */
+  CompletableFuture<HttpResponse<byte[]>> sendAsync(HttpRequest request) {
+    if (closed) {
+      return CompletableFuture.failedFuture(
+          new HydraFlowException(
+              "Request to " + request.uri() + " failed: the container's HTTP transport is closed"));
+    }
+    Authority authority =
+        authorities.computeIfAbsent(request.uri().getRawAuthority(), key -> new Authority());
+    return acquire()
+        .thenCompose(
+            permit -> {
+              requests.incrementAndGet();
+              authority.enter();
+              CompletableFuture<HttpResponse<byte[]>> response;
+              try {
+                response = client.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray());
+              } catch (RuntimeException e) {
+                response = CompletableFuture.failedFuture(e);
+              }
+              return response.handle(
+                  (completed, failure) -> {
+                    authority.exit();
+                    release();
+                    if (failure != null) {
+                      throw new HydraFlowException(
+                          "Request to " + request.uri() + " failed", Http.unwrap(failure));
+                    }
+                    return completed;
+                  });
+            });
+  }
+
+  /**
+   * Sends the request with the cookies the jar holds for its URI, and stores the cookies the
+   * response sets.
+   */
+  CompletableFuture<HttpResponse<byte[]>> sendAsync(HttpRequest request, CookieManager cookies) {
+    HttpRequest.Builder withCookies = HttpRequest.newBuilder(request, (name, value) -> true);
+    try {
+      for (Map.Entry<String, List<String>> header :
+          cookies.get(request.uri(), Map.of()).entrySet()) {
+        if (!header.getValue().isEmpty()) {
+          // RFC 6265 §5.4: all cookies go in a single Cookie header.
+          withCookies.header(header.getKey(), String.join("; ", header.getValue()));
+        }
+      }
+    } catch (IOException e) {
+      return CompletableFuture.failedFuture(
+          new HydraFlowException("Cookie handling for " + request.uri() + " failed", e));
+    }
+    return sendAsync(withCookies.build())
+        .thenApply(
+            response -> {
+              try {
+                cookies.put(request.uri(), response.headers().map());
+              } catch (IOException e) {
+                throw new HydraFlowException("Cookie handling for " + request.uri() + " failed", e);
+              }
+              return response;
+            });
+  }
+
+  HttpTransportStats stats() {
+    long connections = 0;
+    for (Authority authority : authorities.values()) {
+      connections += authority.peak.get();
+    }
+    return new HttpTransportStats(requests.get(), connections, maxConnections);
+  }
+
+  private CompletableFuture<Void> acquire() {
+    if (permits.tryAcquire()) {
+      return CompletableFuture.completedFuture(null);
+    }
+    CompletableFuture<Void> permit = new CompletableFuture<>();
+    waiting.add(permit);
+    // A permit released between the failed tryAcquire and the add would otherwise go unnoticed.
+    handOver();
+    return permit;
+  }
+
+  private void release() {
+    permits.release();
+    handOver();
+  }
+
+  private void handOver() {
+    while (!waiting.isEmpty() && permits.tryAcquire()) {
+      CompletableFuture<Void> permit = waiting.poll();
+      if (permit == null) {
+        permits.release();
+      } else {
+        permit.complete(null);
+      }
+    }
+  }
+
+  /** Fails every later request; requests already in flight complete. */
+  @Override
+  public void close() {
+    closed = true;
+  }
+
+  // A keep-alive pool needs as many connections to a host as requests were ever in flight to it at
+  // once; every other request reused one.
+  private static final class Authority {
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger peak = new AtomicInteger();
+
+    void enter() {
+      peak.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+    }
+
+    void exit() {
+      inFlight.decrementAndGet();
+    }
+  }
+
+  private static final class Shared {
+    private static final HttpTransport INSTANCE = new HttpTransport(DEFAULT_MAX_CONNECTIONS, null);
+  }
+}
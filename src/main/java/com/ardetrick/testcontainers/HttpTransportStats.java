@@ -0,0 +1,26 @@
+package com.ardetrick.testcontainers;
+
+/**
+ * Request and connection counts of the HTTP transport a container's flows and helpers share.
+ *
+ * <p>The JDK HTTP client does not report its connection pool, so {@code connections} is derived
+ * from concurrency: a keep-alive pool needs as many connections to a host as requests were in
+ * flight to it at once. A pooled connection that either side closes while idle is reopened without
+ * being counted, so after long idle periods the real number can be higher.
+ *
+ * @param requests the number of requests sent
+ * @param connections the number of connections the requests needed, summed over hosts
+ * @param maxConnections the maximum number of requests in flight at once (see {@link
+ *     OryHydraContainer.Builder#httpConnections(int)})
+ */
+public record HttpTransportStats(long requests, long connections, int maxConnections) {
+
+  /**
+   * Returns the number of requests that reused an already open connection.
+   *
+   * @return {@code requests - connections}
+   */
+  public long reusedConnections() {
+    return requests - connections;
+  }
+}
@@ -0,0 +1,122 @@
+package com.ardetrick.testcontainers;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Caches introspection responses per token for a container's {@link
+ * TokenIntrospector#cached(boolean) cached} batches, so a test introspecting the same tokens again
+ * does not pay an admin round trip per token.
+ *
+ * <p>An active response is kept until the token's {@code exp}; one without {@code exp} is not kept.
+ * An inactive response is kept only briefly, since an unknown token may yet be issued — e.g. a
+ * token introspected before the flow minting it has completed. Concurrent lookups of a token being
+ * introspected wait for that one request. Failures are never kept. The least recently used entry is
+ * evicted once {@code maxEntries} are cached.
+ */
+final class IntrospectionCache {
+
+  static final int DEFAULT_MAX_ENTRIES = 10_000;
+  static final Duration DEFAULT_INACTIVE_TTL = Duration.ofSeconds(5);
+
+  private final int maxEntries;
+  private final long inactiveTtlMillis;
+  // Wall-clock milliseconds, since active entries expire at the token's exp.
+  private final LongSupplier clock;
+  // Guarded by itself; access order makes the eldest entry the least recently used one.
+  private final LinkedHashMap<String, Entry> entries;
+
+  IntrospectionCache() {
+    this(DEFAULT_MAX_ENTRIES, DEFAULT_INACTIVE_TTL, System::currentTimeMillis);
+  }
+
+  IntrospectionCache(int maxEntries, Duration inactiveTtl, LongSupplier clock) {
+    this.maxEntries = maxEntries;
+    this.inactiveTtlMillis = inactiveTtl.toMillis();
+    this.clock = clock;
+    this.entries =
+        new LinkedHashMap<>(16, 0.75f, true) {
+          @Override
+          protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+            return size() > IntrospectionCache.this.maxEntries;
+          }
+        };
+  }
+
+  /**
+   * Returns the cached response for the token, joins the request in flight for it, or starts one.
+   *
+   * @param introspect sends the introspection request; called only on a miss
+   * @return the response, and whether it came from the cache or another caller's request
+   */
+  Lookup get(String token, Function<String, CompletableFuture<IntrospectionResponse>> introspect) {
+    Entry entry;
+    synchronized (entries) {
+      entry = entries.get(token);
+      if (entry != null && (entry.pending || clock.getAsLong() < entry.expiresAt)) {
+        return new Lookup(entry.response.copy(), true);
+      }
+      entry = new Entry();
+      entries.put(token, entry);
+    }
+    Entry owned = entry;
+    CompletableFuture<IntrospectionResponse> sent;
+    try {
+      sent = introspect.apply(token);
+    } catch (RuntimeException e) {
+      sent = CompletableFuture.failedFuture(e);
+    }
+    sent.whenComplete(
+        (response, failure) -> {
+          synchronized (entries) {
+            owned.pending = false;
+            long expiresAt = failure == null ? expiresAt(response) : 0;
+            if (expiresAt <= clock.getAsLong()) {
+              entries.remove(token, owned);
+            } else {
+              owned.expiresAt = expiresAt;
+            }
+          }
+          if (failure != null) {
+            owned.response.completeExceptionally(Http.unwrap(failure));
+          } else {
+            owned.response.complete(response);
+          }
+        });
+    return new Lookup(owned.response.copy(), false);
+  }
+
+  int size() {
+    synchronized (entries) {
+      return entries.size();
+    }
+  }
+
+  void clear() {
+    synchronized (entries) {
+      entries.clear();
+    }
+  }
+
+  private long expiresAt(IntrospectionResponse response) {
+    if (!response.active()) {
+      return clock.getAsLong() + inactiveTtlMillis;
+    }
+    return response.expiresAtSeconds() * 1000;
+  }
+
+  /** A cached or pending response, and whether the lookup was answered without a request. */
+  record Lookup(CompletableFuture<IntrospectionResponse> response, boolean hit) {}
+
+  private static final class Entry {
+
+    private final CompletableFuture<IntrospectionResponse> response = new CompletableFuture<>();
+    // Both guarded by the entries map.
+    private boolean pending = true;
+    private long expiresAt;
+  }
+}
@@ -1,11 +1,10 @@
 package com.ardetrick.testcontainers;
 
 import java.net.URI;
-import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
-import java.util.Collections;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Result of introspecting a token via Hydra's admin API (RFC 7662).
@@ -20,11 +19,14 @@ import java.util.Map;
  *     tokens, or client-credentials tokens attribute the client instead)
  * @param scope the granted scope (space-delimited), or {@code null} when absent
  * @param clientId the client the token was issued to, or {@code null} when absent
- * @param raw the full parsed introspection response; custom session claims appear under {@code ext}
+ * @param raw the full parsed introspection response; custom session claims appear under {@code
+ *     ext}. Parsed on first access, so callers reading only the typed components never pay for it
  */
 public record IntrospectionResponse(
     boolean active, String subject, String scope, String clientId, Map<String, Object> raw) {
 
+  private static final String[] FIELDS = {"active", "sub", "scope", "client_id", "exp"};
+
   /**
    * Introspects a token via {@code POST /admin/oauth2/introspect}.
    *
@@ -35,34 +37,51 @@ public record IntrospectionResponse(
    * @throws HydraFlowException if the request cannot be completed or the response cannot be parsed
    */
   public static IntrospectionResponse request(URI adminBaseUri, String token) {
-    HttpResponse<String> response =
-        Http.send(
-            HttpClient.newHttpClient(),
+    return Http.await(requestAsync(HttpTransport.shared(), adminBaseUri, token));
+  }
+
+  static CompletableFuture<IntrospectionResponse> requestAsync(
+      HttpTransport http, URI adminBaseUri, String token) {
+    return http.sendAsync(
             HttpRequest.newBuilder(adminBaseUri.resolve("/admin/oauth2/introspect"))
                 .header("Content-Type", "application/x-www-form-urlencoded")
                 .header("Accept", "application/json")
                 .POST(HttpRequest.BodyPublishers.ofString("token=" + Http.encode(token)))
-                .build());
+                .build())
+        .thenApply(IntrospectionResponse::parse);
+  }
+
+  private static IntrospectionResponse parse(HttpResponse<byte[]> response) {
     if (!Http.is2xx(response.statusCode())) {
       throw new HydraFlowException(
-          "Introspection failed (HTTP " + response.statusCode() + "): " + response.body());
+          "Introspection failed (HTTP " + response.statusCode() + "): " + Http.text(response));
     }
-    Map<String, Object> json;
+    Object[] fields;
     try {
-      json = Json.parseObject(response.body());
+      fields = Json.parseFields(response.body(), FIELDS);
     } catch (JsonParseException e) {
-      throw new HydraFlowException("Unparseable introspection response: " + response.body(), e);
+      throw new HydraFlowException("Unparseable introspection response: " + Http.text(response), e);
     }
     return new IntrospectionResponse(
-        Boolean.TRUE.equals(json.get("active")),
-        string(json, "sub"),
-        string(json, "scope"),
-        string(json, "client_id"),
-        Collections.unmodifiableMap(json));
+        Boolean.TRUE.equals(fields[0]),
+        string(fields[1]),
+        string(fields[2]),
+        string(fields[3]),
+        new LazyJsonObject(response.body(), FIELDS, fields));
+  }
+
+  /**
+   * Returns the token's {@code exp} — decoded with the typed components, so reading it does not
+   * parse the rest of {@link #raw()}.
+   *
+   * @return the expiry in epoch seconds, or {@code 0} if the response has none
+   */
+  long expiresAtSeconds() {
+    Object exp = raw instanceof LazyJsonObject lazy ? lazy.field("exp") : raw.get("exp");
+    return exp instanceof Number seconds ? seconds.longValue() : 0;
   }
 
-  private static String string(Map<String, Object> json, String key) {
-    Object value = json.get(key);
+  private static String string(Object value) {
     return value == null ? null : value.toString();
   }
 }
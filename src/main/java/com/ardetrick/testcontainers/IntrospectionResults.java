@@ -0,0 +1,67 @@
+package com.ardetrick.testcontainers;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * The outcome of a {@link TokenIntrospector} batch: one item per token, in token order, and how
+ * many of them the cache answered.
+ *
+ * @param items the per-token outcomes, in the order the tokens were given
+ * @param cacheHits tokens answered from the cache, or by another request for the same token in
+ *     flight — including repeats within the batch
+ * @param requests introspection requests sent to Hydra
+ * @param elapsed the wall-clock time of the batch
+ */
+public record IntrospectionResults(
+    List<Item> items, long cacheHits, long requests, Duration elapsed) {
+
+  /**
+   * The outcome of one token's introspection: either Hydra's response — active or not — or the
+   * failure that prevented one.
+   *
+   * @param token the introspected token
+   * @param response the introspection response, or {@code null} if the introspection failed
+   * @param error why the token could not be introspected, or {@code null} if it was
+   */
+  public record Item(String token, IntrospectionResponse response, HydraFlowException error) {
+
+    /**
+     * Returns whether Hydra answered the introspection.
+     *
+     * @return {@code true} if {@link #response()} is set
+     */
+    public boolean succeeded() {
+      return error == null;
+    }
+  }
+
+  /**
+   * Returns the introspection responses, in token order, skipping tokens whose introspection
+   * failed.
+   *
+   * @return the responses
+   */
+  public List<IntrospectionResponse> responses() {
+    return items.stream().filter(Item::succeeded).map(Item::response).toList();
+  }
+
+  /**
+   * Returns the items whose introspection failed.
+   *
+   * @return the failed items, in token order
+   */
+  public List<Item> failures() {
+    return items.stream().filter(item -> !item.succeeded()).toList();
+  }
+
+  /**
+   * Returns the share of tokens that did not need a request.
+   *
+   * @return {@code cacheHits / (cacheHits + requests)}, or {@code 0} for an empty batch
+   */
+  public double hitRatio() {
+    long lookups = cacheHits + requests;
+    return lookups == 0 ? 0 : (double) cacheHits / lookups;
+  }
+}
@@ -0,0 +1,155 @@
+package com.ardetrick.testcontainers;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Schedules a container's janitor runs while it is running and keeps their stats.
+ *
+ * <p>A run is due once {@code interval} has passed since the previous one, or once {@code
+ * requestThreshold} requests were sent on the container's transport since then — a stand-in for the
+ * rows those requests wrote, which Hydra does not report. Either trigger may be disabled; with both
+ * disabled nothing is scheduled and only {@link #run} cleans up. Runs never overlap, and a failed
+ * scheduled run is counted without ending the schedule.
+ */
+final class Janitor {
+
+  static final Duration DEFAULT_CHECK_INTERVAL = Duration.ofSeconds(1);
+
+  private final Duration interval;
+  private final long requestThreshold;
+  private final Duration checkInterval;
+  // Held for a whole run, so runs never overlap; stop() and stats() do not wait for it. Never
+  // acquired while holding this.
+  private final Object running = new Object();
+  // Guarded by this.
+  private ScheduledExecutorService scheduler;
+  // Guarded by running.
+  private long lastRunNanos;
+  private long requestsAtLastRun;
+  // Guarded by this.
+  private long runs;
+  private long failures;
+  private long clientsDeleted;
+  private long elapsedNanos;
+  private JanitorStats.Run lastRun;
+
+  /**
+   * @param interval the time between runs, or {@code null} for no interval trigger
+   * @param requestThreshold the requests that make a run due, or {@code 0} for no request trigger
+   */
+  Janitor(Duration interval, long requestThreshold) {
+    this(interval, requestThreshold, DEFAULT_CHECK_INTERVAL);
+  }
+
+  Janitor(Duration interval, long requestThreshold, Duration checkInterval) {
+    this.interval = interval;
+    this.requestThreshold = requestThreshold;
+    this.checkInterval = checkInterval;
+  }
+
+  /**
+   * Starts scheduling runs, unless both triggers are disabled.
+   *
+   * @param work cleans up once and describes what it did
+   * @param requests the number of requests the container's transport has sent
+   */
+  void start(Function<JanitorStats.Trigger, JanitorStats.Run> work, LongSupplier requests) {
+    stop();
+    if (interval == null && requestThreshold == 0) {
+      return;
+    }
+    synchronized (running) {
+      lastRunNanos = System.nanoTime();
+      requestsAtLastRun = requests.getAsLong();
+    }
+    // Only the request trigger needs polling; the interval alone can be waited for exactly.
+    long period = (requestThreshold == 0 ? interval : checkInterval).toNanos();
+    if (interval != null) {
+      period = Math.min(period, interval.toNanos());
+    }
+    ScheduledExecutorService started =
+        Executors.newSingleThreadScheduledExecutor(
+            runnable -> {
+              Thread thread = new Thread(runnable, "ory-hydra-janitor");
+              thread.setDaemon(true);
+              return thread;
+            });
+    started.scheduleWithFixedDelay(
+        () -> runIfDue(work, requests), period, period, TimeUnit.NANOSECONDS);
+    synchronized (this) {
+      if (scheduler != null) {
+        scheduler.shutdownNow();
+      }
+      scheduler = started;
+    }
+  }
+
+  /** Stops scheduling runs; a run in progress is interrupted. */
+  synchronized void stop() {
+    if (scheduler != null) {
+      scheduler.shutdownNow();
+      scheduler = null;
+    }
+  }
+
+  /**
+   * Runs the janitor now and counts the run; failures reach the caller uncounted.
+   *
+   * @return what the run did
+   */
+  JanitorStats.Run run(
+      Function<JanitorStats.Trigger, JanitorStats.Run> work,
+      JanitorStats.Trigger trigger,
+      LongSupplier requests) {
+    synchronized (running) {
+      JanitorStats.Run run;
+      try {
+        run = work.apply(trigger);
+      } finally {
+        lastRunNanos = System.nanoTime();
+        // Taken after the run, so the janitor's own deletions do not count towards the next one.
+        requestsAtLastRun = requests.getAsLong();
+      }
+      synchronized (this) {
+        runs++;
+        clientsDeleted += run.clientsDeleted();
+        elapsedNanos += run.elapsed().toNanos();
+        lastRun = run;
+      }
+      return run;
+    }
+  }
+
+  synchronized JanitorStats stats() {
+    return new JanitorStats(
+        runs, failures, clientsDeleted, Duration.ofNanos(elapsedNanos), lastRun);
+  }
+
+  private void runIfDue(
+      Function<JanitorStats.Trigger, JanitorStats.Run> work, LongSupplier requests) {
+    synchronized (running) {
+      JanitorStats.Trigger trigger;
+      if (interval != null && System.nanoTime() - lastRunNanos >= interval.toNanos()) {
+        trigger = JanitorStats.Trigger.INTERVAL;
+      } else if (requestThreshold > 0
+          && requests.getAsLong() - requestsAtLastRun >= requestThreshold) {
+        trigger = JanitorStats.Trigger.REQUESTS;
+      } else {
+        return;
+      }
+      try {
+        run(work, trigger, requests);
+      } catch (RuntimeException e) {
+        // run() has reset both triggers, so it is retried at the next due time, not every check.
+        synchronized (this) {
+          failures++;
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,47 @@
+package com.ardetrick.testcontainers;
+
+import java.time.Duration;
+
+/**
+ * What a container's janitor has cleaned up — see {@link OryHydraContainer.Builder#janitorInterval}
+ * and {@link OryHydraContainer#runJanitor()}.
+ *
+ * @param runs the completed runs, scheduled or not
+ * @param failures the scheduled runs that failed; the schedule continues after a failure
+ * @param clientsDeleted the stale ephemeral clients deleted, summed over runs
+ * @param elapsed the time spent in completed runs, summed
+ * @param lastRun the latest completed run, or {@code null} before the first
+ */
+public record JanitorStats(
+    long runs, long failures, long clientsDeleted, Duration elapsed, Run lastRun) {
+
+  /** What started a janitor run. */
+  public enum Trigger {
+    /** The configured {@linkplain OryHydraContainer.Builder#janitorInterval interval} passed. */
+    INTERVAL,
+    /**
+     * The configured {@linkplain OryHydraContainer.Builder#janitorRequestThreshold number of
+     * requests} was sent since the previous run.
+     */
+    REQUESTS,
+    /** A call to {@link OryHydraContainer#runJanitor()}. */
+    MANUAL
+  }
+
+  /**
+   * One janitor run. Hydra's janitor does not report how many rows it deleted, so its output is
+   * kept as printed.
+   *
+   * @param trigger what started the run
+   * @param elapsed the time the whole run took
+   * @param commandElapsed the time {@code hydra janitor} took inside the container
+   * @param clientsDeleted the stale ephemeral clients deleted
+   * @param output what {@code hydra janitor} printed to standard output
+   */
+  public record Run(
+      Trigger trigger,
+      Duration elapsed,
+      Duration commandElapsed,
+      int clientsDeleted,
+      String output) {}
+}
@@ -1,6 +1,11 @@
 package com.ardetrick.testcontainers;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -11,14 +16,21 @@ import java.util.Map;
  * <p>Covers the documents this library consumes: OAuth 2.0 token and error responses, RFC 7662
  * introspection responses ({@code ext}, {@code aud}), and the OpenID Connect discovery document.
  * Kept dependency-free on purpose.
+ *
+ * <p>Reads UTF-8 bytes directly, so response bodies are never decoded into an intermediate {@code
+ * String}. Strings without escapes are decoded in one step from the input, and integers are
+ * accumulated digit by digit; only escaped strings, fractions, exponents, and integers too long for
+ * that fall back to slower paths. Error positions are byte offsets into the input.
  */
 final class Json {
 
-  private final String src;
+  private final byte[] src;
+  private final int end;
   private int pos;
 
-  private Json(String src) {
+  private Json(byte[] src) {
     this.src = src;
+    this.end = src.length;
   }
 
   /**
@@ -30,16 +42,136 @@ final class Json {
    * @throws JsonParseException if the text is not a JSON object
    */
   static Map<String, Object> parseObject(String json) {
+    return parseObject(json.getBytes(StandardCharsets.UTF_8));
+  }
+
+  /**
+   * Parses a UTF-8 encoded JSON object, such as a response body, like {@link #parseObject(String)}.
+   *
+   * @param json the UTF-8 encoded JSON text
+   * @return the parsed members
+   * @throws JsonParseException if the text is not a JSON object
+   */
+  static Map<String, Object> parseObject(byte[] json) {
     Json parser = new Json(json);
     parser.skipWhitespace();
     Map<String, Object> result = parser.object();
+    parser.finish();
+    return result;
+  }
+
+  /**
+   * Parses the remaining bytes of the buffer as a UTF-8 encoded JSON object, consuming them.
+   *
+   * @param json the UTF-8 encoded JSON text
+   * @return the parsed members
+   * @throws JsonParseException if the text is not a JSON object
+   */
+  static Map<String, Object> parseObject(ByteBuffer json) {
+    return parseObject(bytes(json));
+  }
+
+  /**
+   * Reads the stream to its end and parses it as a UTF-8 encoded JSON object.
+   *
+   * @param json the UTF-8 encoded JSON text; not closed
+   * @return the parsed members
+   * @throws IOException if reading the stream fails
+   * @throws JsonParseException if the text is not a JSON object
+   */
+  static Map<String, Object> parseObject(InputStream json) throws IOException {
+    return parseObject(json.readAllBytes());
+  }
+
+  /**
+   * Parses a JSON array, such as a page of an admin API listing.
+   *
+   * @param json the JSON text
+   * @return the parsed elements, typed as in {@link #parseObject(String)}
+   * @throws JsonParseException if the text is not a JSON array
+   */
+  static List<Object> parseArray(String json) {
+    return parseArray(json.getBytes(StandardCharsets.UTF_8));
+  }
+
+  /**
+   * Parses a UTF-8 encoded JSON array like {@link #parseArray(String)}.
+   *
+   * @param json the UTF-8 encoded JSON text
+   * @return the parsed elements
+   * @throws JsonParseException if the text is not a JSON array
+   */
+  static List<Object> parseArray(byte[] json) {
+    Json parser = new Json(json);
     parser.skipWhitespace();
-    if (parser.pos != parser.src.length()) {
-      throw new JsonParseException("Unexpected trailing content at index " + parser.pos);
-    }
+    List<Object> result = parser.array();
+    parser.finish();
     return result;
   }
 
+  /**
+   * Parses the remaining bytes of the buffer as a UTF-8 encoded JSON array, consuming them.
+   *
+   * @param json the UTF-8 encoded JSON text
+   * @return the parsed elements
+   * @throws JsonParseException if the text is not a JSON array
+   */
+  static List<Object> parseArray(ByteBuffer json) {
+    return parseArray(bytes(json));
+  }
+
+  /**
+   * Reads the stream to its end and parses it as a UTF-8 encoded JSON array.
+   *
+   * @param json the UTF-8 encoded JSON text; not closed
+   * @return the parsed elements
+   * @throws IOException if reading the stream fails
+   * @throws JsonParseException if the text is not a JSON array
+   */
+  static List<Object> parseArray(InputStream json) throws IOException {
+    return parseArray(json.readAllBytes());
+  }
+
+  /**
+   * Decodes only the named top-level members of a UTF-8 encoded JSON object, for callers that read
+   * a few known fields of a response. The other members are validated as {@link
+   * #parseObject(byte[])} would, but skipped without being decoded.
+   *
+   * @param json the UTF-8 encoded JSON text
+   * @param names the member names to decode; ASCII, as every name Hydra uses is
+   * @return the decoded values in the order of {@code names}, with {@code null} for absent members
+   * @throws JsonParseException if the text is not a JSON object
+   */
+  static Object[] parseFields(byte[] json, String... names) {
+    Object[] values = new Object[names.length];
+    Json parser = new Json(json);
+    parser.skipWhitespace();
+    parser.fields(names, values);
+    parser.finish();
+    return values;
+  }
+
+  // A heap buffer covering its whole backing array is parsed in place; anything else is copied.
+  private static byte[] bytes(ByteBuffer buffer) {
+    if (buffer.hasArray()
+        && buffer.arrayOffset() == 0
+        && buffer.position() == 0
+        && buffer.remaining() == buffer.array().length) {
+      buffer.position(buffer.limit());
+      return buffer.array();
+    }
+    byte[] copy = new byte[buffer.remaining()];
+    buffer.get(copy);
+    return copy;
+  }
+
+  private void finish() {
+    skipWhitespace();
+    if (pos != end) {
+      throw new JsonParseException("Unexpected trailing content at index " + pos);
+    }
+  }
+
   private Map<String, Object> object() {
     expect('{');
     Map<String, Object> map = new LinkedHashMap<>();
@@ -56,7 +188,7 @@ final class Json {
       skipWhitespace();
       map.put(key, readValue());
       skipWhitespace();
-      char c = nextChar();
+      byte c = next();
       if (c == '}') {
         return map;
       }
@@ -66,8 +198,152 @@ final class Json {
     }
   }
 
+  private void fields(String[] names, Object[] values) {
+    expect('{');
+    skipWhitespace();
+    if (peek() == '}') {
+      pos++;
+      return;
+    }
+    while (true) {
+      skipWhitespace();
+      int index = readName(names);
+      skipWhitespace();
+      expect(':');
+      skipWhitespace();
+      if (index >= 0) {
+        values[index] = readValue();
+      } else {
+        skipValue();
+      }
+      skipWhitespace();
+      byte c = next();
+      if (c == '}') {
+        return;
+      }
+      if (c != ',') {
+        throw new JsonParseException("Expected ',' or '}' at index " + (pos - 1));
+      }
+    }
+  }
+
+  // Reads a member name and returns the index of the equal one in names, or -1. Unescaped names are
+  // compared in place rather than decoded.
+  private int readName(String[] names) {
+    expect('"');
+    int from = pos;
+    for (int i = from; i < end; i++) {
+      byte b = src[i];
+      if (b == '"') {
+        pos = i + 1;
+        for (int n = 0; n < names.length; n++) {
+          if (regionEquals(from, i, names[n])) {
+            return n;
+          }
+        }
+        return -1;
+      }
+      if (b == '\\') {
+        pos = i;
+        return Arrays.asList(names).indexOf(readEscapedString(from));
+      }
+    }
+    throw new JsonParseException("Unexpected end of input");
+  }
+
+  private boolean regionEquals(int from, int to, String ascii) {
+    if (to - from != ascii.length()) {
+      return false;
+    }
+    for (int i = 0; i < ascii.length(); i++) {
+      if (src[from + i] != ascii.charAt(i)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  // Validates a value like readValue, without building it.
+  private void skipValue() {
+    switch (peek()) {
+      case '"' -> skipString();
+      case 't', 'f' -> readBoolean();
+      case 'n' -> readNull();
+      case '{' -> skipObject();
+      case '[' -> skipArray();
+      default -> readNumber();
+    }
+  }
+
+  private void skipObject() {
+    expect('{');
+    skipWhitespace();
+    if (peek() == '}') {
+      pos++;
+      return;
+    }
+    while (true) {
+      skipWhitespace();
+      skipString();
+      skipWhitespace();
+      expect(':');
+      skipWhitespace();
+      skipValue();
+      skipWhitespace();
+      byte c = next();
+      if (c == '}') {
+        return;
+      }
+      if (c != ',') {
+        throw new JsonParseException("Expected ',' or '}' at index " + (pos - 1));
+      }
+    }
+  }
+
+  private void skipArray() {
+    expect('[');
+    skipWhitespace();
+    if (peek() == ']') {
+      pos++;
+      return;
+    }
+    while (true) {
+      skipWhitespace();
+      skipValue();
+      skipWhitespace();
+      byte c = next();
+      if (c == ']') {
+        return;
+      }
+      if (c != ',') {
+        throw new JsonParseException("Expected ',' or ']' at index " + (pos - 1));
+      }
+    }
+  }
+
+  private void skipString() {
+    expect('"');
+    while (true) {
+      byte b = next();
+      if (b == '"') {
+        return;
+      }
+      if (b != '\\') {
+        continue;
+      }
+      byte esc = next();
+      switch (esc) {
+        case '"', '\\', '/', 'b', 'f', 'n', 'r', 't' -> {}
+        case 'u' -> readUnicodeEscape();
+        default ->
+            throw new JsonParseException(
+                "Invalid escape '\\" + (char) (esc & 0xFF) + "' at index " + pos);
+      }
+    }
+  }
+
   private Object readValue() {
-    char c = peek();
+    byte c = peek();
     return switch (c) {
       case '"' -> readString();
       case 't', 'f' -> readBoolean();
@@ -90,7 +366,7 @@ final class Json {
       skipWhitespace();
       list.add(readValue());
       skipWhitespace();
-      char c = nextChar();
+      byte c = next();
       if (c == ']') {
         return list;
       }
@@ -102,54 +378,119 @@ final class Json {
 
   private String readString() {
     expect('"');
-    StringBuilder sb = new StringBuilder();
+    int from = pos;
+    boolean ascii = true;
+    // Fast path: no escapes, so the string is the input bytes as they stand.
+    for (int i = from; i < end; i++) {
+      byte b = src[i];
+      if (b == '"') {
+        pos = i + 1;
+        return new String(
+            src, from, i - from, ascii ? StandardCharsets.ISO_8859_1 : StandardCharsets.UTF_8);
+      }
+      if (b == '\\') {
+        pos = i;
+        return readEscapedString(from);
+      }
+      ascii &= b >= 0;
+    }
+    throw new JsonParseException("Unexpected end of input");
+  }
+
+  // Continues a string whose unescaped prefix spans [from, pos); pos is at the first backslash.
+  private String readEscapedString(int from) {
+    StringBuilder sb = new StringBuilder(pos - from + 16);
+    int run = from;
     while (true) {
-      char c = nextChar();
-      if (c == '"') {
+      byte b = next();
+      if (b == '"') {
+        appendUtf8(sb, run, pos - 1);
         return sb.toString();
       }
-      if (c == '\\') {
-        char esc = nextChar();
-        switch (esc) {
-          case '"' -> sb.append('"');
-          case '\\' -> sb.append('\\');
-          case '/' -> sb.append('/');
-          case 'b' -> sb.append('\b');
-          case 'f' -> sb.append('\f');
-          case 'n' -> sb.append('\n');
-          case 'r' -> sb.append('\r');
-          case 't' -> sb.append('\t');
-          case 'u' -> {
-            if (pos + 4 > src.length()) {
-              throw new JsonParseException("Truncated unicode escape at index " + pos);
-            }
-            String hex = src.substring(pos, pos + 4);
-            pos += 4;
-            try {
-              sb.append((char) Integer.parseInt(hex, 16));
-            } catch (NumberFormatException e) {
-              throw new JsonParseException(
-                  "Invalid unicode escape '\\u" + hex + "' at index " + (pos - 4));
-            }
-          }
-          default -> throw new JsonParseException("Invalid escape '\\" + esc + "' at index " + pos);
-        }
-      } else {
-        sb.append(c);
+      if (b != '\\') {
+        continue;
+      }
+      appendUtf8(sb, run, pos - 1);
+      byte esc = next();
+      switch (esc) {
+        case '"' -> sb.append('"');
+        case '\\' -> sb.append('\\');
+        case '/' -> sb.append('/');
+        case 'b' -> sb.append('\b');
+        case 'f' -> sb.append('\f');
+        case 'n' -> sb.append('\n');
+        case 'r' -> sb.append('\r');
+        case 't' -> sb.append('\t');
+        case 'u' -> sb.append(readUnicodeEscape());
+        default ->
+            throw new JsonParseException(
+                "Invalid escape '\\" + (char) (esc & 0xFF) + "' at index " + pos);
       }
+      run = pos;
+    }
+  }
+
+  private void appendUtf8(StringBuilder sb, int from, int to) {
+    if (to > from) {
+      sb.append(new String(src, from, to - from, StandardCharsets.UTF_8));
     }
   }
 
+  private char readUnicodeEscape() {
+    if (pos + 4 > end) {
+      throw new JsonParseException("Truncated unicode escape at index " + pos);
+    }
+    int value = 0;
+    for (int i = 0; i < 4; i++) {
+      int digit = Character.digit(src[pos + i], 16);
+      if (digit < 0) {
+        throw new JsonParseException(
+            "Invalid unicode escape '\\u"
+                + new String(src, pos, 4, StandardCharsets.ISO_8859_1)
+                + "' at index "
+                + pos);
+      }
+      value = value * 16 + digit;
+    }
+    pos += 4;
+    return (char) value;
+  }
+
   private Object readNumber() {
-    int start = pos;
-    while (pos < src.length() && "+-0123456789.eE".indexOf(src.charAt(pos)) >= 0) {
+    int from = pos;
+    boolean integral = true;
+    while (pos < end && isNumberByte(src[pos])) {
+      byte b = src[pos];
+      integral &= b != '.' && b != 'e' && b != 'E';
       pos++;
     }
-    String num = src.substring(start, pos);
-    if (num.isEmpty()) {
-      throw new JsonParseException("Expected value at index " + start);
+    if (pos == from) {
+      throw new JsonParseException("Expected value at index " + from);
+    }
+    // Fast path: an optional sign and at most 18 digits always fits a long.
+    if (integral) {
+      int i = from;
+      boolean negative = src[i] == '-';
+      if (negative || src[i] == '+') {
+        i++;
+      }
+      int digits = pos - i;
+      if (digits > 0 && digits <= 18) {
+        long value = 0;
+        for (; i < pos; i++) {
+          byte b = src[i];
+          if (b < '0' || b > '9') {
+            break;
+          }
+          value = value * 10 + (b - '0');
+        }
+        if (i == pos) {
+          return negative ? -value : value;
+        }
+      }
     }
-    if (num.indexOf('.') < 0 && num.indexOf('e') < 0 && num.indexOf('E') < 0) {
+    String num = new String(src, from, pos - from, StandardCharsets.ISO_8859_1);
+    if (integral) {
       try {
         return Long.parseLong(num);
       } catch (NumberFormatException ignored) {
@@ -159,16 +500,20 @@ final class Json {
     try {
       return Double.parseDouble(num);
     } catch (NumberFormatException e) {
-      throw new JsonParseException("Invalid number '" + num + "' at index " + start);
+      throw new JsonParseException("Invalid number '" + num + "' at index " + from);
     }
   }
 
+  private static boolean isNumberByte(byte b) {
+    return (b >= '0' && b <= '9') || b == '-' || b == '+' || b == '.' || b == 'e' || b == 'E';
+  }
+
   private Boolean readBoolean() {
-    if (src.startsWith("true", pos)) {
+    if (startsWith("true")) {
       pos += 4;
       return Boolean.TRUE;
     }
-    if (src.startsWith("false", pos)) {
+    if (startsWith("false")) {
       pos += 5;
       return Boolean.FALSE;
     }
@@ -176,37 +521,60 @@ final class Json {
   }
 
   private Object readNull() {
-    if (src.startsWith("null", pos)) {
+    if (startsWith("null")) {
       pos += 4;
       return null;
     }
     throw new JsonParseException("Invalid literal at index " + pos);
   }
 
+  private boolean startsWith(String literal) {
+    if (pos + literal.length() > end) {
+      return false;
+    }
+    for (int i = 0; i < literal.length(); i++) {
+      if (src[pos + i] != literal.charAt(i)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  // The ASCII characters Character.isWhitespace accepts.
   private void skipWhitespace() {
-    while (pos < src.length() && Character.isWhitespace(src.charAt(pos))) {
-      pos++;
+    while (pos < end) {
+      byte b = src[pos];
+      if (b == ' ' || (b >= 0x09 && b <= 0x0D) || (b >= 0x1C && b <= 0x1F)) {
+        pos++;
+      } else {
+        return;
+      }
     }
   }
 
-  private char peek() {
-    if (pos >= src.length()) {
+  private byte peek() {
+    if (pos >= end) {
       throw new JsonParseException("Unexpected end of input");
     }
-    return src.charAt(pos);
+    return src[pos];
   }
 
-  private char nextChar() {
-    char c = peek();
+  private byte next() {
+    byte b = peek();
     pos++;
-    return c;
+    return b;
   }
 
   private void expect(char expected) {
-    char c = nextChar();
-    if (c != expected) {
+    byte b = next();
+    if (b != expected) {
       throw new JsonParseException(
-          "Expected '" + expected + "' but found '" + c + "' at index " + (pos - 1));
+          "Expected '"
+              + expected
+              + "' but found '"
+              + (char) (b & 0xFF)
+              + "' at index "
+              + (pos - 1));
     }
   }
 }
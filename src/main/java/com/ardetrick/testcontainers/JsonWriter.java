@@ -1,7 +1,8 @@
 package com.ardetrick.testcontainers;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Locale;
 import java.util.Map;
 
 /**
@@ -10,92 +11,255 @@ import java.util.Map;
  * <p>Supports the JSON value types needed by Hydra's admin API: {@link Map} (objects), {@link List}
  * (arrays), {@link String}, {@link Number}, {@link Boolean}, and {@code null}. Kept dependency-free
  * on purpose, mirroring {@link Json}.
+ *
+ * <p>Encodes straight to UTF-8 into a per-thread buffer that is reused across calls, so a body
+ * costs one exactly sized array — what {@code BodyPublishers.ofByteArray} sends — rather than a
+ * {@code StringBuilder}, its {@code String}, and that string's encoding. Bodies of a fixed shape
+ * are written from a {@link Template}, which copies its constant JSON instead of rebuilding it.
  */
 final class JsonWriter {
 
+  private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+  private static final byte[] NULL = {'n', 'u', 'l', 'l'};
+  private static final byte[] TRUE = {'t', 'r', 'u', 'e'};
+  private static final byte[] FALSE = {'f', 'a', 'l', 's', 'e'};
+
+  // Buffers that grew past this for an unusually large body are not kept for reuse.
+  private static final int MAX_POOLED_CAPACITY = 64 * 1024;
+
+  private static final ThreadLocal<JsonWriter> POOL = ThreadLocal.withInitial(JsonWriter::new);
+
+  private byte[] buf = new byte[512];
+  private int count;
+
   private JsonWriter() {}
 
   /**
    * Serializes a value to JSON.
    *
    * @param value the value to serialize
-   * @return the JSON text
+   * @return the UTF-8 encoded JSON text
    * @throws IllegalArgumentException if a value of an unsupported type is encountered
    */
-  static String write(Object value) {
-    StringBuilder sb = new StringBuilder();
-    append(sb, value);
-    return sb.toString();
+  static byte[] write(Object value) {
+    JsonWriter writer = POOL.get();
+    try {
+      writer.append(value);
+      return writer.toByteArray();
+    } finally {
+      writer.reset();
+    }
+  }
+
+  /**
+   * Creates a template for bodies made of constant JSON with values spliced in between.
+   *
+   * @param fragments the constant JSON text around the values; one more than the number of values
+   */
+  static Template template(String... fragments) {
+    byte[][] encoded = new byte[fragments.length][];
+    for (int i = 0; i < fragments.length; i++) {
+      encoded[i] = fragments[i].getBytes(StandardCharsets.UTF_8);
+    }
+    return new Template(encoded);
+  }
+
+  /** A JSON body of fixed shape, e.g. {@code {"subject":<value>,"remember":false}}. */
+  static final class Template {
+
+    private final byte[][] fragments;
+
+    private Template(byte[][] fragments) {
+      this.fragments = fragments;
+    }
+
+    /**
+     * Writes the body with the given values, serialized like {@link JsonWriter#write(Object)}, in
+     * place of the gaps between fragments.
+     *
+     * @return the UTF-8 encoded JSON text
+     * @throws IllegalArgumentException if the number of values does not fit the template, or a
+     *     value of an unsupported type is encountered
+     */
+    byte[] write(Object... values) {
+      if (values.length != fragments.length - 1) {
+        throw new IllegalArgumentException(
+            "Template takes " + (fragments.length - 1) + " values, got " + values.length);
+      }
+      JsonWriter writer = POOL.get();
+      try {
+        writer.appendRaw(fragments[0]);
+        for (int i = 0; i < values.length; i++) {
+          writer.append(values[i]);
+          writer.appendRaw(fragments[i + 1]);
+        }
+        return writer.toByteArray();
+      } finally {
+        writer.reset();
+      }
+    }
+  }
+
+  private byte[] toByteArray() {
+    return Arrays.copyOf(buf, count);
   }
 
-  private static void append(StringBuilder sb, Object value) {
+  private void reset() {
+    count = 0;
+    if (buf.length > MAX_POOLED_CAPACITY) {
+      buf = new byte[512];
+    }
+  }
+
+  private void append(Object value) {
     if (value == null) {
-      sb.append("null");
+      appendRaw(NULL);
     } else if (value instanceof String s) {
-      appendString(sb, s);
+      appendString(s);
     } else if (value instanceof Boolean b) {
-      sb.append(b);
+      appendRaw(b ? TRUE : FALSE);
+    } else if (value instanceof Integer || value instanceof Long) {
+      appendLong(((Number) value).longValue());
     } else if (value instanceof Number n) {
-      sb.append(n);
+      appendAscii(n.toString());
     } else if (value instanceof Map<?, ?> map) {
-      appendObject(sb, map);
+      appendObject(map);
     } else if (value instanceof List<?> list) {
-      appendArray(sb, list);
+      appendArray(list);
     } else {
       throw new IllegalArgumentException(
           "Unsupported JSON value type: " + value.getClass().getName());
     }
   }
 
-  private static void appendObject(StringBuilder sb, Map<?, ?> map) {
-    sb.append('{');
+  private void appendObject(Map<?, ?> map) {
+    appendByte('{');
     boolean first = true;
     for (Map.Entry<?, ?> entry : map.entrySet()) {
       if (!first) {
-        sb.append(',');
+        appendByte(',');
       }
       first = false;
-      appendString(sb, String.valueOf(entry.getKey()));
-      sb.append(':');
-      append(sb, entry.getValue());
+      appendString(String.valueOf(entry.getKey()));
+      appendByte(':');
+      append(entry.getValue());
     }
-    sb.append('}');
+    appendByte('}');
   }
 
-  private static void appendArray(StringBuilder sb, List<?> list) {
-    sb.append('[');
+  private void appendArray(List<?> list) {
+    appendByte('[');
     boolean first = true;
     for (Object item : list) {
       if (!first) {
-        sb.append(',');
+        appendByte(',');
       }
       first = false;
-      append(sb, item);
+      append(item);
     }
-    sb.append(']');
+    appendByte(']');
   }
 
-  private static void appendString(StringBuilder sb, String s) {
-    sb.append('"');
+  private void appendString(String s) {
+    // Worst case: every char a six-byte escape; a UTF-8 code point needs at most 3 bytes per char.
+    ensureCapacity(s.length() * 6 + 2);
+    byte[] b = buf;
+    int n = count;
+    b[n++] = '"';
     for (int i = 0; i < s.length(); i++) {
       char c = s.charAt(i);
-      switch (c) {
-        case '"' -> sb.append("\\\"");
-        case '\\' -> sb.append("\\\\");
-        case '\n' -> sb.append("\\n");
-        case '\r' -> sb.append("\\r");
-        case '\t' -> sb.append("\\t");
-        case '\b' -> sb.append("\\b");
-        case '\f' -> sb.append("\\f");
-        default -> {
-          if (c < 0x20) {
-            sb.append(String.format(Locale.ROOT, "\\u%04x", (int) c));
-          } else {
-            sb.append(c);
-          }
-        }
+      if (c >= 0x20 && c < 0x80 && c != '"' && c != '\\') {
+        b[n++] = (byte) c;
+      } else if (c < 0x80) {
+        n = escape(b, n, c);
+      } else if (c < 0x800) {
+        b[n++] = (byte) (0xC0 | (c >> 6));
+        b[n++] = (byte) (0x80 | (c & 0x3F));
+      } else if (Character.isHighSurrogate(c)
+          && i + 1 < s.length()
+          && Character.isLowSurrogate(s.charAt(i + 1))) {
+        int cp = Character.toCodePoint(c, s.charAt(++i));
+        b[n++] = (byte) (0xF0 | (cp >> 18));
+        b[n++] = (byte) (0x80 | ((cp >> 12) & 0x3F));
+        b[n++] = (byte) (0x80 | ((cp >> 6) & 0x3F));
+        b[n++] = (byte) (0x80 | (cp & 0x3F));
+      } else if (Character.isSurrogate(c)) {
+        // Unpaired surrogate: replaced like String.getBytes(UTF_8) does.
+        b[n++] = '?';
+      } else {
+        b[n++] = (byte) (0xE0 | (c >> 12));
+        b[n++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+        b[n++] = (byte) (0x80 | (c & 0x3F));
+      }
+    }
+    b[n++] = '"';
+    count = n;
+  }
+
+  private static int escape(byte[] b, int n, char c) {
+    b[n++] = '\\';
+    switch (c) {
+      case '"' -> b[n++] = '"';
+      case '\\' -> b[n++] = '\\';
+      case '\n' -> b[n++] = 'n';
+      case '\r' -> b[n++] = 'r';
+      case '\t' -> b[n++] = 't';
+      case '\b' -> b[n++] = 'b';
+      case '\f' -> b[n++] = 'f';
+      default -> {
+        b[n++] = 'u';
+        b[n++] = '0';
+        b[n++] = '0';
+        b[n++] = HEX[c >> 4];
+        b[n++] = HEX[c & 0xF];
       }
     }
-    sb.append('"');
+    return n;
+  }
+
+  private void appendLong(long value) {
+    if (value == Long.MIN_VALUE) {
+      appendAscii(Long.toString(value));
+      return;
+    }
+    ensureCapacity(20);
+    if (value < 0) {
+      buf[count++] = '-';
+      value = -value;
+    }
+    int digits = 1;
+    for (long rest = value / 10; rest != 0; rest /= 10) {
+      digits++;
+    }
+    int n = count + digits;
+    count = n;
+    do {
+      buf[--n] = (byte) ('0' + value % 10);
+      value /= 10;
+    } while (value != 0);
+  }
+
+  private void appendAscii(String s) {
+    ensureCapacity(s.length());
+    for (int i = 0; i < s.length(); i++) {
+      buf[count++] = (byte) s.charAt(i);
+    }
+  }
+
+  private void appendRaw(byte[] bytes) {
+    ensureCapacity(bytes.length);
+    System.arraycopy(bytes, 0, buf, count, bytes.length);
+    count += bytes.length;
+  }
+
+  private void appendByte(char c) {
+    ensureCapacity(1);
+    buf[count++] = (byte) c;
+  }
+
+  private void ensureCapacity(int extra) {
+    if (count + extra > buf.length) {
+      buf = Arrays.copyOf(buf, Math.max(buf.length * 2, count + extra));
+    }
   }
 }
@@ -0,0 +1,289 @@
+package com.ardetrick.testcontainers;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.AlgorithmParameters;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.security.SignatureException;
+import java.security.spec.ECGenParameterSpec;
+import java.security.spec.ECParameterSpec;
+import java.security.spec.ECPoint;
+import java.security.spec.ECPublicKeySpec;
+import java.security.spec.RSAPublicKeySpec;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Verifies JWTs signed by a container's Hydra in-process — ID tokens, and access tokens when Hydra
+ * runs with {@code STRATEGIES_ACCESS_TOKEN=jwt} — so a resource-server test can validate any number
+ * of tokens without an introspection round trip per token.
+ *
+ * <p>The verifier fetches the JSON Web Key Set the discovery document advertises on first use and
+ * keeps its keys by {@code kid}. A token naming a {@code kid} it does not know — e.g. after Hydra
+ * rotated its keys — revalidates the key set and replaces the keys with the current ones, so keys
+ * Hydra retired stop verifying. At most one revalidation happens every five seconds; unknown {@code
+ * kid}s in between are rejected without a request. Only {@code RS256} and {@code ES256} signatures
+ * are accepted. Beyond the signature, {@code exp} must be in the future, {@code nbf} (if present)
+ * in the past, and {@code iss} must equal the issuer Hydra advertises; {@code aud} is checked once
+ * {@link #audience(String)} is set.
+ *
+ * <p>Configure the verifier before sharing it; {@link #verify(String)} is then safe to call from
+ * any number of threads.
+ *
+ * <pre>{@code
+ * JwtVerifier verifier = hydra.jwtVerifier().audience(clientId);
+ * Map<String, Object> claims = verifier.verify(token.idToken());
+ * }</pre>
+ */
+public final class JwtVerifier {
+
+  private static final Duration REFRESH_INTERVAL = Duration.ofSeconds(5);
+
+  private static final Base64.Decoder BASE64URL = Base64.getUrlDecoder();
+  // Signature objects are costly to look up but not thread-safe, so each thread keeps its own.
+  private static final ThreadLocal<Signature> RS256 = signature("SHA256withRSA");
+  // JWS carries ECDSA signatures as R || S (RFC 7518 §3.4), which is the P1363 format.
+  private static final ThreadLocal<Signature> ES256 = signature("SHA256withECDSAinP1363Format");
+
+  private final String issuer;
+  private final KeySource keySource;
+  private final Clock clock;
+  // Replaced as a whole on each load, never modified.
+  private volatile Map<String, PublicKey> keys;
+  // Guarded by this.
+  private Instant nextRefresh = Instant.MIN;
+  private String audience;
+  private Duration clockSkew = Duration.ZERO;
+
+  // The container supplies the issuer it advertises and the key set from its metadata cache.
+  JwtVerifier(String issuer, KeySource keySource, Clock clock) {
+    this.issuer = issuer;
+    this.keySource = keySource;
+    this.clock = clock;
+  }
+
+  /** Fetches the JSON Web Key Set, revalidating a cached copy first if {@code refresh} is set. */
+  interface KeySource {
+    Map<String, Object> fetch(boolean refresh);
+  }
+
+  /**
+   * Requires the token's {@code aud} claim to contain the given audience — for an ID token, the
+   * client's id; for a JWT access token, an audience the flow requested. Not checked by default.
+   *
+   * @param audience the required audience
+   * @return this verifier
+   */
+  public JwtVerifier audience(String audience) {
+    this.audience = Objects.requireNonNull(audience, "audience must not be null");
+    return this;
+  }
+
+  /**
+   * Tolerates clock differences when checking {@code exp} and {@code nbf} (default none).
+   *
+   * @param clockSkew the tolerance
+   * @return this verifier
+   * @throws IllegalArgumentException if {@code clockSkew} is negative
+   */
+  public JwtVerifier clockSkew(Duration clockSkew) {
+    Objects.requireNonNull(clockSkew, "clockSkew must not be null");
+    if (clockSkew.isNegative()) {
+      throw new IllegalArgumentException("clockSkew must not be negative, was " + clockSkew);
+    }
+    this.clockSkew = clockSkew;
+    return this;
+  }
+
+  /**
+   * Verifies the token's signature and claims.
+   *
+   * @param jwt a compact-serialized JWS
+   * @return the token's claims, unmodifiable
+   * @throws HydraFlowException if the token is malformed, its signature or a claim does not verify,
+   *     or the key set cannot be fetched
+   */
+  public Map<String, Object> verify(String jwt) {
+    Objects.requireNonNull(jwt, "jwt must not be null");
+    int firstDot = jwt.indexOf('.');
+    int secondDot = jwt.indexOf('.', firstDot + 1);
+    if (firstDot < 0 || secondDot < 0 || jwt.indexOf('.', secondDot + 1) >= 0) {
+      throw rejected("not a compact JWS");
+    }
+    Map<String, Object> header = decodeJson(jwt.substring(0, firstDot), "header");
+    Object alg = header.get("alg");
+    ThreadLocal<Signature> algorithm =
+        "RS256".equals(alg) ? RS256 : "ES256".equals(alg) ? ES256 : null;
+    if (algorithm == null) {
+      throw rejected("unsupported alg " + alg);
+    }
+    if (!(header.get("kid") instanceof String kid)) {
+      throw rejected("the header names no kid");
+    }
+    PublicKey key = key(kid);
+    if (!key.getAlgorithm().equals("RS256".equals(alg) ? "RSA" : "EC")) {
+      throw rejected("key " + kid + " is not usable with " + alg);
+    }
+    boolean valid;
+    try {
+      Signature signature = algorithm.get();
+      signature.initVerify(key);
+      signature.update(jwt.substring(0, secondDot).getBytes(StandardCharsets.US_ASCII));
+      valid = signature.verify(decode(jwt.substring(secondDot + 1), "signature"));
+    } catch (SignatureException e) {
+      // A signature of the wrong length or encoding.
+      valid = false;
+    } catch (GeneralSecurityException e) {
+      throw new HydraFlowException("JWT rejected: the signature cannot be checked", e);
+    }
+    if (!valid) {
+      throw rejected("invalid signature");
+    }
+    Map<String, Object> claims = decodeJson(jwt.substring(firstDot + 1, secondDot), "payload");
+    checkClaims(claims);
+    return Collections.unmodifiableMap(claims);
+  }
+
+  private void checkClaims(Map<String, Object> claims) {
+    long now = clock.instant().getEpochSecond();
+    long skew = clockSkew.toSeconds();
+    if (!(claims.get("exp") instanceof Number exp)) {
+      throw rejected("no exp claim");
+    }
+    if (now - skew >= exp.longValue()) {
+      throw rejected("expired at " + exp.longValue());
+    }
+    if (claims.get("nbf") instanceof Number nbf && now + skew < nbf.longValue()) {
+      throw rejected("not valid before " + nbf.longValue());
+    }
+    if (!issuer.equals(claims.get("iss"))) {
+      throw rejected("iss " + claims.get("iss") + " is not " + issuer);
+    }
+    if (audience != null) {
+      Object aud = claims.get("aud");
+      boolean matches =
+          aud instanceof List<?> list ? list.contains(audience) : audience.equals(aud);
+      if (!matches) {
+        throw rejected("aud " + aud + " does not contain " + audience);
+      }
+    }
+  }
+
+  private PublicKey key(String kid) {
+    Map<String, PublicKey> current = keys;
+    PublicKey key = current != null ? current.get(kid) : null;
+    return key != null ? key : reload(kid);
+  }
+
+  // The first miss loads the set; later misses revalidate it for a rotated-in key, unless one did
+  // so recently. Concurrent misses wait for one another, and a miss that finds the key loaded
+  // meanwhile sends no request.
+  private synchronized PublicKey reload(String kid) {
+    if (keys == null) {
+      keys = load(false);
+    } else if (!keys.containsKey(kid)) {
+      Instant now = clock.instant();
+      if (now.isBefore(nextRefresh)) {
+        throw rejected("unknown kid " + kid);
+      }
+      // Set before loading, so a failing key set endpoint is not retried on every token either.
+      nextRefresh = now.plus(REFRESH_INTERVAL);
+      keys = load(true);
+    }
+    PublicKey key = keys.get(kid);
+    if (key == null) {
+      throw rejected("unknown kid " + kid);
+    }
+    return key;
+  }
+
+  private Map<String, PublicKey> load(boolean refresh) {
+    Map<String, PublicKey> loaded = new HashMap<>();
+    Object keySet = keySource.fetch(refresh).get("keys");
+    if (!(keySet instanceof List<?> jwks)) {
+      throw new HydraFlowException("The JSON Web Key Set has no keys array");
+    }
+    for (Object jwk : jwks) {
+      if (jwk instanceof Map<?, ?> map
+          && map.get("kid") instanceof String kid
+          && (map.get("use") == null || "sig".equals(map.get("use")))) {
+        PublicKey key = publicKey(map);
+        if (key != null) {
+          loaded.put(kid, key);
+        }
+      }
+    }
+    return Map.copyOf(loaded);
+  }
+
+  // Returns null for key types this verifier cannot use, e.g. symmetric or other curves.
+  private static PublicKey publicKey(Map<?, ?> jwk) {
+    try {
+      if ("RSA".equals(jwk.get("kty"))) {
+        return KeyFactory.getInstance("RSA")
+            .generatePublic(
+                new RSAPublicKeySpec(
+                    unsigned(jwk.get("n"), "RSA modulus"), unsigned(jwk.get("e"), "RSA exponent")));
+      }
+      if ("EC".equals(jwk.get("kty")) && "P-256".equals(jwk.get("crv"))) {
+        AlgorithmParameters parameters = AlgorithmParameters.getInstance("EC");
+        parameters.init(new ECGenParameterSpec("secp256r1"));
+        ECPoint point = new ECPoint(unsigned(jwk.get("x"), "EC x"), unsigned(jwk.get("y"), "EC y"));
+        return KeyFactory.getInstance("EC")
+            .generatePublic(
+                new ECPublicKeySpec(point, parameters.getParameterSpec(ECParameterSpec.class)));
+      }
+      return null;
+    } catch (GeneralSecurityException e) {
+      throw new HydraFlowException("Unusable key " + jwk.get("kid") + " in the key set", e);
+    }
+  }
+
+  private static BigInteger unsigned(Object value, String what) {
+    if (!(value instanceof String encoded)) {
+      throw new HydraFlowException("The key set has a key without its " + what);
+    }
+    return new BigInteger(1, BASE64URL.decode(encoded));
+  }
+
+  private static Map<String, Object> decodeJson(String part, String what) {
+    try {
+      return Json.parseObject(decode(part, what));
+    } catch (JsonParseException e) {
+      throw rejected("unparseable " + what);
+    }
+  }
+
+  private static byte[] decode(String part, String what) {
+    try {
+      return BASE64URL.decode(part);
+    } catch (IllegalArgumentException e) {
+      throw rejected("the " + what + " is not base64url");
+    }
+  }
+
+  private static HydraFlowException rejected(String reason) {
+    return new HydraFlowException("JWT rejected: " + reason);
+  }
+
+  private static ThreadLocal<Signature> signature(String algorithm) {
+    return ThreadLocal.withInitial(
+        () -> {
+          try {
+            return Signature.getInstance(algorithm);
+          } catch (GeneralSecurityException e) {
+            throw new HydraFlowException(algorithm + " is not available", e);
+          }
+        });
+  }
+}
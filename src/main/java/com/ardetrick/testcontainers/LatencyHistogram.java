@@ -0,0 +1,138 @@
+package com.ardetrick.testcontainers;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A lock-free latency histogram in the style of HdrHistogram: log-linear buckets with 64
+ * sub-buckets per power of two, so every recorded nanosecond value is kept within about 1.6% of its
+ * true value at constant memory, however many values are recorded.
+ *
+ * <p>Values below 128 are kept exactly. Values above {@link #MAX_VALUE} (about 18 minutes) are
+ * recorded as {@link #MAX_VALUE}. Recording is safe from any number of threads; reading while
+ * recording sees a consistent-enough snapshot for progress reporting only.
+ */
+final class LatencyHistogram {
+
+  static final long MAX_VALUE = (1L << 40) - 1;
+
+  private static final int SUB_BUCKET_BITS = 6;
+  private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+  private static final int EXACT = 2 * SUB_BUCKETS;
+  private static final int SIZE = index(MAX_VALUE) + 1;
+
+  private final AtomicLongArray counts = new AtomicLongArray(SIZE);
+  private final LongAdder count = new LongAdder();
+  private final LongAdder sum = new LongAdder();
+  private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+  /**
+   * Records one value.
+   *
+   * @param nanos the value; negative values are recorded as {@code 0}
+   */
+  void record(long nanos) {
+    record(nanos, 1L, 0L);
+  }
+
+  /**
+   * Records a value measured by a caller that issues one request per {@code expectedIntervalNanos}
+   * and waited for this one, back-filling the values the requests it could not issue meanwhile
+   * would have seen — HdrHistogram's correction for coordinated omission.
+   *
+   * @param expectedIntervalNanos the intended time between requests; {@code 0} disables correction
+   */
+  void record(long nanos, long expectedIntervalNanos) {
+    record(nanos, 1L, expectedIntervalNanos);
+  }
+
+  private void record(long nanos, long times, long expectedIntervalNanos) {
+    long value = Math.min(Math.max(nanos, 0), MAX_VALUE);
+    counts.addAndGet(index(value), times);
+    count.add(times);
+    sum.add(value * times);
+    max.accumulate(value);
+    if (expectedIntervalNanos <= 0) {
+      return;
+    }
+    for (long missed = value - expectedIntervalNanos;
+        missed >= expectedIntervalNanos;
+        missed -= expectedIntervalNanos) {
+      record(missed, times, 0L);
+    }
+  }
+
+  /**
+   * Returns a copy with every recorded value corrected as by {@link #record(long, long)}.
+   *
+   * @param expectedIntervalNanos the intended time between requests
+   */
+  LatencyHistogram corrected(long expectedIntervalNanos) {
+    LatencyHistogram copy = new LatencyHistogram();
+    for (int i = 0; i < SIZE; i++) {
+      long n = counts.get(i);
+      if (n > 0) {
+        copy.record(highestEquivalentValue(i), n, expectedIntervalNanos);
+      }
+    }
+    return copy;
+  }
+
+  long count() {
+    return count.sum();
+  }
+
+  long max() {
+    return max.get();
+  }
+
+  double mean() {
+    long n = count.sum();
+    return n == 0 ? 0 : (double) sum.sum() / n;
+  }
+
+  /**
+   * Returns the value at the given percentile: no more than {@code percentile}% of recorded values
+   * exceed it, up to the bucket precision.
+   *
+   * @param percentile between {@code 0} and {@code 100}
+   * @return the highest value equivalent to the one at that rank, or {@code 0} if nothing was
+   *     recorded
+   */
+  long valueAtPercentile(double percentile) {
+    long total = count.sum();
+    if (total == 0) {
+      return 0;
+    }
+    long rank = Math.max(1, (long) Math.ceil(Math.min(percentile, 100) / 100 * total));
+    long seen = 0;
+    for (int i = 0; i < SIZE; i++) {
+      seen += counts.get(i);
+      if (seen >= rank) {
+        return Math.min(highestEquivalentValue(i), max.get());
+      }
+    }
+    return max.get();
+  }
+
+  // Indexes 0..127 hold their value exactly; above, each power of two from 2^7 up is split into 64
+  // equal sub-buckets.
+  static int index(long value) {
+    if (value < EXACT) {
+      return (int) value;
+    }
+    int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+    int sub = (int) (value >>> shift) - SUB_BUCKETS;
+    return EXACT + (shift - 1) * SUB_BUCKETS + sub;
+  }
+
+  static long highestEquivalentValue(int index) {
+    if (index < EXACT) {
+      return index;
+    }
+    int shift = (index - EXACT) / SUB_BUCKETS + 1;
+    long sub = (index - EXACT) % SUB_BUCKETS + SUB_BUCKETS;
+    return ((sub + 1) << shift) - 1;
+  }
+}
@@ -0,0 +1,96 @@
+package com.ardetrick.testcontainers;
+
+import java.util.AbstractMap;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * An unmodifiable JSON object map that keeps the UTF-8 response body and parses it on first access.
+ *
+ * <p>Backs the {@code raw} component of token and introspection responses: their typed components
+ * are decoded up front with {@link Json#parseFields(byte[], String...)}, and most callers never
+ * read anything else, so retaining a body costs its bytes instead of a map of boxed values. Once
+ * parsed, the bytes are released.
+ */
+final class LazyJsonObject extends AbstractMap<String, Object> {
+
+  private static final String[] NONE = {};
+
+  private byte[] json;
+  private volatile Map<String, Object> parsed;
+  private final String[] fieldNames;
+  private final Object[] fieldValues;
+
+  /**
+   * Wraps a body that {@link Json#parseFields(byte[], String...)} has already validated, so parsing
+   * it later cannot fail.
+   *
+   * @param json the UTF-8 encoded JSON object; not copied, so must not be modified afterwards
+   */
+  LazyJsonObject(byte[] json) {
+    this(json, NONE, NONE);
+  }
+
+  /**
+   * Wraps a validated body along with fields already decoded from it, which {@link #field(String)}
+   * then answers without parsing the body.
+   *
+   * @param fieldNames the names passed to {@link Json#parseFields(byte[], String...)}
+   * @param fieldValues the values it returned
+   */
+  LazyJsonObject(byte[] json, String[] fieldNames, Object[] fieldValues) {
+    this.json = json;
+    this.fieldNames = fieldNames;
+    this.fieldValues = fieldValues;
+  }
+
+  /** Returns a top-level field's value, from the decoded fields if it is one of them. */
+  Object field(String name) {
+    for (int i = 0; i < fieldNames.length; i++) {
+      if (fieldNames[i].equals(name)) {
+        return fieldValues[i];
+      }
+    }
+    return get(name);
+  }
+
+  boolean isParsed() {
+    return parsed != null;
+  }
+
+  private Map<String, Object> parsed() {
+    Map<String, Object> map = parsed;
+    if (map == null) {
+      synchronized (this) {
+        map = parsed;
+        if (map == null) {
+          map = Collections.unmodifiableMap(Json.parseObject(json));
+          parsed = map;
+          json = null;
+        }
+      }
+    }
+    return map;
+  }
+
+  @Override
+  public Set<Entry<String, Object>> entrySet() {
+    return parsed().entrySet();
+  }
+
+  @Override
+  public Object get(Object key) {
+    return parsed().get(key);
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    return parsed().containsKey(key);
+  }
+
+  @Override
+  public int size() {
+    return parsed().size();
+  }
+}
@@ -0,0 +1,504 @@
+package com.ardetrick.testcontainers;
+
+import com.ardetrick.testcontainers.FlowResult.OAuthError;
+import com.ardetrick.testcontainers.FlowResult.TokenResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Drives token-endpoint and introspection traffic against a running container and measures it —
+ * e.g. to load-test a gateway that validates Hydra's tokens, with Hydra as the realistic backend.
+ *
+ * <p>Each added operation is a kind of request; requests cycle through the operations in the order
+ * they were added. In {@linkplain #fixedRate(double) open-loop} mode requests start on a fixed
+ * schedule however long earlier ones take; in {@linkplain #fixedConcurrency(int) closed-loop} mode
+ * (the default) a fixed number of lanes each start a request once their previous one completes.
+ * Both run on the container's shared HTTP transport without a thread per request.
+ *
+ * <p>Latencies go into per-operation histograms and are reported as percentiles corrected for
+ * coordinated omission — the stalls a load driver hides when it waits for a slow response before
+ * sending the next request — alongside the uncorrected ones. A closed-loop run has no schedule to
+ * measure from, so it corrects only for an {@linkplain #fixedConcurrency(int, Duration) expected
+ * interval} the caller chooses.
+ *
+ * <pre>{@code
+ * LoadReport report =
+ *     hydra.loadGenerator()
+ *         .clientCredentials(flow -> flow.scopes("read"))
+ *         .introspection(flow -> {})
+ *         .fixedRate(500)
+ *         .warmup(Duration.ofSeconds(2))
+ *         .duration(Duration.ofSeconds(30))
+ *         .run();
+ * Files.writeString(Path.of("build/hydra-load.json"), report.toJson());
+ * }</pre>
+ */
+public final class LoadGenerator {
+
+  static final int DEFAULT_CONCURRENCY = 16;
+  static final Duration DEFAULT_DURATION = Duration.ofSeconds(10);
+
+  private final Supplier<ClientCredentialsFlow> clientCredentialsFlows;
+  private final Supplier<AuthorizationCodeFlow> authorizationCodeFlows;
+  private final Function<String, CompletableFuture<IntrospectionResponse>> introspection;
+  private final List<Definition> definitions = new ArrayList<>();
+  private double rate;
+  private int concurrency = DEFAULT_CONCURRENCY;
+  private long expectedIntervalNanos;
+  private Duration warmup = Duration.ZERO;
+  private Duration duration = DEFAULT_DURATION;
+
+  // The container supplies flows and introspection bound to its endpoints and HTTP transport.
+  LoadGenerator(
+      Supplier<ClientCredentialsFlow> clientCredentialsFlows,
+      Supplier<AuthorizationCodeFlow> authorizationCodeFlows,
+      Function<String, CompletableFuture<IntrospectionResponse>> introspection) {
+    this.clientCredentialsFlows = clientCredentialsFlows;
+    this.authorizationCodeFlows = authorizationCodeFlows;
+    this.introspection = introspection;
+  }
+
+  /**
+   * Adds client-credentials token requests, named {@code client_credentials}. Each request runs a
+   * new flow; flows without a supplied client share one ephemeral client.
+   *
+   * @param customizer configures each request's flow, e.g. its scopes
+   * @return this generator
+   */
+  public LoadGenerator clientCredentials(Consumer<ClientCredentialsFlow> customizer) {
+    Objects.requireNonNull(customizer, "customizer must not be null");
+    return add(
+        "client_credentials",
+        lanes ->
+            () -> {
+              ClientCredentialsFlow flow = clientCredentialsFlows.get();
+              customizer.accept(flow);
+              return flow.executeAsync();
+            });
+  }
+
+  /**
+   * Adds full authorization-code flows, named {@code authorization_code}. Each request runs a new
+   * flow; flows without a supplied client share one ephemeral client.
+   *
+   * @param customizer configures each request's flow, e.g. its subject or {@link
+   *     AuthorizationCodeFlow#fastMode(boolean) fast mode}
+   * @return this generator
+   */
+  public LoadGenerator authorizationCode(Consumer<AuthorizationCodeFlow> customizer) {
+    Objects.requireNonNull(customizer, "customizer must not be null");
+    return add(
+        "authorization_code",
+        lanes ->
+            () -> {
+              AuthorizationCodeFlow flow = authorizationCodeFlows.get();
+              customizer.accept(flow);
+              return flow.executeAsync();
+            });
+  }
+
+  /**
+   * Adds refresh-token grants, named {@code refresh_token}. Before the run, one flow configured by
+   * the customizer (scopes default to {@code openid offline_access}) mints a refresh token per
+   * {@linkplain #fixedConcurrency(int) lane}; each request redeems one and returns the rotated
+   * token for reuse. A request that finds none left — in open-loop mode, when more are in flight
+   * than were minted — runs the flow for a new one first, within its measured latency.
+   *
+   * @param customizer configures the flow minting the refresh tokens
+   * @return this generator
+   */
+  public LoadGenerator refresh(Consumer<AuthorizationCodeFlow> customizer) {
+    Objects.requireNonNull(customizer, "customizer must not be null");
+    return add(
+        "refresh_token",
+        lanes -> {
+          AuthorizationCodeFlow configured =
+              authorizationCodeFlows.get().scopes("openid", "offline_access");
+          customizer.accept(configured);
+          AuthorizationCodeFlow.Spec flow = configured.spec();
+          Queue<String> refreshTokens = new ConcurrentLinkedQueue<>();
+          for (int i = 0; i < lanes; i++) {
+            refreshTokens.add(refreshTokenOf(flow.execute()));
+          }
+          return () -> {
+            String token = refreshTokens.poll();
+            CompletableFuture<String> refreshToken =
+                token != null
+                    ? CompletableFuture.completedFuture(token)
+                    : flow.executeAsync().thenApply(LoadGenerator::refreshTokenOf);
+            return refreshToken
+                .thenCompose(flow::refreshAsync)
+                .thenApply(
+                    result -> {
+                      if (result instanceof TokenResponse rotated
+                          && rotated.refreshToken() != null) {
+                        refreshTokens.add(rotated.refreshToken());
+                      }
+                      return result;
+                    });
+          };
+        });
+  }
+
+  /**
+   * Adds token introspection requests, named {@code introspection}. Before the run, one
+   * client-credentials flow configured by the customizer mints the token every request introspects.
+   *
+   * @param customizer configures the flow minting the introspected token
+   * @return this generator
+   */
+  public LoadGenerator introspection(Consumer<ClientCredentialsFlow> customizer) {
+    Objects.requireNonNull(customizer, "customizer must not be null");
+    return add(
+        "introspection",
+        lanes -> {
+          ClientCredentialsFlow flow = clientCredentialsFlows.get();
+          customizer.accept(flow);
+          FlowResult result = flow.execute();
+          if (!(result instanceof TokenResponse token)) {
+            throw new HydraFlowException("Minting the token to introspect failed: " + result);
+          }
+          return () -> introspection.apply(token.accessToken());
+        });
+  }
+
+  /**
+   * Adds a request of the caller's own, e.g. against the gateway under test.
+   *
+   * @param name the operation's name in the report
+   * @param request starts one request; called from the HTTP client's threads, so it must be
+   *     thread-safe. A future completing with an {@link FlowResult.OAuthError} or exceptionally
+   *     counts as an error.
+   * @return this generator
+   * @throws IllegalArgumentException if an operation with that name was already added
+   */
+  public LoadGenerator operation(String name, Supplier<CompletableFuture<?>> request) {
+    Objects.requireNonNull(request, "request must not be null");
+    return add(name, lanes -> request);
+  }
+
+  private LoadGenerator add(String name, Definition.Setup setup) {
+    Objects.requireNonNull(name, "name must not be null");
+    for (Definition definition : definitions) {
+      if (definition.name().equals(name)) {
+        throw new IllegalArgumentException("operation '" + name + "' was already added");
+      }
+    }
+    definitions.add(new Definition(name, setup));
+    return this;
+  }
+
+  /**
+   * Issues requests open-loop: a new request starts every {@code 1 / requestsPerSecond} seconds
+   * whether or not earlier ones have completed, and latency is measured from when it should have
+   * started.
+   *
+   * @param requestsPerSecond the request rate across all operations
+   * @return this generator
+   * @throws IllegalArgumentException if {@code requestsPerSecond} is not positive
+   */
+  public LoadGenerator fixedRate(double requestsPerSecond) {
+    if (!(requestsPerSecond > 0) || Double.isInfinite(requestsPerSecond)) {
+      throw new IllegalArgumentException(
+          "requestsPerSecond must be positive, was " + requestsPerSecond);
+    }
+    this.rate = requestsPerSecond;
+    return this;
+  }
+
+  /**
+   * Issues requests closed-loop (the default): {@code concurrency} lanes each start a request as
+   * soon as their previous one completes (default {@value #DEFAULT_CONCURRENCY}). The container's
+   * {@link OryHydraContainer.Builder#httpConnections(int) connection limit} applies on top.
+   * Latencies are not corrected for coordinated omission; see {@link #fixedConcurrency(int,
+   * Duration)}.
+   *
+   * @param concurrency the number of lanes
+   * @return this generator
+   * @throws IllegalArgumentException if {@code concurrency} is not positive
+   */
+  public LoadGenerator fixedConcurrency(int concurrency) {
+    if (concurrency <= 0) {
+      throw new IllegalArgumentException("concurrency must be positive, was " + concurrency);
+    }
+    this.concurrency = concurrency;
+    this.expectedIntervalNanos = 0;
+    this.rate = 0;
+    return this;
+  }
+
+  /**
+   * Issues requests closed-loop like {@link #fixedConcurrency(int)}, correcting latencies for
+   * coordinated omission as if each lane meant to start a request every {@code expectedInterval}: a
+   * request taking longer is back-filled with the requests the lane could not start meanwhile.
+   * Choose the interval the system under test is expected to serve, e.g. the pacing of the real
+   * clients it models — not a figure measured by the run itself.
+   *
+   * @param concurrency the number of lanes
+   * @param expectedInterval the time each lane intends between request starts
+   * @return this generator
+   * @throws IllegalArgumentException if {@code concurrency} or {@code expectedInterval} is not
+   *     positive
+   */
+  public LoadGenerator fixedConcurrency(int concurrency, Duration expectedInterval) {
+    Objects.requireNonNull(expectedInterval, "expectedInterval must not be null");
+    if (expectedInterval.isNegative() || expectedInterval.isZero()) {
+      throw new IllegalArgumentException(
+          "expectedInterval must be positive, was " + expectedInterval);
+    }
+    fixedConcurrency(concurrency);
+    this.expectedIntervalNanos = expectedInterval.toNanos();
+    return this;
+  }
+
+  /**
+   * Issues requests for this long before measuring starts (default none), so connection set-up and
+   * JIT compilation do not skew the results.
+   *
+   * @param warmup the unmeasured lead-in
+   * @return this generator
+   * @throws IllegalArgumentException if {@code warmup} is negative
+   */
+  public LoadGenerator warmup(Duration warmup) {
+    Objects.requireNonNull(warmup, "warmup must not be null");
+    if (warmup.isNegative()) {
+      throw new IllegalArgumentException("warmup must not be negative, was " + warmup);
+    }
+    this.warmup = warmup;
+    return this;
+  }
+
+  /**
+   * Sets how long requests are measured after the warm-up (default 10 seconds).
+   *
+   * @param duration the measured time
+   * @return this generator
+   * @throws IllegalArgumentException if {@code duration} is not positive
+   */
+  public LoadGenerator duration(Duration duration) {
+    Objects.requireNonNull(duration, "duration must not be null");
+    if (duration.isNegative() || duration.isZero()) {
+      throw new IllegalArgumentException("duration must be positive, was " + duration);
+    }
+    this.duration = duration;
+    return this;
+  }
+
+  /**
+   * Prepares every operation, runs the load, and waits for the last request to complete.
+   *
+   * <p>Each operation's request runs once before the load starts, so a misconfigured operation
+   * fails the run instead of every request, and ephemeral clients are registered outside the
+   * measurement.
+   *
+   * @return the per-operation results
+   * @throws HydraFlowException if an operation cannot be prepared or its first request fails
+   * @throws IllegalStateException if no operation was added
+   */
+  public LoadReport run() {
+    if (definitions.isEmpty()) {
+      throw new IllegalStateException("at least one operation must be added before running");
+    }
+    boolean openLoop = rate > 0;
+    int lanes = concurrency;
+    Bound[] operations = new Bound[definitions.size()];
+    for (int i = 0; i < operations.length; i++) {
+      operations[i] = definitions.get(i).bind(lanes);
+    }
+    long start = System.nanoTime();
+    Run run =
+        new Run(
+            operations, start + warmup.toNanos(), start + warmup.toNanos() + duration.toNanos());
+    if (openLoop) {
+      runOpenLoop(run, start);
+    } else {
+      CompletableFuture<?>[] done = new CompletableFuture<?>[lanes];
+      for (int i = 0; i < lanes; i++) {
+        CompletableFuture<Void> laneDone = new CompletableFuture<>();
+        done[i] = laneDone;
+        lane(run, laneDone);
+      }
+      Http.await(CompletableFuture.allOf(done));
+    }
+    List<LoadReport.Operation> results = new ArrayList<>();
+    for (Bound operation : operations) {
+      results.add(operation.result(duration, openLoop, expectedIntervalNanos));
+    }
+    return new LoadReport(
+        openLoop ? LoadReport.Mode.OPEN_LOOP : LoadReport.Mode.CLOSED_LOOP,
+        openLoop ? rate : 0,
+        openLoop ? 0 : lanes,
+        warmup,
+        duration,
+        List.copyOf(results));
+  }
+
+  // The calling thread is the scheduler: it sleeps until each request is due and catches up in a
+  // burst when it falls behind, so late starts show up in the corrected latencies.
+  private void runOpenLoop(Run run, long start) {
+    double intervalNanos = 1_000_000_000.0 / rate;
+    CompletableFuture<Void> drained = new CompletableFuture<>();
+    AtomicLong pending = new AtomicLong(1);
+    for (long i = 0; ; i++) {
+      long intended = start + (long) (i * intervalNanos);
+      if (intended - run.end >= 0) {
+        break;
+      }
+      long wait = intended - System.nanoTime();
+      if (wait > 0) {
+        LockSupport.parkNanos(wait);
+      }
+      pending.incrementAndGet();
+      issue(run, run.next(), intended)
+          .whenComplete(
+              (ignored, failure) -> {
+                if (pending.decrementAndGet() == 0) {
+                  drained.complete(null);
+                }
+              });
+    }
+    if (pending.decrementAndGet() == 0) {
+      drained.complete(null);
+    }
+    Http.await(drained);
+  }
+
+  // Loops instead of recursing while requests complete synchronously (e.g. cached tokens), so a
+  // lane never grows the stack; an incomplete request resumes the lane from its completion.
+  private void lane(Run run, CompletableFuture<Void> done) {
+    while (System.nanoTime() - run.end < 0) {
+      CompletableFuture<Void> request = issue(run, run.next(), System.nanoTime());
+      if (!request.isDone()) {
+        request.whenComplete((ignored, failure) -> lane(run, done));
+        return;
+      }
+    }
+    done.complete(null);
+  }
+
+  private static CompletableFuture<Void> issue(Run run, Bound operation, long intended) {
+    long sent = System.nanoTime();
+    CompletableFuture<?> request;
+    try {
+      request = operation.request.get();
+    } catch (RuntimeException e) {
+      request = CompletableFuture.failedFuture(e);
+    }
+    return request.handle(
+        (result, failure) -> {
+          if (intended - run.measureFrom >= 0) {
+            long now = System.nanoTime();
+            operation.record(
+                now - intended, now - sent, failure != null || result instanceof OAuthError);
+          }
+          return null;
+        });
+  }
+
+  private static String refreshTokenOf(FlowResult result) {
+    if (result instanceof TokenResponse token && token.refreshToken() != null) {
+      return token.refreshToken();
+    }
+    throw new HydraFlowException(
+        "Refresh traffic needs a refresh token, but the flow returned "
+            + result
+            + "; request the offline_access scope");
+  }
+
+  private record Definition(String name, Setup setup) {
+
+    // Runs before the load starts; returns the action starting one request.
+    interface Setup {
+      Supplier<CompletableFuture<?>> prepare(int lanes);
+    }
+
+    Bound bind(int lanes) {
+      Supplier<CompletableFuture<?>> request = setup.prepare(lanes);
+      Object first;
+      try {
+        first = Http.await(request.get());
+      } catch (RuntimeException e) {
+        throw e instanceof HydraFlowException flow
+            ? flow
+            : new HydraFlowException("Operation '" + name + "' failed before the run", e);
+      }
+      if (first instanceof OAuthError error) {
+        throw new HydraFlowException("Operation '" + name + "' failed before the run: " + error);
+      }
+      return new Bound(name, request);
+    }
+  }
+
+  private static final class Bound {
+
+    private final String name;
+    private final Supplier<CompletableFuture<?>> request;
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final LatencyHistogram uncorrected = new LatencyHistogram();
+    private final LongAdder errors = new LongAdder();
+
+    Bound(String name, Supplier<CompletableFuture<?>> request) {
+      this.name = name;
+      this.request = request;
+    }
+
+    void record(long sinceIntendedNanos, long sinceSentNanos, boolean error) {
+      latency.record(sinceIntendedNanos);
+      uncorrected.record(sinceSentNanos);
+      if (error) {
+        errors.increment();
+      }
+    }
+
+    LoadReport.Operation result(Duration duration, boolean openLoop, long expectedIntervalNanos) {
+      long requests = uncorrected.count();
+      // Open-loop latencies are already measured from the schedule. Closed-loop ones can only be
+      // back-filled against an interval the caller chose; a run's own latencies would be circular.
+      LatencyHistogram corrected;
+      if (openLoop) {
+        corrected = latency;
+      } else if (expectedIntervalNanos > 0) {
+        corrected = uncorrected.corrected(expectedIntervalNanos);
+      } else {
+        corrected = uncorrected;
+      }
+      return new LoadReport.Operation(
+          name,
+          requests,
+          errors.sum(),
+          requests * 1_000_000_000.0 / duration.toNanos(),
+          LoadReport.Latency.of(corrected),
+          LoadReport.Latency.of(uncorrected));
+    }
+  }
+
+  // Per-run state shared by the scheduler or lanes: requests cycle through the operations.
+  private static final class Run {
+
+    private final Bound[] operations;
+    private final long measureFrom;
+    private final long end;
+    private final AtomicLong issued = new AtomicLong();
+
+    Run(Bound[] operations, long measureFrom, long end) {
+      this.operations = operations;
+      this.measureFrom = measureFrom;
+      this.end = end;
+    }
+
+    Bound next() {
+      return operations[(int) (issued.getAndIncrement() % operations.length)];
+    }
+  }
+}
@@ -0,0 +1,142 @@
+package com.ardetrick.testcontainers;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * The outcome of a {@link LoadGenerator} run: request counts, throughput, and latency percentiles
+ * per operation, measured after the warm-up.
+ *
+ * @param mode how requests were issued
+ * @param targetRate the intended requests per second across all operations in {@link
+ *     Mode#OPEN_LOOP} mode, or {@code 0}
+ * @param concurrency the number of lanes in {@link Mode#CLOSED_LOOP} mode, or {@code 0}
+ * @param warmup the time requests were issued before measuring started
+ * @param duration the measured time
+ * @param operations the per-operation results, in the order the operations were added
+ */
+public record LoadReport(
+    Mode mode,
+    double targetRate,
+    int concurrency,
+    Duration warmup,
+    Duration duration,
+    List<Operation> operations) {
+
+  /** How a {@link LoadGenerator} issues requests. */
+  public enum Mode {
+    /**
+     * Requests start on a fixed schedule whether or not earlier ones have completed, like
+     * independent users arriving.
+     */
+    OPEN_LOOP,
+    /** A fixed number of lanes each start a request as soon as their previous one completes. */
+    CLOSED_LOOP
+  }
+
+  /**
+   * The results of one operation.
+   *
+   * @param name the operation's name
+   * @param requests the requests started after the warm-up that completed, including failures
+   * @param errors the requests that failed or were answered with an {@link FlowResult.OAuthError}
+   * @param throughput completed requests per second of measured time
+   * @param latency latencies corrected for coordinated omission: in open-loop mode measured from
+   *     each request's scheduled start, so a late start counts against it; in closed-loop mode
+   *     back-filled for the requests each lane could not start while waiting, against the {@link
+   *     LoadGenerator#fixedConcurrency(int, Duration) expected interval} — without one, closed-loop
+   *     latencies are uncorrected and equal to {@code uncorrectedLatency}
+   * @param uncorrectedLatency latencies measured from each request's actual start — what a naive
+   *     load driver reports, for comparison
+   */
+  public record Operation(
+      String name,
+      long requests,
+      long errors,
+      double throughput,
+      Latency latency,
+      Latency uncorrectedLatency) {}
+
+  /**
+   * Latency percentiles, in nanoseconds, accurate to about 1.6%. They include failed requests.
+   *
+   * @param mean the mean latency
+   * @param p50 the median
+   * @param p90 the 90th percentile
+   * @param p99 the 99th percentile
+   * @param p999 the 99.9th percentile
+   * @param max the highest latency recorded
+   */
+  public record Latency(double mean, long p50, long p90, long p99, long p999, long max) {
+
+    static Latency of(LatencyHistogram histogram) {
+      return new Latency(
+          histogram.mean(),
+          histogram.valueAtPercentile(50),
+          histogram.valueAtPercentile(90),
+          histogram.valueAtPercentile(99),
+          histogram.valueAtPercentile(99.9),
+          histogram.max());
+    }
+
+    private Map<String, Object> toMap() {
+      Map<String, Object> map = new LinkedHashMap<>();
+      map.put("mean", mean);
+      map.put("p50", p50);
+      map.put("p90", p90);
+      map.put("p99", p99);
+      map.put("p999", p999);
+      map.put("max", max);
+      return map;
+    }
+  }
+
+  /**
+   * Returns the results of the named operation.
+   *
+   * @param name the operation's name, e.g. {@code client_credentials}
+   * @return the operation's results
+   * @throws IllegalArgumentException if no operation has that name
+   */
+  public Operation operation(String name) {
+    for (Operation operation : operations) {
+      if (operation.name().equals(name)) {
+        return operation;
+      }
+    }
+    throw new IllegalArgumentException("No operation named '" + name + "' in this report");
+  }
+
+  /**
+   * Serializes the report to JSON, e.g. to archive it next to the load test's own results. Times
+   * are in nanoseconds.
+   *
+   * @return the JSON text
+   */
+  public String toJson() {
+    Map<String, Object> json = new LinkedHashMap<>();
+    json.put("mode", mode.name().toLowerCase(Locale.ROOT));
+    json.put("targetRate", targetRate);
+    json.put("concurrency", concurrency);
+    json.put("warmupNanos", warmup.toNanos());
+    json.put("durationNanos", duration.toNanos());
+    List<Object> list = new ArrayList<>();
+    for (Operation operation : operations) {
+      Map<String, Object> map = new LinkedHashMap<>();
+      map.put("name", operation.name());
+      map.put("requests", operation.requests());
+      map.put("errors", operation.errors());
+      map.put("throughput", operation.throughput());
+      map.put("latencyNanos", operation.latency().toMap());
+      map.put("uncorrectedLatencyNanos", operation.uncorrectedLatency().toMap());
+      list.add(map);
+    }
+    json.put("operations", list);
+    return new String(JsonWriter.write(json), StandardCharsets.UTF_8);
+  }
+}
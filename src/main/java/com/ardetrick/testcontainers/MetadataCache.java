@@ -0,0 +1,243 @@
+package com.ardetrick.testcontainers;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Caches the discovery document and JSON Web Key Set a container's flows and helpers read, so a
+ * flow that only needs the issuer does not pay a round trip and a parse on every execution.
+ *
+ * <p>Freshness follows the response's {@code Cache-Control}: {@code max-age} (less any {@code Age})
+ * bounds it, {@code no-cache} revalidates on every read, and {@code no-store} is never kept. A
+ * response without either is fresh for a fixed default — the documents only change when Hydra is
+ * reconfigured, which callers signal with {@link #invalidate()}. A stale entry is revalidated with
+ * {@code If-None-Match} / {@code If-Modified-Since} when the response carried an {@code ETag} /
+ * {@code Last-Modified}, so an unchanged document costs a {@code 304} and keeps its parsed value.
+ * Concurrent reads of an entry being fetched wait for that one request.
+ */
+final class MetadataCache {
+
+  static final Duration DEFAULT_FRESHNESS = Duration.ofMinutes(5);
+
+  private final long defaultFreshnessNanos;
+  private final LongSupplier clock;
+  // Guarded by itself.
+  private final Map<URI, Entry> entries = new HashMap<>();
+
+  MetadataCache() {
+    this(DEFAULT_FRESHNESS, System::nanoTime);
+  }
+
+  MetadataCache(Duration defaultFreshness, LongSupplier clock) {
+    this.defaultFreshnessNanos = defaultFreshness.toNanos();
+    this.clock = clock;
+  }
+
+  /**
+   * Returns the discovery document served at the given public API base URI.
+   *
+   * @return the document with endpoint accessors re-targeted at {@code publicBaseUri}; fails with a
+   *     {@link HydraFlowException} if it cannot be fetched or parsed
+   */
+  CompletableFuture<OpenIdConfiguration> openIdConfiguration(
+      HttpTransport http, URI publicBaseUri) {
+    return get(
+        http,
+        publicBaseUri.resolve("/.well-known/openid-configuration"),
+        response -> OpenIdConfiguration.parse(response, publicBaseUri));
+  }
+
+  /**
+   * Returns the JSON Web Key Set the discovery document advertises, e.g. to verify token
+   * signatures.
+   *
+   * @return the parsed, unmodifiable key set; fails with a {@link HydraFlowException} if the
+   *     discovery document advertises none, or either document cannot be fetched or parsed
+   */
+  CompletableFuture<Map<String, Object>> jsonWebKeySet(HttpTransport http, URI publicBaseUri) {
+    return jsonWebKeySet(http, publicBaseUri, false);
+  }
+
+  /**
+   * Returns the JSON Web Key Set like {@link #jsonWebKeySet(HttpTransport, URI)}, but revalidates a
+   * cached copy even while it is fresh — e.g. when a token names a key the cached set lacks because
+   * Hydra has rotated its keys since. An unchanged set still costs only a {@code 304}.
+   */
+  CompletableFuture<Map<String, Object>> refreshJsonWebKeySet(
+      HttpTransport http, URI publicBaseUri) {
+    return jsonWebKeySet(http, publicBaseUri, true);
+  }
+
+  private CompletableFuture<Map<String, Object>> jsonWebKeySet(
+      HttpTransport http, URI publicBaseUri, boolean revalidate) {
+    return openIdConfiguration(http, publicBaseUri)
+        .thenCompose(
+            configuration -> {
+              if (configuration.jwksUri() == null) {
+                throw new HydraFlowException("The discovery document advertises no jwks_uri");
+              }
+              if (revalidate) {
+                expire(configuration.jwksUri());
+              }
+              return get(http, configuration.jwksUri(), MetadataCache::parseKeySet);
+            });
+  }
+
+  /** Forgets every entry, so the next read fetches the documents without validators. */
+  void invalidate() {
+    synchronized (entries) {
+      entries.clear();
+    }
+  }
+
+  // Marks the entry stale unless a fetch is already under way, whose result is as fresh as any.
+  private void expire(URI uri) {
+    synchronized (entries) {
+      Entry entry = entries.get(uri);
+      if (entry != null && entry.pending == null) {
+        entry.expiresAt = clock.getAsLong();
+      }
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private <T> CompletableFuture<T> get(
+      HttpTransport http, URI uri, Function<HttpResponse<byte[]>, T> parse) {
+    Entry entry;
+    CompletableFuture<Object> pending;
+    HttpRequest.Builder request = HttpRequest.newBuilder(uri).header("Accept", "application/json");
+    synchronized (entries) {
+      entry = entries.computeIfAbsent(uri, key -> new Entry());
+      if (entry.pending != null) {
+        return (CompletableFuture<T>) entry.pending.copy();
+      }
+      if (entry.value != null && clock.getAsLong() - entry.expiresAt < 0) {
+        return CompletableFuture.completedFuture((T) entry.value);
+      }
+      if (entry.value != null && entry.etag != null) {
+        request.header("If-None-Match", entry.etag);
+      }
+      if (entry.value != null && entry.lastModified != null) {
+        request.header("If-Modified-Since", entry.lastModified);
+      }
+      pending = new CompletableFuture<>();
+      entry.pending = pending;
+    }
+    Entry owned = entry;
+    CompletableFuture<HttpResponse<byte[]>> sent;
+    try {
+      sent = http.sendAsync(request.GET().build());
+    } catch (RuntimeException e) {
+      sent = CompletableFuture.failedFuture(e);
+    }
+    sent.whenComplete(
+        (response, failure) -> {
+          if (failure != null) {
+            complete(uri, owned, null, null, failure);
+            return;
+          }
+          try {
+            Object value =
+                response.statusCode() == 304 && owned.value != null
+                    ? owned.value
+                    : parse.apply(response);
+            complete(uri, owned, response, value, null);
+          } catch (RuntimeException e) {
+            complete(uri, owned, null, null, e);
+          }
+        });
+    return (CompletableFuture<T>) pending.copy();
+  }
+
+  private void complete(
+      URI uri, Entry entry, HttpResponse<byte[]> response, Object value, Throwable failure) {
+    CompletableFuture<Object> pending;
+    synchronized (entries) {
+      pending = entry.pending;
+      entry.pending = null;
+      if (response != null) {
+        long freshness = freshnessNanos(response);
+        if (freshness < 0) {
+          entries.remove(uri, entry);
+        } else {
+          entry.value = value;
+          entry.expiresAt = clock.getAsLong() + freshness;
+          if (response.statusCode() != 304) {
+            entry.etag = response.headers().firstValue("etag").orElse(null);
+            entry.lastModified = response.headers().firstValue("last-modified").orElse(null);
+          }
+        }
+      }
+    }
+    if (failure != null) {
+      pending.completeExceptionally(Http.unwrap(failure));
+    } else {
+      pending.complete(value);
+    }
+  }
+
+  // Nanoseconds the response stays fresh, 0 to revalidate on every read, or -1 to not store it.
+  private long freshnessNanos(HttpResponse<byte[]> response) {
+    Long maxAge = null;
+    for (String header : response.headers().allValues("cache-control")) {
+      for (String directive : header.split(",")) {
+        String d = directive.trim().toLowerCase(Locale.ROOT);
+        if (d.equals("no-store")) {
+          return -1;
+        } else if (d.equals("no-cache")) {
+          maxAge = 0L;
+        } else if (d.startsWith("max-age=") && maxAge == null) {
+          maxAge = seconds(d.substring("max-age=".length()));
+        }
+      }
+    }
+    if (maxAge == null) {
+      return defaultFreshnessNanos;
+    }
+    long age = response.headers().firstValue("age").map(MetadataCache::seconds).orElse(0L);
+    return Duration.ofSeconds(Math.max(0, maxAge - age)).toNanos();
+  }
+
+  // An unparseable delta counts as zero, i.e. stale, as RFC 9111 asks for.
+  private static long seconds(String delta) {
+    try {
+      return Long.parseLong(delta.trim().replace("\"", ""));
+    } catch (NumberFormatException e) {
+      return 0;
+    }
+  }
+
+  private static Map<String, Object> parseKeySet(HttpResponse<byte[]> response) {
+    if (!Http.is2xx(response.statusCode())) {
+      throw new HydraFlowException(
+          "Fetching the JSON Web Key Set failed (HTTP "
+              + response.statusCode()
+              + "): "
+              + Http.text(response));
+    }
+    try {
+      return Collections.unmodifiableMap(Json.parseObject(response.body()));
+    } catch (JsonParseException e) {
+      throw new HydraFlowException("Unparseable JSON Web Key Set: " + Http.text(response), e);
+    }
+  }
+
+  private static final class Entry {
+
+    // All guarded by the entries map.
+    private Object value;
+    private String etag;
+    private String lastModified;
+    private long expiresAt;
+    private CompletableFuture<Object> pending;
+  }
+}
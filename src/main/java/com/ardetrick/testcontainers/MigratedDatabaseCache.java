@@ -0,0 +1,82 @@
+package com.ardetrick.testcontainers;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Host-side cache of migrated SQLite database files, keyed by the Hydra image they were migrated
+ * with.
+ *
+ * <p>Migrating is deterministic for a given image, so the migrated file can be produced once and
+ * copied into every later container. Entries are written to a temporary file and moved into place,
+ * so concurrent JVMs (e.g. parallel Gradle test forks) racing on a cold cache each produce a
+ * complete file and the last move wins; within one JVM, misses for the same image are serialized so
+ * the migration runs once.
+ */
+final class MigratedDatabaseCache {
+
+  private static final Map<String, Object> LOCKS = new ConcurrentHashMap<>();
+
+  private final Path directory;
+
+  MigratedDatabaseCache(Path directory) {
+    this.directory = directory;
+  }
+
+  /** The cache shared by all containers on this host, under {@code java.io.tmpdir}. */
+  static MigratedDatabaseCache shared() {
+    return new MigratedDatabaseCache(
+        Path.of(System.getProperty("java.io.tmpdir"), "testcontainers-ory-hydra"));
+  }
+
+  /**
+   * Returns the cached database for the image, migrating (and caching) it on a miss.
+   *
+   * <p>Cache I/O failures never fail the caller: an unreadable entry is re-migrated, and an entry
+   * that cannot be written is simply not cached.
+   *
+   * @param imageId the image identifier (its content digest, e.g. {@code sha256:...})
+   * @param migrate produces the migrated database file contents on a miss
+   * @return the migrated database file contents
+   */
+  byte[] get(String imageId, Supplier<byte[]> migrate) {
+    Path file = directory.resolve(imageId.replace(':', '-') + ".sqlite");
+    synchronized (LOCKS.computeIfAbsent(file.toString(), key -> new Object())) {
+      byte[] cached = read(file);
+      if (cached != null) {
+        return cached;
+      }
+      byte[] database = migrate.get();
+      write(file, database);
+      return database;
+    }
+  }
+
+  private static byte[] read(Path file) {
+    try {
+      return Files.isRegularFile(file) ? Files.readAllBytes(file) : null;
+    } catch (IOException e) {
+      return null;
+    }
+  }
+
+  private void write(Path file, byte[] database) {
+    try {
+      Files.createDirectories(directory);
+      Path temp = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+      try {
+        Files.write(temp, database);
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      } finally {
+        Files.deleteIfExists(temp);
+      }
+    } catch (IOException e) {
+      // Not cached; the next start migrates again.
+    }
+  }
+}
@@ -0,0 +1,77 @@
+package com.ardetrick.testcontainers;
+
+import com.ardetrick.testcontainers.FlowResult.TokenResponse;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * The outcome of a {@link TokenMinter} batch: one item per subject, in subject order, and how long
+ * the batch took.
+ *
+ * @param items the per-subject outcomes, in the order the subjects were given
+ * @param elapsed the wall-clock time of the batch, including the client registration
+ */
+public record MintedTokens(List<Item> items, Duration elapsed) {
+
+  /**
+   * The outcome of one subject's flow: either the flow's {@link FlowResult} — a token, or an OAuth
+   * error Hydra returned — or the failure that prevented the flow from completing.
+   *
+   * @param subject the subject the flow logged in
+   * @param result the flow's result, or {@code null} if it failed
+   * @param error why the flow could not be completed, or {@code null} if it produced a result
+   */
+  public record Item(String subject, FlowResult result, HydraFlowException error) {
+
+    /**
+     * Returns whether this subject's flow produced a token.
+     *
+     * @return {@code true} if {@link #result()} is a {@link TokenResponse}
+     */
+    public boolean succeeded() {
+      return result instanceof TokenResponse;
+    }
+
+    /**
+     * Returns the minted token.
+     *
+     * @return the token response
+     * @throws IllegalStateException if the flow did not produce a token
+     */
+    public TokenResponse token() {
+      if (result instanceof TokenResponse token) {
+        return token;
+      }
+      throw new IllegalStateException(
+          "No token was minted for '" + subject + "': " + (error != null ? error : result));
+    }
+  }
+
+  /**
+   * Returns the minted tokens, in subject order, skipping subjects whose flow did not produce one.
+   *
+   * @return the token responses
+   */
+  public List<TokenResponse> tokens() {
+    return items.stream().filter(Item::succeeded).map(Item::token).toList();
+  }
+
+  /**
+   * Returns the items whose flow did not produce a token — failed, or answered with an OAuth error.
+   *
+   * @return the unsuccessful items, in subject order
+   */
+  public List<Item> failures() {
+    return items.stream().filter(item -> !item.succeeded()).toList();
+  }
+
+  /**
+   * Returns the number of tokens minted per second over the whole batch.
+   *
+   * @return minted tokens divided by {@link #elapsed()} in seconds
+   */
+  public double tokensPerSecond() {
+    long nanos = elapsed.toNanos();
+    return nanos == 0 ? 0 : tokens().size() * 1_000_000_000.0 / nanos;
+  }
+}
@@ -1,10 +1,12 @@
 package com.ardetrick.testcontainers;
 
 import java.net.URI;
-import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Registers OAuth 2.0 clients for test setup.
@@ -15,64 +17,216 @@ import java.util.Map;
  */
 final class OAuth2Clients {
 
+  // Hydra's maximum page size for client listings.
+  private static final int PAGE_SIZE = 500;
+  // Client writes are CPU-bound inside Hydra (secret hashing), so more parallelism than this only
+  // queues there.
+  private static final int MAX_PARALLEL_REGISTRATIONS = 8;
+  // Deletions hash nothing, but each still takes a database write lock inside Hydra.
+  private static final int MAX_PARALLEL_DELETIONS = 8;
+
   private OAuth2Clients() {}
 
   /**
    * Creates the client, or replaces the existing client with the same {@code client_id} — an
    * upsert, so declared fixtures are idempotent across container restarts and reuse.
    *
+   * @param http the transport to send the requests with
    * @param adminBaseUri the admin API base URI
    * @param registration Hydra client JSON as a map (nested values allowed); must contain {@code
    *     client_id}
    * @throws HydraFlowException if {@code client_id} is missing or the request fails
    */
-  public static void createOrReplace(URI adminBaseUri, Map<String, Object> registration) {
+  static void createOrReplace(
+      HttpTransport http, URI adminBaseUri, Map<String, Object> registration) {
+    Http.await(createOrReplaceAsync(http, adminBaseUri, registration));
+  }
+
+  /**
+   * Upserts the client like {@link #createOrReplace(HttpTransport, URI, Map)} without blocking.
+   *
+   * @return completes once the client exists; fails with a {@link HydraFlowException} if {@code
+   *     client_id} is missing or a request fails
+   */
+  static CompletableFuture<Void> createOrReplaceAsync(
+      HttpTransport http, URI adminBaseUri, Map<String, Object> registration) {
     Object clientId = registration.get("client_id");
     if (clientId == null) {
-      throw new HydraFlowException(
-          "client registration requires a client_id so it can be upserted deterministically");
+      return CompletableFuture.failedFuture(
+          new HydraFlowException(
+              "client registration requires a client_id so it can be upserted deterministically"));
     }
-    HttpClient http = HttpClient.newHttpClient();
-    String body = JsonWriter.write(registration);
+    byte[] body = JsonWriter.write(registration);
 
-    HttpResponse<String> created =
-        Http.send(
-            http,
+    return http.sendAsync(
             HttpRequest.newBuilder(adminBaseUri.resolve("/admin/clients"))
                 .header("Content-Type", "application/json")
                 .header("Accept", "application/json")
-                .POST(HttpRequest.BodyPublishers.ofString(body))
-                .build());
-    if (Http.is2xx(created.statusCode())) {
-      return;
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body))
+                .build())
+        .thenCompose(
+            created -> {
+              if (Http.is2xx(created.statusCode())) {
+                return CompletableFuture.completedFuture(null);
+              }
+              if (created.statusCode() != 409) {
+                throw new HydraFlowException(
+                    "Failed to create OAuth2 client '"
+                        + clientId
+                        + "' (HTTP "
+                        + created.statusCode()
+                        + "): "
+                        + Http.text(created));
+              }
+              return http.sendAsync(
+                      HttpRequest.newBuilder(
+                              adminBaseUri.resolve(
+                                  "/admin/clients/" + Http.encode(clientId.toString())))
+                          .header("Content-Type", "application/json")
+                          .header("Accept", "application/json")
+                          .PUT(HttpRequest.BodyPublishers.ofByteArray(body))
+                          .build())
+                  .thenAccept(
+                      replaced -> {
+                        if (!Http.is2xx(replaced.statusCode())) {
+                          throw new HydraFlowException(
+                              "Failed to replace OAuth2 client '"
+                                  + clientId
+                                  + "' (HTTP "
+                                  + replaced.statusCode()
+                                  + "): "
+                                  + Http.text(replaced));
+                        }
+                      });
+            });
+  }
+
+  /**
+   * Upserts every registration like {@link #createOrReplace(HttpTransport, URI, Map)}, concurrently
+   * with bounded parallelism over the transport's connection pool.
+   *
+   * <p>Every registration is attempted even if some fail; the failures are then reported together
+   * in one exception, each attached as a suppressed exception.
+   *
+   * @param http the transport to send the requests with
+   * @param adminBaseUri the admin API base URI
+   * @param registrations Hydra client JSON maps, each containing {@code client_id}
+   * @throws HydraFlowException if any registration fails, or the calling thread is interrupted
+   */
+  static void createOrReplaceAll(
+      HttpTransport http, URI adminBaseUri, List<Map<String, Object>> registrations) {
+    Http.inLanes(
+        registrations,
+        MAX_PARALLEL_REGISTRATIONS,
+        registration -> createOrReplaceAsync(http, adminBaseUri, registration),
+        "client registrations");
+  }
+
+  /**
+   * Deletes every registered client, after revoking the tokens issued to it — the admin-API half of
+   * resetting a container to its post-start state. Deleting a client also removes its login and
+   * consent flows.
+   *
+   * <p>Clients are deleted concurrently with bounded parallelism, like {@link
+   * #createOrReplaceAll(HttpTransport, URI, List)}; every client is attempted even if some fail.
+   *
+   * @param http the transport to send the requests with
+   * @param adminBaseUri the admin API base URI
+   * @return the number of clients deleted
+   * @throws HydraFlowException if a request fails
+   */
+  static int deleteAll(HttpTransport http, URI adminBaseUri) {
+    List<String> clientIds = listClientIds(http, adminBaseUri);
+    Http.inLanes(
+        clientIds,
+        MAX_PARALLEL_DELETIONS,
+        clientId -> deleteAsync(http, adminBaseUri, clientId),
+        "client deletions");
+    return clientIds.size();
+  }
+
+  /**
+   * Deletes one client with the tokens issued to it. A client that does not exist counts as
+   * deleted.
+   *
+   * @param http the transport to send the requests with
+   * @param adminBaseUri the admin API base URI
+   * @param clientId the client to delete
+   * @throws HydraFlowException if a request fails
+   */
+  static void delete(HttpTransport http, URI adminBaseUri, String clientId) {
+    Http.await(deleteAsync(http, adminBaseUri, clientId));
+  }
+
+  private static CompletableFuture<Void> deleteAsync(
+      HttpTransport http, URI adminBaseUri, String clientId) {
+    String encoded = Http.encode(clientId);
+    return sendDelete(
+            http, adminBaseUri.resolve("/admin/oauth2/tokens?client_id=" + encoded), clientId)
+        .thenCompose(
+            ignored ->
+                sendDelete(http, adminBaseUri.resolve("/admin/clients/" + encoded), clientId));
+  }
+
+  private static List<String> listClientIds(HttpTransport http, URI adminBaseUri) {
+    List<String> clientIds = new ArrayList<>();
+    URI page = adminBaseUri.resolve("/admin/clients?page_size=" + PAGE_SIZE);
+    while (page != null) {
+      HttpResponse<byte[]> response =
+          http.send(HttpRequest.newBuilder(page).header("Accept", "application/json").build());
+      if (!Http.is2xx(response.statusCode())) {
+        throw new HydraFlowException(
+            "Failed to list OAuth2 clients (HTTP "
+                + response.statusCode()
+                + "): "
+                + Http.text(response));
+      }
+      List<Object> clients;
+      try {
+        clients = Json.parseArray(response.body());
+      } catch (JsonParseException e) {
+        throw new HydraFlowException("Unparseable client listing: " + Http.text(response), e);
+      }
+      for (Object client : clients) {
+        if (client instanceof Map<?, ?> map && map.get("client_id") != null) {
+          clientIds.add(map.get("client_id").toString());
+        }
+      }
+      page = clients.isEmpty() ? null : nextPage(response, adminBaseUri);
     }
-    if (created.statusCode() == 409) {
-      HttpResponse<String> replaced =
-          Http.send(
-              http,
-              HttpRequest.newBuilder(
-                      adminBaseUri.resolve("/admin/clients/" + Http.encode(clientId.toString())))
-                  .header("Content-Type", "application/json")
-                  .header("Accept", "application/json")
-                  .PUT(HttpRequest.BodyPublishers.ofString(body))
-                  .build());
-      if (Http.is2xx(replaced.statusCode())) {
-        return;
+    return clientIds;
+  }
+
+  // Hydra paginates with RFC 8288 Link headers carrying an opaque page token. Only the query is
+  // taken from the link: its authority is whatever Hydra believes its own to be.
+  private static URI nextPage(HttpResponse<byte[]> response, URI adminBaseUri) {
+    for (String header : response.headers().allValues("link")) {
+      for (String link : header.split(",")) {
+        int start = link.indexOf('<');
+        int end = link.indexOf('>');
+        if (link.contains("rel=\"next\"") && start >= 0 && end > start) {
+          String query = URI.create(link.substring(start + 1, end)).getRawQuery();
+          return query == null ? null : adminBaseUri.resolve("/admin/clients?" + query);
+        }
       }
-      throw new HydraFlowException(
-          "Failed to replace OAuth2 client '"
-              + clientId
-              + "' (HTTP "
-              + replaced.statusCode()
-              + "): "
-              + replaced.body());
     }
-    throw new HydraFlowException(
-        "Failed to create OAuth2 client '"
-            + clientId
-            + "' (HTTP "
-            + created.statusCode()
-            + "): "
-            + created.body());
+    return null;
+  }
+
+  // A 404 means someone else already deleted it, which is the state we want.
+  private static CompletableFuture<Void> sendDelete(HttpTransport http, URI uri, String clientId) {
+    return http.sendAsync(HttpRequest.newBuilder(uri).DELETE().build())
+        .thenAccept(
+            response -> {
+              if (!Http.is2xx(response.statusCode()) && response.statusCode() != 404) {
+                throw new HydraFlowException(
+                    "Failed to delete OAuth2 client '"
+                        + clientId
+                        + "' or its tokens (HTTP "
+                        + response.statusCode()
+                        + "): "
+                        + Http.text(response));
+              }
+            });
   }
 }
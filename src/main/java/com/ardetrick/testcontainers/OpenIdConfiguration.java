@@ -1,11 +1,11 @@
 package com.ardetrick.testcontainers;
 
 import java.net.URI;
-import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.util.Collections;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * The OpenID Connect discovery document, fetched from {@code /.well-known/openid-configuration} and
@@ -44,25 +44,31 @@ public record OpenIdConfiguration(
    * @throws HydraFlowException if the request cannot be completed or the response cannot be parsed
    */
   public static OpenIdConfiguration fetch(URI publicBaseUri) {
-    HttpResponse<String> response =
-        Http.send(
-            HttpClient.newHttpClient(),
+    return Http.await(fetchAsync(HttpTransport.shared(), publicBaseUri));
+  }
+
+  static CompletableFuture<OpenIdConfiguration> fetchAsync(HttpTransport http, URI publicBaseUri) {
+    return http.sendAsync(
             HttpRequest.newBuilder(publicBaseUri.resolve("/.well-known/openid-configuration"))
                 .header("Accept", "application/json")
                 .GET()
-                .build());
+                .build())
+        .thenApply(response -> parse(response, publicBaseUri));
+  }
+
+  static OpenIdConfiguration parse(HttpResponse<byte[]> response, URI publicBaseUri) {
     if (!Http.is2xx(response.statusCode())) {
       throw new HydraFlowException(
           "Fetching the discovery document failed (HTTP "
               + response.statusCode()
               + "): "
-              + response.body());
+              + Http.text(response));
     }
     Map<String, Object> json;
     try {
       json = Json.parseObject(response.body());
     } catch (JsonParseException e) {
-      throw new HydraFlowException("Unparseable discovery document: " + response.body(), e);
+      throw new HydraFlowException("Unparseable discovery document: " + Http.text(response), e);
     }
     return new OpenIdConfiguration(
         string(json, "issuer"),
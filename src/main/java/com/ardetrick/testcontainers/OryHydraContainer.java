@@ -2,7 +2,12 @@ package com.ardetrick.testcontainers;
 
 import com.github.dockerjava.api.command.InspectContainerResponse;
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Clock;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -10,10 +15,29 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
+import java.util.function.Supplier;
+import org.testcontainers.containers.Container.ExecResult;
+import org.testcontainers.containers.ContainerLaunchException;
 import org.testcontainers.containers.GenericContainer;
-import org.testcontainers.containers.wait.strategy.Wait;
+import org.testcontainers.containers.startupcheck.OneShotStartupCheckStrategy;
 import org.testcontainers.containers.wait.strategy.WaitStrategy;
+import org.testcontainers.containers.wait.strategy.WaitStrategyTarget;
+import org.testcontainers.images.builder.Transferable;
 import org.testcontainers.utility.DockerImageName;
 
 /**
@@ -21,24 +45,24 @@ import org.testcontainers.utility.DockerImageName;
  * methods for the most common endpoints.
  *
  * <p>Runs database migration and the Hydra server in a single container using a compound command.
- * Defaults to an in-container SQLite database, so no external database is required.
+ * Defaults to an in-container SQLite database, so no external database is required. With {@link
+ * Builder#migrationCache(boolean)}, the migration runs once per image and every container starts
+ * from a copy of the migrated database instead.
  */
 public class OryHydraContainer extends GenericContainer<OryHydraContainer> {
 
   static final int HYDRA_ADMIN_PORT = 4445;
   static final int HYDRA_PUBLIC_PORT = 4444;
   static final DockerImageName DEFAULT_IMAGE = DockerImageName.parse("oryd/hydra:v26.2.0");
-  static final String DEFAULT_DSN = "sqlite:///tmp/db.sqlite?_fk=true";
+  static final String DEFAULT_SQLITE_PATH = "/tmp/db.sqlite";
+  static final String DEFAULT_DSN = "sqlite://" + DEFAULT_SQLITE_PATH + "?_fk=true";
   static final String DEFAULT_SECRETS_SYSTEM = "testcontainers-ory-hydra-secret";
   // Non-resolvable sentinels: the authorization-code flow intercepts the login/consent redirects by
   // their challenge query parameter, so these hosts are never actually contacted.
   static final String DEFAULT_URLS_LOGIN = "http://hydra-login.invalid/login";
   static final String DEFAULT_URLS_CONSENT = "http://hydra-consent.invalid/consent";
   static final WaitStrategy DEFAULT_WAIT_STRATEGY =
-      Wait.forHttp("/health/ready")
-          .forPort(HYDRA_ADMIN_PORT)
-          .forStatusCode(200)
-          .withStartupTimeout(Duration.ofSeconds(30));
+      new LogReadinessWaitStrategy(Duration.ofSeconds(30));
 
   /**
    * Creates a builder for configuring a Hydra container.
@@ -50,30 +74,266 @@ public class OryHydraContainer extends GenericContainer<OryHydraContainer> {
   }
 
   private final List<Map<String, Object>> declaredClients;
+  private final boolean migrationCache;
+  private final int httpConnections;
+  private final Executor httpExecutor;
+  private final TokenCache tokenCache;
+  private final Janitor janitor;
+  private final EphemeralClients ephemeralClients = new EphemeralClients();
+  private final MetadataCache metadata = new MetadataCache();
+  private final IntrospectionCache introspections = new IntrospectionCache();
+  private volatile StartupTimer startupTimer;
+  private volatile StartupTimings startupTimings;
+  private volatile HttpTransport transport;
 
   private OryHydraContainer(
       DockerImageName imageName,
       Map<String, String> env,
       WaitStrategy waitStrategy,
-      List<Map<String, Object>> declaredClients) {
+      List<Map<String, Object>> declaredClients,
+      boolean migrationCache,
+      int httpConnections,
+      Executor httpExecutor,
+      TokenCache tokenCache,
+      Janitor janitor) {
     super(imageName);
     this.declaredClients = declaredClients;
+    this.migrationCache = migrationCache;
+    this.httpConnections = httpConnections;
+    this.httpExecutor = httpExecutor;
+    this.tokenCache = tokenCache;
+    this.janitor = janitor;
     this.withEnv(env);
     this.withExposedPorts(HYDRA_ADMIN_PORT, HYDRA_PUBLIC_PORT);
-    // Override the image entrypoint so we can run migration before serving.
-    this.withCreateContainerCmdModifier(
-        cmd ->
-            cmd.withEntrypoint("sh", "-c", "hydra migrate sql -e --yes && hydra serve all --dev"));
+    // Override the image entrypoint so we can run migration before serving — unless the database
+    // is copied in already migrated (see configure()).
+    String command =
+        migrationCache
+            ? "hydra serve all --dev"
+            : "hydra migrate sql -e --yes && hydra serve all --dev";
+    this.withCreateContainerCmdModifier(cmd -> cmd.withEntrypoint("sh", "-c", command));
     this.waitingFor(waitStrategy);
+    this.withLogConsumer(
+        frame -> {
+          StartupTimer timer = startupTimer;
+          String line = frame.getUtf8String();
+          if (timer != null && line != null) {
+            timer.observeLog(line);
+          }
+        });
+  }
+
+  // Runs first in start(), before the container is created, so the copied database is in place
+  // when Hydra starts.
+  @Override
+  protected void configure() {
+    StartupTimer timer = StartupTimer.start();
+    startupTimer = timer;
+    transport = new HttpTransport(httpConnections, httpExecutor);
+    getDockerImageName(); // Resolves (pulls) the image, so that is timed on its own.
+    timer.imageResolved();
+    if (migrationCache) {
+      byte[] database = MigratedDatabaseCache.shared().get(imageId(), this::migrateDatabase);
+      // World-writable: the file is copied in as root, but Hydra runs as an unprivileged user.
+      withCopyToContainer(Transferable.of(database, 0666), DEFAULT_SQLITE_PATH);
+    }
+  }
+
+  // The image's content digest, so a re-pushed tag never reuses a database migrated by another
+  // Hydra version. Resolving the name pulls the image if needed.
+  private String imageId() {
+    return getDockerClient().inspectImageCmd(getDockerImageName()).exec().getId();
+  }
+
+  // Runs the migration alone in a throwaway container of the same image and copies the result out.
+  private byte[] migrateDatabase() {
+    try (GenericContainer<?> migration =
+        new GenericContainer<>(DockerImageName.parse(getDockerImageName()))
+            .withEnv("DSN", DEFAULT_DSN)
+            .withCreateContainerCmdModifier(
+                cmd -> cmd.withEntrypoint("hydra", "migrate", "sql", "-e", "--yes"))
+            .withStartupCheckStrategy(
+                new OneShotStartupCheckStrategy().withTimeout(Duration.ofSeconds(60)))) {
+      migration.start();
+      return migration.copyFileFromContainer(DEFAULT_SQLITE_PATH, InputStream::readAllBytes);
+    }
+  }
+
+  // Marks the end of container creation for StartupTimings.
+  @Override
+  protected void containerIsStarting(InspectContainerResponse containerInfo) {
+    startupTimer.containerStarted();
   }
 
   // Runs after the wait strategy: the admin API is ready, so declared client fixtures exist
   // before start() returns — including for containers shared across test classes.
   @Override
   protected void containerIsStarted(InspectContainerResponse containerInfo) {
-    for (Map<String, Object> registration : declaredClients) {
-      OAuth2Clients.createOrReplace(URI.create(adminBaseUriString()), registration);
+    StartupTimer timer = startupTimer;
+    timer.ready();
+    registerDeclaredClients();
+    startupTimings = timer.finish();
+    HttpTransport current = transport;
+    janitor.start(this::clean, () -> current.stats().requests());
+  }
+
+  // Runs while the admin API is still up. The ephemeral clients would only outlive the container in
+  // an external database (see Builder#dsn), but stop() must not fail over them either way.
+  @Override
+  protected void containerIsStopping(InspectContainerResponse containerInfo) {
+    janitor.stop();
+    HttpTransport current = transport;
+    if (current == null) {
+      return;
+    }
+    try {
+      ephemeralClients.deleteAll(current);
+    } catch (HydraFlowException e) {
+      ephemeralClients.clear();
+    }
+  }
+
+  @Override
+  protected void containerIsStopped(InspectContainerResponse containerInfo) {
+    HttpTransport current = transport;
+    if (current != null) {
+      current.close();
+    }
+    tokenCache.clear();
+    introspections.clear();
+    // A restart maps new ports and may change the configuration.
+    metadata.invalidate();
+  }
+
+  /**
+   * Returns how long each phase of the latest start took — image resolution, container creation,
+   * migration, Hydra's server start-up, readiness detection, and fixture registration — for logging
+   * or alerting on start-up regressions per phase.
+   *
+   * @return the timings of the latest completed start
+   * @throws IllegalStateException if the container has not completed a start yet
+   */
+  public StartupTimings startupTimings() {
+    StartupTimings timings = startupTimings;
+    if (timings == null) {
+      throw new IllegalStateException("startupTimings are available once start() has returned");
+    }
+    return timings;
+  }
+
+  /**
+   * Returns request and connection counts of the HTTP transport that this container's flows and
+   * helpers share — to check that a load test reuses connections instead of opening one per
+   * request.
+   *
+   * @return the counts since the latest start
+   * @throws IllegalStateException if the container has not been started yet
+   */
+  public HttpTransportStats httpStats() {
+    return transport().stats();
+  }
+
+  /**
+   * Returns hit, miss, and coalesced-request counts of the token cache that this container's {@link
+   * ClientCredentialsFlow#cached(boolean) cached} client-credentials flows share.
+   *
+   * @return the counts since the container was built
+   */
+  public TokenCacheStats tokenCacheStats() {
+    return tokenCache.stats();
+  }
+
+  /**
+   * Cleans up the running container's database now: runs {@code hydra janitor} inside the container
+   * to delete expired tokens, login and consent requests that were never completed or have expired,
+   * and expired trust grants; then deletes the ephemeral clients no flow has used since the
+   * previous run, with their tokens. A run {@linkplain Builder#janitorInterval scheduled} meanwhile
+   * waits for this one.
+   *
+   * <p>Hydra's lifespans decide what has expired, including any {@code TTL_*} values set via {@link
+   * Builder#env(String, String)}.
+   *
+   * @return what the run did and how long it took
+   * @throws IllegalStateException if the container is not running or {@code hydra janitor} fails
+   * @throws HydraFlowException if deleting a stale client fails
+   * @see #janitorStats()
+   */
+  public JanitorStats.Run runJanitor() {
+    HttpTransport current = transport();
+    return janitor.run(this::clean, JanitorStats.Trigger.MANUAL, () -> current.stats().requests());
+  }
+
+  /**
+   * Returns what the janitor has cleaned up so far, in runs scheduled by {@link
+   * Builder#janitorInterval} or {@link Builder#janitorRequestThreshold} and in calls of {@link
+   * #runJanitor()}.
+   *
+   * @return the counts since the container was built
+   */
+  public JanitorStats janitorStats() {
+    return janitor.stats();
+  }
+
+  private JanitorStats.Run clean(JanitorStats.Trigger trigger) {
+    long start = System.nanoTime();
+    ExecResult result;
+    try {
+      result =
+          execInContainer(
+              "hydra", "janitor", "--read-from-env", "--tokens", "--requests", "--grants");
+    } catch (IOException e) {
+      throw new IllegalStateException("Failed to run hydra janitor", e);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while running hydra janitor", e);
+    }
+    if (result.getExitCode() != 0) {
+      throw new IllegalStateException(
+          "hydra janitor failed (exit code " + result.getExitCode() + "): " + result.getStderr());
     }
+    long command = System.nanoTime() - start;
+    int deleted = ephemeralClients.deleteUnused(transport());
+    return new JanitorStats.Run(
+        trigger,
+        Duration.ofNanos(System.nanoTime() - start),
+        Duration.ofNanos(command),
+        deleted,
+        result.getStdout());
+  }
+
+  private HttpTransport transport() {
+    HttpTransport current = transport;
+    if (current == null) {
+      throw new IllegalStateException("the HTTP transport is available once start() is called");
+    }
+    return current;
+  }
+
+  private void registerDeclaredClients() {
+    OAuth2Clients.createOrReplaceAll(
+        transport(), URI.create(adminBaseUriString()), declaredClients);
+  }
+
+  /**
+   * Returns the running container to its post-start state without restarting it — a fraction of the
+   * cost of a new container, so one container can give every test method a clean Hydra.
+   *
+   * <p>Deletes every OAuth 2.0 client, concurrently, with the tokens issued to it and its login and
+   * consent flows; then re-registers the {@link Builder#client(Map) declared client fixtures}, and
+   * empties the token and introspection caches. Hydra's signing keys and configuration are kept.
+   * The flows of this container never remember a login, so they leave no sessions to revoke.
+   * Sessions that an external login app ({@link Builder#urlsLogin(String)}) remembered are not
+   * known to the container and are not revoked; their flows and consents go with the deleted
+   * clients.
+   *
+   * @throws HydraFlowException if an admin API request fails
+   */
+  public void reset() {
+    OAuth2Clients.deleteAll(transport(), URI.create(adminBaseUriString()));
+    ephemeralClients.clear();
+    tokenCache.clear();
+    introspections.clear();
+    registerDeclaredClients();
   }
 
   /**
@@ -187,7 +447,7 @@ public class OryHydraContainer extends GenericContainer<OryHydraContainer> {
    * @param registration Hydra client JSON as a map, including {@code client_id}
    */
   public void createOrReplaceClient(Map<String, Object> registration) {
-    OAuth2Clients.createOrReplace(URI.create(adminBaseUriString()), registration);
+    OAuth2Clients.createOrReplace(transport(), URI.create(adminBaseUriString()), registration);
   }
 
   /**
@@ -211,17 +471,52 @@ public class OryHydraContainer extends GenericContainer<OryHydraContainer> {
     createOrReplaceClient(registration.toMap());
   }
 
+  /**
+   * Upserts an OAuth 2.0 client like {@link #createOrReplaceClient(Map)} without blocking the
+   * calling thread.
+   *
+   * @param registration Hydra client JSON as a map, including {@code client_id}
+   * @return completes once the client exists; fails with a {@link HydraFlowException} if {@code
+   *     client_id} is missing or a request fails
+   */
+  public CompletableFuture<Void> createOrReplaceClientAsync(Map<String, Object> registration) {
+    return OAuth2Clients.createOrReplaceAsync(
+        transport(), URI.create(adminBaseUriString()), registration);
+  }
+
+  /**
+   * Upserts an OAuth 2.0 client like {@link #createOrReplaceClient(Consumer)} without blocking the
+   * calling thread.
+   *
+   * @param customizer receives a fresh {@link OAuth2ClientRegistration} to populate; must set
+   *     {@code client_id}
+   * @return completes once the client exists; fails with a {@link HydraFlowException} if {@code
+   *     client_id} is missing or a request fails
+   */
+  public CompletableFuture<Void> createOrReplaceClientAsync(
+      Consumer<OAuth2ClientRegistration> customizer) {
+    Objects.requireNonNull(customizer, "customizer must not be null");
+    OAuth2ClientRegistration registration = OAuth2ClientRegistration.create();
+    customizer.accept(registration);
+    return createOrReplaceClientAsync(registration.toMap());
+  }
+
   /**
    * Starts a fluent client-credentials flow (RFC 6749 §4.4) against this container.
    *
    * <p>The grant has no end-user, so a successful result never carries an ID token or refresh
-   * token. If no client is supplied, an ephemeral one is created for the request.
+   * token. If no client is supplied, an ephemeral one is registered; this container's flows with
+   * the same scopes share it until {@link #reset()} or stop, when it is deleted.
    *
    * @return a new {@link ClientCredentialsFlow} bound to this container's endpoints
    */
   public ClientCredentialsFlow clientCredentialsFlow() {
     return new ClientCredentialsFlow(
-        URI.create(publicBaseUriString()), URI.create(adminBaseUriString()));
+        URI.create(publicBaseUriString()),
+        URI.create(adminBaseUriString()),
+        transport(),
+        tokenCache,
+        ephemeralClients);
   }
 
   /**
@@ -234,11 +529,45 @@ public class OryHydraContainer extends GenericContainer<OryHydraContainer> {
    * sentinels by default) are never contacted — the flow also works when they are overridden via
    * {@link Builder#urlsLogin(String)} / {@link Builder#urlsConsent(String)}.
    *
+   * <p>Without a supplied client, flows with the same redirect URI, scopes, audience, and client
+   * type share one ephemeral client, deleted on {@link #reset()} or stop.
+   *
    * @return a new {@link AuthorizationCodeFlow} bound to this container's endpoints
    */
   public AuthorizationCodeFlow authorizationCodeFlow() {
     return new AuthorizationCodeFlow(
-        URI.create(publicBaseUriString()), URI.create(adminBaseUriString()));
+        URI.create(publicBaseUriString()),
+        URI.create(adminBaseUriString()),
+        transport(),
+        ephemeralClients,
+        metadata);
+  }
+
+  /**
+   * Starts a bulk minter that runs an authorization-code flow per subject against this container,
+   * sharing one ephemeral client and this container's HTTP transport across all of them.
+   *
+   * @return a new {@link TokenMinter} bound to this container's endpoints
+   */
+  public TokenMinter tokenMinter() {
+    return new TokenMinter(
+        URI.create(publicBaseUriString()),
+        URI.create(adminBaseUriString()),
+        transport(),
+        ephemeralClients,
+        metadata);
+  }
+
+  /**
+   * Starts a load generator that drives client-credentials, authorization-code, refresh, and
+   * introspection traffic against this container and reports latency percentiles per operation —
+   * for load tests that need Hydra as a realistic backend.
+   *
+   * @return a new {@link LoadGenerator} bound to this container's endpoints and HTTP transport
+   */
+  public LoadGenerator loadGenerator() {
+    return new LoadGenerator(
+        this::clientCredentialsFlow, this::authorizationCodeFlow, this::introspectAsync);
   }
 
   /**
@@ -248,10 +577,44 @@ public class OryHydraContainer extends GenericContainer<OryHydraContainer> {
    * advertises Hydra's configured issuer, which cannot know the mapped port), so values like {@link
    * OpenIdConfiguration#jwksUri()} are directly usable from the test.
    *
+   * <p>The document is cached with the JSON Web Key Set, honoring Hydra's {@code Cache-Control} and
+   * {@code ETag} headers, and shared with this container's flows; see {@link
+   * #invalidateMetadata()}.
+   *
    * @return the parsed discovery document
    */
   public OpenIdConfiguration openIdConfiguration() {
-    return OpenIdConfiguration.fetch(URI.create(publicBaseUriString()));
+    return Http.await(metadata.openIdConfiguration(transport(), URI.create(publicBaseUriString())));
+  }
+
+  /**
+   * Discards the cached discovery document and JSON Web Key Set, so the next flow or {@link
+   * #openIdConfiguration()} call fetches them afresh — e.g. after reconfiguring Hydra's issuer or
+   * rotating its signing keys through the admin API. Stopping the container discards them too.
+   */
+  public void invalidateMetadata() {
+    metadata.invalidate();
+  }
+
+  /**
+   * Creates a verifier that checks JWTs signed by this container — ID tokens, and access tokens
+   * when Hydra runs with {@code STRATEGIES_ACCESS_TOKEN=jwt} — in-process, against the JSON Web Key
+   * Set from this container's metadata cache, instead of introspecting each token.
+   *
+   * @return a new {@link JwtVerifier} expecting the issuer this container advertises
+   * @throws HydraFlowException if the discovery document cannot be fetched
+   */
+  public JwtVerifier jwtVerifier() {
+    URI publicBaseUri = URI.create(publicBaseUriString());
+    HttpTransport http = transport();
+    return new JwtVerifier(
+        openIdConfiguration().issuer(),
+        refresh ->
+            Http.await(
+                refresh
+                    ? metadata.refreshJsonWebKeySet(http, publicBaseUri)
+                    : metadata.jsonWebKeySet(http, publicBaseUri)),
+        Clock.systemUTC());
   }
 
   /**
@@ -265,7 +628,28 @@ public class OryHydraContainer extends GenericContainer<OryHydraContainer> {
    * @return the introspection response; inactive or unknown tokens return {@code active == false}
    */
   public IntrospectionResponse introspect(String token) {
-    return IntrospectionResponse.request(URI.create(adminBaseUriString()), token);
+    return Http.await(introspectAsync(token));
+  }
+
+  /**
+   * Introspects a token like {@link #introspect(String)} without blocking the calling thread.
+   *
+   * @param token the access or refresh token to introspect
+   * @return completes with the introspection response; fails with a {@link HydraFlowException} if
+   *     the request cannot be completed or the response cannot be parsed
+   */
+  public CompletableFuture<IntrospectionResponse> introspectAsync(String token) {
+    return IntrospectionResponse.requestAsync(transport(), URI.create(adminBaseUriString()), token);
+  }
+
+  /**
+   * Starts a batch introspector that introspects many tokens with bounded concurrency on this
+   * container's HTTP transport, optionally answering repeats from a cache its introspectors share.
+   *
+   * @return a new {@link TokenIntrospector} bound to this container's admin endpoint
+   */
+  public TokenIntrospector tokenIntrospector() {
+    return new TokenIntrospector(this::introspectAsync, introspections);
   }
 
   /**
@@ -409,6 +793,109 @@ public class OryHydraContainer extends GenericContainer<OryHydraContainer> {
     return URI.create(adminBaseUriString() + "/admin/oauth2/auth/requests/consent");
   }
 
+  /**
+   * The default wait strategy: releases as soon as Hydra's log output reports both the public and
+   * admin listeners set up, confirmed by a single {@code /health/ready} probe on the admin port —
+   * instead of polling the health endpoint on a fixed interval and noticing readiness up to one
+   * interval late.
+   *
+   * <p>Until the listeners are logged, the health endpoint is still probed every {@link
+   * #FALLBACK_PROBE_INTERVAL}, so an image whose log lines are not recognized starts as it would
+   * with polling. How long detection took after the listeners were up is reported as {@link
+   * StartupTimings#readinessWait()}, next to the listen time in {@link
+   * StartupTimings#serverStartup()}. Immutable, so the shared default instance is safe for
+   * containers starting concurrently.
+   */
+  private static final class LogReadinessWaitStrategy implements WaitStrategy {
+
+    private static final Duration FALLBACK_PROBE_INTERVAL = Duration.ofSeconds(1);
+    // Between listener set-up and a successful probe Hydra is normally ready at once; retries
+    // cover the rare case where it is not.
+    private static final Duration RETRY_INTERVAL = Duration.ofMillis(25);
+    private static final HttpClient PROBE_CLIENT =
+        HttpClient.newBuilder().connectTimeout(FALLBACK_PROBE_INTERVAL).build();
+
+    private final Duration startupTimeout;
+
+    private LogReadinessWaitStrategy(Duration startupTimeout) {
+      this.startupTimeout = startupTimeout;
+    }
+
+    @Override
+    public void waitUntilReady(WaitStrategyTarget target) {
+      StartupTimer timer = target instanceof OryHydraContainer hydra ? hydra.startupTimer : null;
+      CompletableFuture<Void> listening =
+          timer != null ? timer.listening() : new CompletableFuture<>();
+      URI health =
+          URI.create(
+              "http://"
+                  + target.getHost()
+                  + ":"
+                  + target.getMappedPort(HYDRA_ADMIN_PORT)
+                  + "/health/ready");
+      long deadline = System.nanoTime() + startupTimeout.toNanos();
+      while (true) {
+        long remaining = deadline - System.nanoTime();
+        if (remaining <= 0) {
+          throw new ContainerLaunchException(
+              "Timed out after "
+                  + startupTimeout
+                  + " waiting for Hydra to report ready on "
+                  + health);
+        }
+        boolean logged = await(listening, Math.min(remaining, FALLBACK_PROBE_INTERVAL.toNanos()));
+        if (isReady(health)) {
+          return;
+        }
+        if (logged) {
+          sleep(RETRY_INTERVAL);
+        }
+      }
+    }
+
+    @Override
+    public WaitStrategy withStartupTimeout(Duration startupTimeout) {
+      return new LogReadinessWaitStrategy(startupTimeout);
+    }
+
+    private static boolean await(CompletableFuture<Void> listening, long timeoutNanos) {
+      try {
+        listening.get(timeoutNanos, TimeUnit.NANOSECONDS);
+        return true;
+      } catch (TimeoutException | ExecutionException e) {
+        return false;
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new ContainerLaunchException("Interrupted while waiting for Hydra", e);
+      }
+    }
+
+    private static boolean isReady(URI health) {
+      try {
+        return PROBE_CLIENT
+                .send(
+                    HttpRequest.newBuilder(health).timeout(FALLBACK_PROBE_INTERVAL).build(),
+                    HttpResponse.BodyHandlers.discarding())
+                .statusCode()
+            == 200;
+      } catch (IOException e) {
+        return false;
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new ContainerLaunchException("Interrupted while waiting for Hydra", e);
+      }
+    }
+
+    private static void sleep(Duration duration) {
+      try {
+        Thread.sleep(duration.toMillis());
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new ContainerLaunchException("Interrupted while waiting for Hydra", e);
+      }
+    }
+  }
+
   /** Fluent builder for configuring the Hydra container. */
   public static class Builder {
 
@@ -416,6 +903,14 @@ public class OryHydraContainer extends GenericContainer<OryHydraContainer> {
     private Map<String, String> env = new HashMap<>();
     private WaitStrategy waitStrategy = DEFAULT_WAIT_STRATEGY;
     private final List<Map<String, Object>> clients = new ArrayList<>();
+    private boolean migrationCache = false;
+    private boolean fastSecretHashing = false;
+    private int httpConnections = HttpTransport.DEFAULT_MAX_CONNECTIONS;
+    private Executor httpExecutor;
+    private int tokenCacheSize = TokenCache.DEFAULT_MAX_ENTRIES;
+    private Duration tokenCacheSkew = TokenCache.DEFAULT_SKEW;
+    private Duration janitorInterval;
+    private long janitorRequestThreshold;
 
     /**
      * Creates an empty builder; configure it via the fluent setters before calling {@link
@@ -428,6 +923,23 @@ public class OryHydraContainer extends GenericContainer<OryHydraContainer> {
       env.put("URLS_CONSENT", DEFAULT_URLS_CONSENT);
     }
 
+    // Copies every option, so a pool's containers keep the configuration the builder had when the
+    // pool was created. A new option must be copied here too.
+    Builder(Builder other) {
+      this.image = other.image;
+      this.env = new HashMap<>(other.env);
+      this.waitStrategy = other.waitStrategy;
+      this.clients.addAll(other.clients);
+      this.migrationCache = other.migrationCache;
+      this.fastSecretHashing = other.fastSecretHashing;
+      this.httpConnections = other.httpConnections;
+      this.httpExecutor = other.httpExecutor;
+      this.tokenCacheSize = other.tokenCacheSize;
+      this.tokenCacheSkew = other.tokenCacheSkew;
+      this.janitorInterval = other.janitorInterval;
+      this.janitorRequestThreshold = other.janitorRequestThreshold;
+    }
+
     /**
      * Overrides the Docker image used for the Hydra container.
      *
@@ -609,6 +1121,156 @@ public class OryHydraContainer extends GenericContainer<OryHydraContainer> {
       return client(registration.toMap());
     }
 
+    /**
+     * Starts Hydra from a pre-migrated SQLite database instead of running {@code hydra migrate sql}
+     * on every start (default disabled).
+     *
+     * <p>The first container for a given image migrates once, in a short-lived container of the
+     * same image, and caches the resulting database file on the host under {@code java.io.tmpdir},
+     * keyed by the image's content digest. Every container — including those in other JVMs, such as
+     * parallel test forks — then starts from a copy of that file with {@code hydra serve all}
+     * alone. Requires the default SQLite {@link #dsn(String) DSN}.
+     *
+     * @param enabled whether to start from a cached, pre-migrated database
+     * @return this builder for chaining
+     */
+    public Builder migrationCache(boolean enabled) {
+      this.migrationCache = enabled;
+      return this;
+    }
+
+    /**
+     * Hashes client secrets with the cheapest setting Hydra accepts — PBKDF2 with a single
+     * iteration — instead of the production-strength default (default disabled).
+     *
+     * <p>Hydra hashes a client's secret when the client is registered and verifies it on every
+     * authenticated token endpoint request, so at production cost client registration and
+     * secret-authenticated token requests are CPU-bound inside the container. The hashes protect
+     * nothing in a test, so this setting trades that cost for throughput. Sets {@code
+     * OAUTH2_HASHERS_ALGORITHM} and {@code OAUTH2_HASHERS_PBKDF2_ITERATIONS}; values set explicitly
+     * via {@link #env(String, String)} take precedence.
+     *
+     * @param enabled whether to use minimum-cost secret hashing
+     * @return this builder for chaining
+     */
+    public Builder fastSecretHashing(boolean enabled) {
+      this.fastSecretHashing = enabled;
+      return this;
+    }
+
+    /**
+     * Sets how many requests the container's flows and helpers may have in flight at once, and so
+     * how many keep-alive connections their shared HTTP transport may open (default 32). Further
+     * requests wait for one to complete.
+     *
+     * @param maxConnections the maximum number of concurrent requests
+     * @return this builder for chaining
+     * @throws IllegalArgumentException if {@code maxConnections} is not positive
+     * @see OryHydraContainer#httpStats()
+     */
+    public Builder httpConnections(int maxConnections) {
+      if (maxConnections < 1) {
+        throw new IllegalArgumentException(
+            "httpConnections must be positive, was " + maxConnections);
+      }
+      this.httpConnections = maxConnections;
+      return this;
+    }
+
+    /**
+     * Sets the executor the shared HTTP transport runs its asynchronous tasks on (default: the JDK
+     * HTTP client's own thread pool). The executor is not shut down when the container stops.
+     *
+     * <p>The {@code *Async} methods complete on this executor, so callbacks attached to them must
+     * not block on another request: with a single thread, that would wait on itself.
+     *
+     * @param executor executor for the HTTP client's tasks
+     * @return this builder for chaining
+     */
+    public Builder httpExecutor(Executor executor) {
+      this.httpExecutor = Objects.requireNonNull(executor, "executor must not be null");
+      return this;
+    }
+
+    /**
+     * Sets how many client-credentials tokens the container's {@link
+     * ClientCredentialsFlow#cached(boolean) cached} flows keep, one per client, secret, and scope
+     * set (default 1024). The least recently used is evicted beyond that.
+     *
+     * @param maxEntries the maximum number of cached tokens
+     * @return this builder for chaining
+     * @throws IllegalArgumentException if {@code maxEntries} is not positive
+     */
+    public Builder tokenCacheSize(int maxEntries) {
+      if (maxEntries < 1) {
+        throw new IllegalArgumentException("tokenCacheSize must be positive, was " + maxEntries);
+      }
+      this.tokenCacheSize = maxEntries;
+      return this;
+    }
+
+    /**
+     * Sets how long before its {@code expires_in} a cached client-credentials token stops being
+     * handed out (default 30 seconds), so callers never receive a token about to expire. Tokens
+     * living no longer than the skew are not cached at all.
+     *
+     * @param skew the margin before expiry
+     * @return this builder for chaining
+     * @throws IllegalArgumentException if {@code skew} is negative
+     */
+    public Builder tokenCacheSkew(Duration skew) {
+      Objects.requireNonNull(skew, "skew must not be null");
+      if (skew.isNegative()) {
+        throw new IllegalArgumentException("tokenCacheSkew must not be negative, was " + skew);
+      }
+      this.tokenCacheSkew = skew;
+      return this;
+    }
+
+    /**
+     * Runs the janitor in the background at the given interval while the container is running
+     * (default: never) — for a container shared across a large suite, whose database otherwise
+     * keeps every expired token, abandoned login and consent request, and stale ephemeral client
+     * for the whole run.
+     *
+     * <p>Scheduled runs never overlap, and a failed run is counted in {@link
+     * OryHydraContainer#janitorStats()} without ending the schedule. A flow execution still in
+     * flight a whole interval after it started may find its ephemeral client deleted.
+     *
+     * @param interval the time between the end of one run and the start of the next
+     * @return this builder for chaining
+     * @throws IllegalArgumentException if {@code interval} is not positive
+     * @see OryHydraContainer#runJanitor()
+     */
+    public Builder janitorInterval(Duration interval) {
+      Objects.requireNonNull(interval, "interval must not be null");
+      if (interval.isNegative() || interval.isZero()) {
+        throw new IllegalArgumentException("janitorInterval must be positive, was " + interval);
+      }
+      this.janitorInterval = interval;
+      return this;
+    }
+
+    /**
+     * Runs the janitor in the background once the container's flows and helpers have sent the given
+     * number of requests since the previous run (default: never), checked once per second. Hydra
+     * does not report how many rows its tables hold, so the requests that write them stand in.
+     * Combines with {@link #janitorInterval(Duration)}: whichever is reached first starts a run.
+     *
+     * @param requests the number of requests that makes a run due
+     * @return this builder for chaining
+     * @throws IllegalArgumentException if {@code requests} is not positive
+     * @see OryHydraContainer#httpStats()
+     */
+    public Builder janitorRequestThreshold(long requests) {
+      if (requests < 1) {
+        throw new IllegalArgumentException(
+            "janitorRequestThreshold must be positive, was " + requests);
+      }
+      this.janitorRequestThreshold = requests;
+      return this;
+    }
+
     /**
      * Creates the configured Hydra container.
      *
@@ -617,9 +1279,299 @@ public class OryHydraContainer extends GenericContainer<OryHydraContainer> {
      * {@code @Testcontainers} and {@code @Container}).
      *
      * @return configured but not yet started {@link OryHydraContainer}
+     * @throws IllegalStateException if {@link #migrationCache(boolean)} is enabled with a
+     *     non-default DSN
      */
     public OryHydraContainer build() {
-      return new OryHydraContainer(image, new HashMap<>(env), waitStrategy, List.copyOf(clients));
+      validate();
+      Map<String, String> containerEnv = new HashMap<>(env);
+      if (fastSecretHashing) {
+        containerEnv.putIfAbsent("OAUTH2_HASHERS_ALGORITHM", "pbkdf2");
+        containerEnv.putIfAbsent("OAUTH2_HASHERS_PBKDF2_ITERATIONS", "1");
+      }
+      return new OryHydraContainer(
+          image,
+          containerEnv,
+          waitStrategy,
+          List.copyOf(clients),
+          migrationCache,
+          httpConnections,
+          httpExecutor,
+          new TokenCache(tokenCacheSize, tokenCacheSkew),
+          new Janitor(janitorInterval, janitorRequestThreshold));
+    }
+
+    /**
+     * Creates a pool of containers with this configuration, sized from the number of available
+     * processors (half of them, at least 1 and at most 4).
+     *
+     * @return a new pool whose containers start in the background
+     * @throws IllegalStateException if {@link #migrationCache(boolean)} is enabled with a
+     *     non-default DSN
+     * @see #pool(int)
+     */
+    public Pool pool() {
+      return pool(Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() / 2)));
     }
+
+    /**
+     * Creates a pool that keeps {@code size} started containers with this configuration ready to
+     * lease.
+     *
+     * <p>The pool captures the configuration at this point; later changes to this builder do not
+     * affect it. Its containers start in the background as soon as it is created. Combine with
+     * {@link #migrationCache(boolean)} so replacements start as fast as possible.
+     *
+     * <p>Each JVM gets its own pool, so a build running tests in several forks multiplies the
+     * number of running containers by the fork count; size accordingly.
+     *
+     * @param size number of containers to keep started
+     * @return a new pool whose containers start in the background
+     * @throws IllegalArgumentException if {@code size} is not positive
+     * @throws IllegalStateException if {@link #migrationCache(boolean)} is enabled with a
+     *     non-default DSN
+     */
+    public Pool pool(int size) {
+      if (size < 1) {
+        throw new IllegalArgumentException("pool size must be positive, was " + size);
+      }
+      validate();
+      Builder snapshot = new Builder(this);
+      return new Pool(snapshot::build, size);
+    }
+
+    private void validate() {
+      if (migrationCache && !DEFAULT_DSN.equals(env.get("DSN"))) {
+        throw new IllegalStateException(
+            "migrationCache requires the default SQLite DSN ("
+                + DEFAULT_DSN
+                + "): the cached database is a SQLite file copied into the container, so it"
+                + " cannot stand in for an external database.");
+      }
+    }
+  }
+
+  /**
+   * A pool of started Hydra containers sharing one configuration, for suites that want a fresh
+   * container per test without paying for a start per test.
+   *
+   * <p>The pool keeps its containers started in the background. {@link #lease()} hands one out
+   * immediately when one is ready; closing the returned {@link Lease} gives it back, and the pool
+   * {@link OryHydraContainer#reset() resets} it in the background before handing it out again — or
+   * replaces it with a freshly started one if the reset fails — so no lease ever sees state left by
+   * another. Closing the pool stops every container it started, leased or not.
+   *
+   * <pre>{@code
+   * static final OryHydraContainer.Pool POOL =
+   *     OryHydraContainer.builder().migrationCache(true).pool();
+   *
+   * @Test
+   * void test() {
+   *   try (var lease = POOL.lease()) {
+   *     OryHydraContainer hydra = lease.container();
+   *     // test logic
+   *   }
+   * }
+   * }</pre>
+   */
+  public static final class Pool implements AutoCloseable {
+
+    private static final Duration CLOSED_CHECK_INTERVAL = Duration.ofMillis(100);
+
+    private final Supplier<OryHydraContainer> factory;
+    private final int size;
+    private final BlockingQueue<Started> ready = new LinkedBlockingQueue<>();
+    private final Set<OryHydraContainer> containers = ConcurrentHashMap.newKeySet();
+    private final ExecutorService starter;
+    private final AtomicLong leases = new AtomicLong();
+    private final AtomicLong emptyPoolLeases = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private volatile boolean closed;
+
+    private Pool(Supplier<OryHydraContainer> factory, int size) {
+      this.factory = factory;
+      this.size = size;
+      AtomicInteger threads = new AtomicInteger();
+      this.starter =
+          Executors.newFixedThreadPool(
+              size,
+              runnable -> {
+                Thread thread = new Thread(runnable, "ory-hydra-pool-" + threads.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+              });
+      for (int i = 0; i < size; i++) {
+        starter.execute(this::startOne);
+      }
+    }
+
+    /**
+     * Leases a started container, waiting for one to become ready if none is.
+     *
+     * @return the lease; close it to give the container back
+     * @throws IllegalStateException if the pool is closed, the waiting thread is interrupted, or
+     *     the container being waited for failed to start (the pool starts a replacement)
+     */
+    public Lease lease() {
+      ensureOpen();
+      leases.incrementAndGet();
+      Started started = ready.poll();
+      if (started == null) {
+        emptyPoolLeases.incrementAndGet();
+        long waitStart = System.nanoTime();
+        started = await();
+        long waited = System.nanoTime() - waitStart;
+        totalWaitNanos.addAndGet(waited);
+        maxWaitNanos.accumulateAndGet(waited, Math::max);
+      }
+      if (started.failure() != null) {
+        starter.execute(this::startOne);
+        throw new IllegalStateException("Pooled container failed to start", started.failure());
+      }
+      return new Lease(this, started.container());
+    }
+
+    /**
+     * Returns lease statistics since the pool was created.
+     *
+     * @return a snapshot of the pool's statistics
+     */
+    public Stats stats() {
+      return new Stats(
+          size,
+          ready.size(),
+          leases.get(),
+          emptyPoolLeases.get(),
+          Duration.ofNanos(totalWaitNanos.get()),
+          Duration.ofNanos(maxWaitNanos.get()));
+    }
+
+    /** Stops every container started by this pool, including leased ones. */
+    @Override
+    public void close() {
+      closed = true;
+      starter.shutdownNow();
+      containers.forEach(OryHydraContainer::stop);
+      containers.clear();
+      ready.clear();
+    }
+
+    private Started await() {
+      try {
+        Started started;
+        do {
+          ensureOpen();
+          started = ready.poll(CLOSED_CHECK_INTERVAL.toMillis(), TimeUnit.MILLISECONDS);
+        } while (started == null);
+        return started;
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new IllegalStateException("Interrupted while waiting for a pooled container", e);
+      }
+    }
+
+    private void startOne() {
+      if (closed) {
+        return;
+      }
+      OryHydraContainer container = factory.get();
+      containers.add(container);
+      try {
+        container.start();
+        if (closed) {
+          // Closed while starting: close() may have run before this container was running.
+          container.stop();
+          return;
+        }
+        ready.add(new Started(container, null));
+      } catch (RuntimeException e) {
+        containers.remove(container);
+        container.stop();
+        ready.add(new Started(null, e));
+      }
+    }
+
+    private void giveBack(OryHydraContainer container) {
+      if (closed) {
+        return;
+      }
+      starter.execute(
+          () -> {
+            try {
+              container.reset();
+              if (closed) {
+                container.stop();
+                return;
+              }
+              ready.add(new Started(container, null));
+            } catch (RuntimeException e) {
+              containers.remove(container);
+              container.stop();
+              startOne();
+            }
+          });
+    }
+
+    private void ensureOpen() {
+      if (closed) {
+        throw new IllegalStateException("pool is closed");
+      }
+    }
+
+    private record Started(OryHydraContainer container, RuntimeException failure) {}
+
+    /**
+     * A container leased from a {@link Pool}; closing the lease gives the container back.
+     *
+     * <p>The container must not be used after the lease is closed. Closing more than once has no
+     * further effect.
+     */
+    public static final class Lease implements AutoCloseable {
+
+      private final Pool pool;
+      private final OryHydraContainer container;
+      private final AtomicBoolean returned = new AtomicBoolean();
+
+      private Lease(Pool pool, OryHydraContainer container) {
+        this.pool = pool;
+        this.container = container;
+      }
+
+      /**
+       * Returns the leased, started container.
+       *
+       * @return the leased container
+       */
+      public OryHydraContainer container() {
+        return container;
+      }
+
+      /** Gives the container back to the pool. */
+      @Override
+      public void close() {
+        if (returned.compareAndSet(false, true)) {
+          pool.giveBack(container);
+        }
+      }
+    }
+
+    /**
+     * Lease statistics of a {@link Pool}.
+     *
+     * @param size the number of containers the pool keeps started
+     * @param ready the number of started containers currently waiting to be leased
+     * @param leases the number of leases requested
+     * @param emptyPoolLeases the number of leases that found no ready container and had to wait
+     * @param totalWait the time leases spent waiting, summed
+     * @param maxWait the longest time a single lease waited
+     */
+    public record Stats(
+        int size,
+        int ready,
+        long leases,
+        long emptyPoolLeases,
+        Duration totalWait,
+        Duration maxWait) {}
   }
 }
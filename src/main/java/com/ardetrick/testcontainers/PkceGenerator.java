@@ -0,0 +1,134 @@
+package com.ardetrick.testcontainers;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Generates the {@code state} and PKCE code verifier and S256 challenge of each authorization-code
+ * flow execution.
+ *
+ * <p>Each thread keeps its own DRBG and SHA-256 digest, so concurrent executions neither contend on
+ * one entropy source nor look up a provider per execution. Generated values are also kept in a pool
+ * that a background task refills once it is half empty: an execution usually takes ready-made
+ * values, and generates its own only when bulk minting drains the pool faster than it refills.
+ */
+final class PkceGenerator {
+
+  static final int DEFAULT_POOL_SIZE = 256;
+  // 86 characters once encoded, within the 43 to 128 that RFC 7636 allows.
+  private static final int VERIFIER_BYTES = 64;
+  private static final int STATE_BYTES = 16;
+  private static final Base64.Encoder BASE64URL = Base64.getUrlEncoder().withoutPadding();
+  private static final ThreadLocal<SecureRandom> RANDOM =
+      ThreadLocal.withInitial(() -> instance(() -> SecureRandom.getInstance("DRBG"), "DRBG"));
+  private static final ThreadLocal<MessageDigest> SHA256 =
+      ThreadLocal.withInitial(
+          () -> instance(() -> MessageDigest.getInstance("SHA-256"), "SHA-256"));
+  private static final PkceGenerator SHARED =
+      new PkceGenerator(DEFAULT_POOL_SIZE, ForkJoinPool.commonPool());
+
+  private final ArrayBlockingQueue<Secrets> pool;
+  private final int refillBelow;
+  private final Executor refiller;
+  private final AtomicBoolean refilling = new AtomicBoolean();
+
+  PkceGenerator(int poolSize, Executor refiller) {
+    this.pool = new ArrayBlockingQueue<>(poolSize);
+    this.refillBelow = poolSize / 2;
+    this.refiller = refiller;
+  }
+
+  /** The generator every flow in this JVM shares; its pool is filled on first use. */
+  static PkceGenerator shared() {
+    return SHARED;
+  }
+
+  /**
+   * Returns values no other caller receives.
+   *
+   * @return a pooled set of values, or one generated on the calling thread if the pool is empty
+   */
+  Secrets next() {
+    Secrets pooled = pool.poll();
+    if (pool.size() < refillBelow) {
+      refill();
+    }
+    return pooled != null ? pooled : generate();
+  }
+
+  /** Returns the number of pregenerated values ready to be taken. */
+  int pooled() {
+    return pool.size();
+  }
+
+  /**
+   * Returns the S256 code challenge for a code verifier.
+   *
+   * @param verifier the code verifier
+   * @return the base64url-encoded SHA-256 hash of the verifier
+   */
+  static String challenge(String verifier) {
+    return BASE64URL.encodeToString(
+        SHA256.get().digest(verifier.getBytes(StandardCharsets.US_ASCII)));
+  }
+
+  static Secrets generate() {
+    SecureRandom random = RANDOM.get();
+    byte[] verifier = new byte[VERIFIER_BYTES];
+    random.nextBytes(verifier);
+    byte[] state = new byte[STATE_BYTES];
+    random.nextBytes(state);
+    String codeVerifier = BASE64URL.encodeToString(verifier);
+    return new Secrets(BASE64URL.encodeToString(state), codeVerifier, challenge(codeVerifier));
+  }
+
+  // At most one refill is queued or running at a time.
+  private void refill() {
+    if (!refilling.compareAndSet(false, true)) {
+      return;
+    }
+    try {
+      refiller.execute(
+          () -> {
+            try {
+              while (pool.remainingCapacity() > 0 && pool.offer(generate())) {
+                // Fills until full; a concurrent next() makes room for one more.
+              }
+            } finally {
+              refilling.set(false);
+            }
+          });
+    } catch (RejectedExecutionException e) {
+      refilling.set(false);
+    }
+  }
+
+  private static <T> T instance(Lookup<T> lookup, String algorithm) {
+    try {
+      return lookup.get();
+    } catch (GeneralSecurityException e) {
+      throw new HydraFlowException(algorithm + " is not available", e);
+    }
+  }
+
+  private interface Lookup<T> {
+    T get() throws GeneralSecurityException;
+  }
+
+  /**
+   * The random values of one flow execution.
+   *
+   * @param state the {@code state} parameter of the authorization request
+   * @param codeVerifier the PKCE code verifier, sent with the code exchange
+   * @param codeChallenge the verifier's S256 challenge, sent with the authorization request
+   */
+  record Secrets(String state, String codeVerifier, String codeChallenge) {}
+}
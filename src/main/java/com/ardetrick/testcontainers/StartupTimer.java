@@ -0,0 +1,118 @@
+package com.ardetrick.testcontainers;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.LongSupplier;
+
+/**
+ * Records the boundaries of one container start and turns them into {@link StartupTimings}.
+ *
+ * <p>Lifecycle boundaries are marked by the container's hooks; the end of migration and the
+ * listener set-up are recognized in Hydra's log lines, which arrive on the log follower's thread.
+ */
+final class StartupTimer {
+
+  private static final long NOT_SEEN = Long.MIN_VALUE;
+
+  private final LongSupplier clock;
+  private final long started;
+  private volatile long imageResolved = NOT_SEEN;
+  private volatile long containerStarted = NOT_SEEN;
+  private volatile long migrated = NOT_SEEN;
+  private volatile long publicListening = NOT_SEEN;
+  private volatile long adminListening = NOT_SEEN;
+  private volatile long ready = NOT_SEEN;
+  private final CompletableFuture<Void> listening = new CompletableFuture<>();
+
+  StartupTimer(LongSupplier clock) {
+    this.clock = clock;
+    this.started = clock.getAsLong();
+  }
+
+  /** Starts timing at the current {@link System#nanoTime()}. */
+  static StartupTimer start() {
+    return new StartupTimer(System::nanoTime);
+  }
+
+  void imageResolved() {
+    imageResolved = clock.getAsLong();
+  }
+
+  void containerStarted() {
+    containerStarted = clock.getAsLong();
+  }
+
+  void ready() {
+    ready = clock.getAsLong();
+  }
+
+  /** Recognizes phase boundaries in a line of Hydra's output. */
+  void observeLog(String line) {
+    if (line.contains("Successfully applied migrations")) {
+      migrated = clock.getAsLong();
+    } else if (line.contains("http server on")) {
+      // e.g. msg="Setting up http server on :4444"
+      if (line.contains(":4444")) {
+        publicListening = clock.getAsLong();
+      } else if (line.contains(":4445")) {
+        adminListening = clock.getAsLong();
+      }
+      if (publicListening != NOT_SEEN && adminListening != NOT_SEEN) {
+        listening.complete(null);
+      }
+    }
+  }
+
+  /** Completes once Hydra has logged that both its public and admin listeners are set up. */
+  CompletableFuture<Void> listening() {
+    return listening;
+  }
+
+  /** Completes timing after fixture registration. */
+  StartupTimings finish() {
+    long finished = clock.getAsLong();
+    long readyAt = ready == NOT_SEEN ? finished : ready;
+    long startedAt = orElse(containerStarted, orElse(imageResolved, started));
+    long imageAt = orElse(imageResolved, started);
+
+    // Log lines can reach the follower after the wait strategy released; such a boundary carries
+    // no information about this start's phases and is treated as unobserved.
+    long migratedAt = observedBetween(migrated, startedAt, readyAt);
+    long listeningAt =
+        publicListening == NOT_SEEN || adminListening == NOT_SEEN
+            ? NOT_SEEN
+            : observedBetween(Math.max(publicListening, adminListening), startedAt, readyAt);
+
+    long phaseStart = startedAt;
+    Duration migration = null;
+    if (migratedAt != NOT_SEEN) {
+      migration = between(phaseStart, migratedAt);
+      phaseStart = migratedAt;
+    }
+    Duration serverStartup = null;
+    if (listeningAt != NOT_SEEN && listeningAt >= phaseStart) {
+      serverStartup = between(phaseStart, listeningAt);
+      phaseStart = listeningAt;
+    }
+    return new StartupTimings(
+        between(started, imageAt),
+        between(imageAt, startedAt),
+        migration,
+        serverStartup,
+        between(phaseStart, readyAt),
+        between(readyAt, finished),
+        between(started, finished));
+  }
+
+  private static long orElse(long mark, long fallback) {
+    return mark == NOT_SEEN ? fallback : mark;
+  }
+
+  private static long observedBetween(long mark, long from, long to) {
+    return mark != NOT_SEEN && mark >= from && mark <= to ? mark : NOT_SEEN;
+  }
+
+  private static Duration between(long from, long to) {
+    return Duration.ofNanos(to - from);
+  }
+}
@@ -0,0 +1,35 @@
+package com.ardetrick.testcontainers;
+
+import java.time.Duration;
+
+/**
+ * Breakdown of one container start by phase, available from {@link
+ * OryHydraContainer#startupTimings()} once {@code start()} returns.
+ *
+ * <p>The phases are consecutive and together make up {@link #total()}. Boundaries come from the
+ * Testcontainers lifecycle hooks, except for the end of migration and the moment Hydra's listeners
+ * come up, which are taken from Hydra's log output as the container's log follower receives it. A
+ * phase whose end was not observed in the logs is {@code null} and its time is counted in the next
+ * phase instead — e.g. with {@link OryHydraContainer.Builder#migrationCache(boolean)} no migration
+ * runs, so {@code migration} is {@code null}.
+ *
+ * @param imageResolution resolving (and, if needed, pulling) the Docker image
+ * @param containerCreation creating and starting the Docker container, including preparing a {@link
+ *     OryHydraContainer.Builder#migrationCache(boolean) cached database}
+ * @param migration from the container starting until {@code hydra migrate sql} reported success, or
+ *     {@code null} if not observed
+ * @param serverStartup from the end of the previous phase until both the public and admin listeners
+ *     were set up, or {@code null} if not observed
+ * @param readinessWait from the end of the previous phase until the wait strategy released — time
+ *     spent detecting readiness after the listeners were up
+ * @param fixtureRegistration registering the declared client fixtures after readiness
+ * @param total from the beginning of {@code start()} until the fixtures were registered
+ */
+public record StartupTimings(
+    Duration imageResolution,
+    Duration containerCreation,
+    Duration migration,
+    Duration serverStartup,
+    Duration readinessWait,
+    Duration fixtureRegistration,
+    Duration total) {}
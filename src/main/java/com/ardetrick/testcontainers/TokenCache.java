@@ -0,0 +1,170 @@
+package com.ardetrick.testcontainers;
+
+import com.ardetrick.testcontainers.FlowResult.TokenResponse;
+import java.net.URI;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Caches client-credentials token responses per token endpoint, client, secret, and scope set, so
+ * test helpers that ask for a token per call get the one minted milliseconds earlier instead of a
+ * new token endpoint request.
+ *
+ * <p>An entry is fresh until its token's {@code expires_in} minus a skew has passed since the
+ * response arrived, so a cached token is never handed out about to expire. Concurrent requests for
+ * a key that is being fetched wait for that one request instead of sending their own. Only
+ * successful responses are kept: OAuth errors and failures reach every waiter and are then
+ * forgotten. The least recently used entry is evicted once {@code maxEntries} are cached.
+ */
+final class TokenCache {
+
+  static final int DEFAULT_MAX_ENTRIES = 1024;
+  static final Duration DEFAULT_SKEW = Duration.ofSeconds(30);
+
+  private final int maxEntries;
+  private final long skewNanos;
+  private final LongSupplier clock;
+  // Guarded by itself; access order makes the eldest entry the least recently used one.
+  private final LinkedHashMap<Key, Entry> entries;
+  private long hits;
+  private long misses;
+  private long coalesced;
+
+  TokenCache(int maxEntries, Duration skew) {
+    this(maxEntries, skew, System::nanoTime);
+  }
+
+  TokenCache(int maxEntries, Duration skew, LongSupplier clock) {
+    this.maxEntries = maxEntries;
+    this.skewNanos = skew.toNanos();
+    this.clock = clock;
+    this.entries =
+        new LinkedHashMap<>(16, 0.75f, true) {
+          @Override
+          protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+            return size() > TokenCache.this.maxEntries;
+          }
+        };
+  }
+
+  /**
+   * The cache used by flows created without a container, e.g. via the public {@link
+   * ClientCredentialsFlow#ClientCredentialsFlow(URI, URI)} constructor. Never cleared.
+   */
+  static TokenCache shared() {
+    return Shared.INSTANCE;
+  }
+
+  /**
+   * Returns the cached response for the key, joins the request in flight for it, or starts one.
+   *
+   * @param fetch sends the token request; called only on a miss
+   * @return the response; cancelling it does not affect other callers waiting for the same key
+   */
+  CompletableFuture<FlowResult> get(Key key, Supplier<CompletableFuture<FlowResult>> fetch) {
+    Entry entry;
+    synchronized (entries) {
+      entry = entries.get(key);
+      if (entry != null && entry.isFresh(clock.getAsLong())) {
+        if (entry.pending) {
+          coalesced++;
+        } else {
+          hits++;
+        }
+        return entry.response.copy();
+      }
+      entry = new Entry();
+      entries.put(key, entry);
+      misses++;
+    }
+    CompletableFuture<FlowResult> fetched;
+    try {
+      fetched = fetch.get();
+    } catch (RuntimeException e) {
+      fetched = CompletableFuture.failedFuture(e);
+    }
+    Entry owned = entry;
+    fetched.whenComplete((result, failure) -> complete(key, owned, result, failure));
+    return owned.response.copy();
+  }
+
+  private void complete(Key key, Entry entry, FlowResult result, Throwable failure) {
+    synchronized (entries) {
+      long ttl =
+          result instanceof TokenResponse token
+              ? Duration.ofSeconds(token.expiresInSeconds()).toNanos() - skewNanos
+              : 0;
+      if (ttl > 0) {
+        entry.expiresAt = clock.getAsLong() + ttl;
+        entry.pending = false;
+      } else if (entries.get(key) == entry) {
+        entries.remove(key);
+      }
+    }
+    if (failure != null) {
+      entry.response.completeExceptionally(Http.unwrap(failure));
+    } else {
+      entry.response.complete(result);
+    }
+  }
+
+  /** Forgets every entry; requests in flight still complete for the callers waiting on them. */
+  void clear() {
+    synchronized (entries) {
+      entries.clear();
+    }
+  }
+
+  TokenCacheStats stats() {
+    synchronized (entries) {
+      return new TokenCacheStats(hits, misses, coalesced, entries.size(), maxEntries);
+    }
+  }
+
+  /**
+   * Identifies the tokens one request would return: scopes are compared as a set.
+   *
+   * @param scopes the requested scopes, sorted and without duplicates
+   */
+  record Key(URI tokenEndpoint, String clientId, String clientSecret, List<String> scopes) {
+
+    static Key of(URI tokenEndpoint, String clientId, String clientSecret, List<String> scopes) {
+      return new Key(
+          tokenEndpoint, clientId, clientSecret, scopes.stream().distinct().sorted().toList());
+    }
+
+    // The secret is part of the key, so a rotated secret never reuses a token minted with the old
+    // one, but it must not end up in logs.
+    @Override
+    public String toString() {
+      return "Key[tokenEndpoint="
+          + tokenEndpoint
+          + ", clientId="
+          + clientId
+          + ", scopes="
+          + scopes
+          + "]";
+    }
+  }
+
+  private static final class Entry {
+
+    private final CompletableFuture<FlowResult> response = new CompletableFuture<>();
+    // Guarded by the entries map.
+    private boolean pending = true;
+    private long expiresAt;
+
+    boolean isFresh(long now) {
+      return pending || now - expiresAt < 0;
+    }
+  }
+
+  private static final class Shared {
+    private static final TokenCache INSTANCE = new TokenCache(DEFAULT_MAX_ENTRIES, DEFAULT_SKEW);
+  }
+}
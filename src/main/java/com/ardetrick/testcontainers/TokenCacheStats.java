@@ -0,0 +1,27 @@
+package com.ardetrick.testcontainers;
+
+/**
+ * Counts of the client-credentials token cache a container's {@link
+ * ClientCredentialsFlow#cached(boolean) cached} flows share.
+ *
+ * @param hits requests answered with a cached token
+ * @param misses requests that sent a token request
+ * @param coalesced requests that waited for another caller's token request with the same client and
+ *     scopes instead of sending their own
+ * @param size the number of entries currently cached, including requests in flight
+ * @param maxEntries the number of entries kept before the least recently used is evicted (see
+ *     {@link OryHydraContainer.Builder#tokenCacheSize(int)})
+ */
+public record TokenCacheStats(long hits, long misses, long coalesced, int size, int maxEntries) {
+
+  /**
+   * Returns the share of requests that did not reach Hydra.
+   *
+   * @return {@code (hits + coalesced) / (hits + misses + coalesced)}, or {@code 0} before the first
+   *     request
+   */
+  public double hitRatio() {
+    long requests = hits + misses + coalesced;
+    return requests == 0 ? 0 : (double) (hits + coalesced) / requests;
+  }
+}
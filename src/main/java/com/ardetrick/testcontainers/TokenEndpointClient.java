@@ -3,60 +3,82 @@ package com.ardetrick.testcontainers;
 import com.ardetrick.testcontainers.FlowResult.OAuthError;
 import com.ardetrick.testcontainers.FlowResult.TokenResponse;
 import java.net.URI;
-import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.nio.charset.StandardCharsets;
 import java.util.Base64;
-import java.util.Collections;
 import java.util.List;
-import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
-/** Performs requests against Hydra's OAuth 2.0 token endpoint. */
+/**
+ * Performs requests against Hydra's OAuth 2.0 token endpoint. Token endpoint OAuth errors complete
+ * the returned future normally, as {@link OAuthError}; only transport and parse failures fail it.
+ */
 final class TokenEndpointClient {
 
+  // Decoded up front; the rest of a token response is only parsed if raw() is read.
+  private static final String[] TOKEN_FIELDS = {
+    "access_token", "id_token", "refresh_token", "token_type", "expires_in", "scope"
+  };
+  private static final String[] ERROR_FIELDS = {"error", "error_description", "error_uri"};
+
   private TokenEndpointClient() {}
 
   /** Client-credentials grant (RFC 6749 §4.4) using {@code client_secret_basic} authentication. */
-  static FlowResult clientCredentials(
-      URI tokenEndpoint, String clientId, String clientSecret, List<String> scopes) {
+  static CompletableFuture<FlowResult> clientCredentials(
+      HttpTransport http,
+      URI tokenEndpoint,
+      String clientId,
+      String clientSecret,
+      List<String> scopes) {
     StringBuilder form = new StringBuilder("grant_type=client_credentials");
     if (scopes != null && !scopes.isEmpty()) {
       form.append("&scope=").append(Http.encode(String.join(" ", scopes)));
     }
-    return post(tokenEndpoint, form.toString(), clientId, clientSecret);
+    return post(http, tokenEndpoint, form.toString(), clientId, clientSecret, null);
   }
 
   /** Refresh-token grant (RFC 6749 §6), authenticated like the code exchange below. */
-  static FlowResult refreshToken(
-      URI tokenEndpoint, String clientId, String clientSecret, String refreshToken) {
+  static CompletableFuture<FlowResult> refreshToken(
+      HttpTransport http,
+      URI tokenEndpoint,
+      String clientId,
+      String clientSecret,
+      String refreshToken) {
     String form = "grant_type=refresh_token&refresh_token=" + Http.encode(refreshToken);
-    return post(tokenEndpoint, form, clientId, clientSecret);
+    return post(http, tokenEndpoint, form, clientId, clientSecret, null);
   }
 
   /**
    * Authorization-code exchange (RFC 6749 §4.1.3) using {@code client_secret_basic}, or — when
    * {@code clientSecret} is {@code null} (public client) — {@code client_id} in the request body
-   * with no client authentication.
+   * with no client authentication. A non-null {@code tracer} records the exchange.
    */
-  static FlowResult authorizationCode(
+  static CompletableFuture<FlowResult> authorizationCode(
+      HttpTransport http,
       URI tokenEndpoint,
       String clientId,
       String clientSecret,
       String code,
       String redirectUri,
-      String codeVerifier) {
+      String codeVerifier,
+      FlowTracer tracer) {
     StringBuilder form = new StringBuilder("grant_type=authorization_code");
     form.append("&code=").append(Http.encode(code));
     form.append("&redirect_uri=").append(Http.encode(redirectUri));
     if (codeVerifier != null) {
       form.append("&code_verifier=").append(Http.encode(codeVerifier));
     }
-    return post(tokenEndpoint, form.toString(), clientId, clientSecret);
+    return post(http, tokenEndpoint, form.toString(), clientId, clientSecret, tracer);
   }
 
-  private static FlowResult post(
-      URI tokenEndpoint, String form, String clientId, String clientSecret) {
+  private static CompletableFuture<FlowResult> post(
+      HttpTransport http,
+      URI tokenEndpoint,
+      String form,
+      String clientId,
+      String clientSecret,
+      FlowTracer tracer) {
     HttpRequest.Builder request =
         HttpRequest.newBuilder(tokenEndpoint)
             .header("Content-Type", "application/x-www-form-urlencoded")
@@ -74,40 +96,40 @@ final class TokenEndpointClient {
                       .getBytes(StandardCharsets.UTF_8));
       request.header("Authorization", "Basic " + credentials);
     }
-    HttpResponse<String> response =
-        Http.send(
-            HttpClient.newHttpClient(),
-            request.POST(HttpRequest.BodyPublishers.ofString(form)).build());
+    HttpRequest post = request.POST(HttpRequest.BodyPublishers.ofString(form)).build();
+    CompletableFuture<HttpResponse<byte[]>> response =
+        tracer == null
+            ? http.sendAsync(post)
+            : tracer.record(
+                FlowTrace.Kind.CODE_EXCHANGE, post, System.nanoTime(), http.sendAsync(post));
+    return response.thenApply(TokenEndpointClient::parse);
+  }
 
-    Map<String, Object> json;
+  private static FlowResult parse(HttpResponse<byte[]> response) {
+    boolean success = Http.is2xx(response.statusCode());
+    Object[] fields;
     try {
-      json = Json.parseObject(response.body());
+      fields = Json.parseFields(response.body(), success ? TOKEN_FIELDS : ERROR_FIELDS);
     } catch (JsonParseException e) {
       throw new HydraFlowException(
-          "Unparseable token response (HTTP " + response.statusCode() + "): " + response.body(), e);
+          "Unparseable token response (HTTP " + response.statusCode() + "): " + Http.text(response),
+          e);
     }
 
-    if (Http.is2xx(response.statusCode())) {
+    if (success) {
       return new TokenResponse(
-          string(json, "access_token"),
-          string(json, "id_token"),
-          string(json, "refresh_token"),
-          string(json, "token_type"),
-          longValue(json, "expires_in"),
-          string(json, "scope"),
-          Collections.unmodifiableMap(json));
+          string(fields[0]),
+          string(fields[1]),
+          string(fields[2]),
+          string(fields[3]),
+          fields[4] instanceof Number number ? number.longValue() : 0L,
+          string(fields[5]),
+          new LazyJsonObject(response.body()));
     }
-    return new OAuthError(
-        string(json, "error"), string(json, "error_description"), string(json, "error_uri"));
+    return new OAuthError(string(fields[0]), string(fields[1]), string(fields[2]));
   }
 
-  private static String string(Map<String, Object> json, String key) {
-    Object value = json.get(key);
+  private static String string(Object value) {
     return value == null ? null : value.toString();
   }
-
-  private static long longValue(Map<String, Object> json, String key) {
-    Object value = json.get(key);
-    return value instanceof Number number ? number.longValue() : 0L;
-  }
 }
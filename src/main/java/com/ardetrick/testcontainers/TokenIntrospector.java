@@ -0,0 +1,170 @@
+package com.ardetrick.testcontainers;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Introspects many tokens at once — e.g. the thousands a resource-server test checks per run.
+ *
+ * <p>At most {@link #concurrency(int)} introspection requests are in flight at once, all on the
+ * container's shared HTTP transport and without a thread per request. With {@link
+ * #cached(boolean)}, responses are kept in a cache the container's introspectors share: an active
+ * token's response until its {@code exp}, an inactive one's for a few seconds.
+ *
+ * <pre>{@code
+ * IntrospectionResults results =
+ *     hydra.tokenIntrospector().cached(true).introspect(accessTokens);
+ * assertThat(results.responses()).allMatch(IntrospectionResponse::active);
+ * }</pre>
+ */
+public final class TokenIntrospector {
+
+  static final int DEFAULT_CONCURRENCY = 16;
+
+  private final Function<String, CompletableFuture<IntrospectionResponse>> introspection;
+  private final IntrospectionCache cache;
+  private int concurrency = DEFAULT_CONCURRENCY;
+  private boolean cached = false;
+
+  // The container supplies introspection on its transport and the cache its introspectors share.
+  TokenIntrospector(
+      Function<String, CompletableFuture<IntrospectionResponse>> introspection,
+      IntrospectionCache cache) {
+    this.introspection = introspection;
+    this.cache = cache;
+  }
+
+  /**
+   * Sets how many introspection requests are in flight at once (default {@value
+   * #DEFAULT_CONCURRENCY}). The container's {@link OryHydraContainer.Builder#httpConnections(int)
+   * connection limit} applies on top.
+   *
+   * @param concurrency the maximum number of concurrent requests
+   * @return this introspector
+   * @throws IllegalArgumentException if {@code concurrency} is not positive
+   */
+  public TokenIntrospector concurrency(int concurrency) {
+    if (concurrency <= 0) {
+      throw new IllegalArgumentException("concurrency must be positive, was " + concurrency);
+    }
+    this.concurrency = concurrency;
+    return this;
+  }
+
+  /**
+   * Answers tokens from the container's introspection cache where possible (default disabled).
+   *
+   * <p>An active response is reused until the token's {@code exp}, so a token revoked meanwhile
+   * still reads as active; {@link OryHydraContainer#reset()} empties the cache. An inactive
+   * response is reused for a few seconds only.
+   *
+   * @param enabled whether to use the cache
+   * @return this introspector
+   */
+  public TokenIntrospector cached(boolean enabled) {
+    this.cached = enabled;
+    return this;
+  }
+
+  /**
+   * Introspects the tokens.
+   *
+   * @param tokens the access or refresh tokens to introspect
+   * @return one item per token, in token order, each holding the response or its failure; a request
+   *     that cannot be completed, or whose response cannot be parsed, fails its item only
+   */
+  public IntrospectionResults introspect(Collection<String> tokens) {
+    return Http.await(introspectAsync(tokens));
+  }
+
+  /**
+   * Introspects the tokens like {@link #introspect(Collection)} without blocking the calling
+   * thread.
+   *
+   * @param tokens the access or refresh tokens to introspect
+   * @return completes with one item per token, in token order, once every request has completed
+   */
+  public CompletableFuture<IntrospectionResults> introspectAsync(Collection<String> tokens) {
+    long start = System.nanoTime();
+    Batch batch = new Batch(List.copyOf(tokens));
+    // A fixed number of lanes each start the next token's request once their previous one
+    // completes, so at most that many are in flight without a thread per request.
+    CompletableFuture<?>[] lanes =
+        new CompletableFuture<?>[Math.min(batch.tokens.size(), concurrency)];
+    for (int i = 0; i < lanes.length; i++) {
+      lanes[i] = introspectNext(batch);
+    }
+    return CompletableFuture.allOf(lanes)
+        .thenApply(
+            done ->
+                new IntrospectionResults(
+                    List.of(batch.items),
+                    batch.hits.sum(),
+                    batch.requests.sum(),
+                    Duration.ofNanos(System.nanoTime() - start)));
+  }
+
+  // Loops instead of recursing while responses are already complete (cache hits), so a lane never
+  // grows the stack; a pending response resumes the lane from its completion.
+  private CompletableFuture<Void> introspectNext(Batch batch) {
+    while (true) {
+      int index = batch.next.getAndIncrement();
+      if (index >= batch.tokens.size()) {
+        return CompletableFuture.completedFuture(null);
+      }
+      String token = batch.tokens.get(index);
+      CompletableFuture<IntrospectionResponse> response = lookup(batch, token);
+      // Read before handle(), which then runs on this thread if the response was already complete.
+      boolean done = response.isDone();
+      CompletableFuture<Void> recorded =
+          response.handle(
+              (introspected, failure) -> {
+                batch.items[index] =
+                    failure == null
+                        ? new IntrospectionResults.Item(token, introspected, null)
+                        : new IntrospectionResults.Item(token, null, asFlowException(failure));
+                return null;
+              });
+      if (!done) {
+        return recorded.thenCompose(ignored -> introspectNext(batch));
+      }
+    }
+  }
+
+  private static HydraFlowException asFlowException(Throwable failure) {
+    Throwable cause = Http.unwrap(failure);
+    return cause instanceof HydraFlowException e
+        ? e
+        : new HydraFlowException("Introspecting a token failed", cause);
+  }
+
+  private CompletableFuture<IntrospectionResponse> lookup(Batch batch, String token) {
+    if (!cached) {
+      batch.requests.increment();
+      return introspection.apply(token);
+    }
+    IntrospectionCache.Lookup lookup = cache.get(token, introspection);
+    (lookup.hit() ? batch.hits : batch.requests).increment();
+    return lookup.response();
+  }
+
+  // Per-run state shared by the lanes; tokens are claimed by index so items stay in order.
+  private static final class Batch {
+
+    private final List<String> tokens;
+    private final IntrospectionResults.Item[] items;
+    private final AtomicInteger next = new AtomicInteger();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder requests = new LongAdder();
+
+    Batch(List<String> tokens) {
+      this.tokens = tokens;
+      this.items = new IntrospectionResults.Item[tokens.size()];
+    }
+  }
+}
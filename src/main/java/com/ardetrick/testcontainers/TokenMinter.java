@@ -0,0 +1,299 @@
+package com.ardetrick.testcontainers;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+
+/**
+ * Mints authorization-code tokens for many subjects at once — e.g. the tens of thousands of real
+ * tokens a resource-server load test replays.
+ *
+ * <p>One ephemeral client is registered and the discovery document fetched once for the whole
+ * batch; each subject then runs its own authorization-code flow (login, consent, code exchange)
+ * with that client. At most {@link #concurrency(int)} flows are in flight at once, all on the
+ * container's shared HTTP transport and without a thread per flow.
+ *
+ * <pre>{@code
+ * MintedTokens tokens =
+ *     hydra.tokenMinter()
+ *         .subjects(10_000, i -> "user-" + i)
+ *         .scopes("openid", "offline_access")
+ *         .claims(subject -> Map.of("email", subject + "@example.com"))
+ *         .mint();
+ * }</pre>
+ */
+public final class TokenMinter {
+
+  static final int DEFAULT_CONCURRENCY = 16;
+
+  private final AuthorizationCodeFlow flow;
+  private int count;
+  private IntFunction<String> subjects;
+  private Function<String, Map<String, Object>> accessTokenClaims = subject -> Map.of();
+  private Function<String, Map<String, Object>> idTokenClaims = subject -> Map.of();
+  private int concurrency = DEFAULT_CONCURRENCY;
+
+  /**
+   * Creates a minter bound to a running Hydra container's endpoints.
+   *
+   * @param publicBaseUri the public API base URI
+   * @param adminBaseUri the admin API base URI
+   */
+  public TokenMinter(URI publicBaseUri, URI adminBaseUri) {
+    this(
+        publicBaseUri,
+        adminBaseUri,
+        HttpTransport.shared(),
+        new EphemeralClients(),
+        new MetadataCache());
+  }
+
+  TokenMinter(
+      URI publicBaseUri,
+      URI adminBaseUri,
+      HttpTransport http,
+      EphemeralClients ephemeralClients,
+      MetadataCache metadata) {
+    this.flow =
+        new AuthorizationCodeFlow(publicBaseUri, adminBaseUri, http, ephemeralClients, metadata);
+  }
+
+  /**
+   * Mints one token per subject, in list order.
+   *
+   * @param subjects the subjects to log in
+   * @return this minter
+   */
+  public TokenMinter subjects(List<String> subjects) {
+    List<String> copy = List.copyOf(subjects);
+    this.count = copy.size();
+    this.subjects = copy::get;
+    return this;
+  }
+
+  /**
+   * Mints {@code count} tokens for generated subjects, so a large batch need not materialize its
+   * subject list up front.
+   *
+   * @param count the number of tokens to mint
+   * @param generator returns the subject of the token at each index, from {@code 0} to {@code count
+   *     - 1}; called once per index, possibly from the HTTP client's threads
+   * @return this minter
+   * @throws IllegalArgumentException if {@code count} is negative
+   */
+  public TokenMinter subjects(int count, IntFunction<String> generator) {
+    if (count < 0) {
+      throw new IllegalArgumentException("count must not be negative, was " + count);
+    }
+    this.count = count;
+    this.subjects = Objects.requireNonNull(generator, "generator must not be null");
+    return this;
+  }
+
+  /**
+   * Sets the requested scopes (default {@code openid}).
+   *
+   * @param scopes requested scopes
+   * @return this minter
+   */
+  public TokenMinter scopes(String... scopes) {
+    flow.scopes(scopes);
+    return this;
+  }
+
+  /**
+   * Sets the requested token audience.
+   *
+   * @param audience requested audience values
+   * @return this minter
+   */
+  public TokenMinter audience(String... audience) {
+    flow.audience(audience);
+    return this;
+  }
+
+  /**
+   * Sets the claims added to both the access token and ID token session of each subject.
+   *
+   * @param template returns the claims for a subject; called once per subject, possibly from the
+   *     HTTP client's threads
+   * @return this minter
+   */
+  public TokenMinter claims(Function<String, Map<String, Object>> template) {
+    Objects.requireNonNull(template, "template must not be null");
+    this.accessTokenClaims = template;
+    this.idTokenClaims = template;
+    return this;
+  }
+
+  /**
+   * Sets the claims added to the access token session of each subject only.
+   *
+   * @param template returns the claims for a subject
+   * @return this minter
+   */
+  public TokenMinter accessTokenClaims(Function<String, Map<String, Object>> template) {
+    this.accessTokenClaims = Objects.requireNonNull(template, "template must not be null");
+    return this;
+  }
+
+  /**
+   * Sets the claims added to the ID token session of each subject only.
+   *
+   * @param template returns the claims for a subject
+   * @return this minter
+   */
+  public TokenMinter idTokenClaims(Function<String, Map<String, Object>> template) {
+    this.idTokenClaims = Objects.requireNonNull(template, "template must not be null");
+    return this;
+  }
+
+  /**
+   * Enables PKCE (RFC 7636) with the {@code S256} method for every flow (default disabled).
+   *
+   * @param enabled whether to use PKCE
+   * @return this minter
+   */
+  public TokenMinter usePkce(boolean enabled) {
+    flow.usePkce(enabled);
+    return this;
+  }
+
+  /**
+   * Skips Hydra's consent hops (default disabled); see {@link
+   * AuthorizationCodeFlow#fastMode(boolean)}.
+   *
+   * @param enabled whether to use the fast path
+   * @return this minter
+   */
+  public TokenMinter fastMode(boolean enabled) {
+    flow.fastMode(enabled);
+    return this;
+  }
+
+  /**
+   * Sets how many flows are in flight at once (default {@value #DEFAULT_CONCURRENCY}). Each flow
+   * sends one request at a time, and the container's {@link
+   * OryHydraContainer.Builder#httpConnections(int) connection limit} applies on top.
+   *
+   * @param concurrency the maximum number of concurrent flows
+   * @return this minter
+   * @throws IllegalArgumentException if {@code concurrency} is not positive
+   */
+  public TokenMinter concurrency(int concurrency) {
+    if (concurrency <= 0) {
+      throw new IllegalArgumentException("concurrency must be positive, was " + concurrency);
+    }
+    this.concurrency = concurrency;
+    return this;
+  }
+
+  /**
+   * Mints the tokens.
+   *
+   * @return one item per subject, in subject order, each holding the flow's result or its failure
+   * @throws HydraFlowException if the shared client cannot be registered or the discovery document
+   *     cannot be fetched; failures of individual flows are reported per item instead
+   * @throws IllegalStateException if no subjects were set
+   */
+  public MintedTokens mint() {
+    return Http.await(mintAsync());
+  }
+
+  /**
+   * Mints the tokens like {@link #mint()} without blocking the calling thread.
+   *
+   * <p>The batch uses the configuration at the time of the call, so the minter may be reconfigured
+   * or run again before the returned future has completed.
+   *
+   * @return completes with one item per subject, in subject order; fails with a {@link
+   *     HydraFlowException} if the shared client cannot be registered or the discovery document
+   *     cannot be fetched
+   * @throws IllegalStateException if no subjects were set
+   */
+  public CompletableFuture<MintedTokens> mintAsync() {
+    if (subjects == null) {
+      throw new IllegalStateException("subjects must be set before minting");
+    }
+    long start = System.nanoTime();
+    MintedTokens.Item[] items = new MintedTokens.Item[count];
+    Batch batch = new Batch(count, subjects, accessTokenClaims, idTokenClaims, items);
+    int laneCount = Math.min(count, concurrency);
+    AuthorizationCodeFlow.Spec spec = flow.spec();
+    return spec.prepareAsync()
+        .thenCompose(
+            prepared -> {
+              // A fixed number of lanes each start the next subject's flow once their previous one
+              // completes, so at most that many are in flight without a thread per flow.
+              CompletableFuture<?>[] lanes = new CompletableFuture<?>[laneCount];
+              for (int i = 0; i < lanes.length; i++) {
+                lanes[i] = mintNext(spec, batch, prepared);
+              }
+              return CompletableFuture.allOf(lanes);
+            })
+        .thenApply(done -> new MintedTokens(List.of(items), nanosSince(start)));
+  }
+
+  private CompletableFuture<Void> mintNext(
+      AuthorizationCodeFlow.Spec spec, Batch batch, AuthorizationCodeFlow.Prepared prepared) {
+    int index = batch.next.getAndIncrement();
+    if (index >= batch.count) {
+      return CompletableFuture.completedFuture(null);
+    }
+    String subject = batch.subjects.apply(index);
+    Map<String, Object> session =
+        AuthorizationCodeFlow.session(
+            batch.accessTokenClaims.apply(subject), batch.idTokenClaims.apply(subject));
+    return spec.executeAsync(subject, session, prepared)
+        .handle(
+            (result, failure) -> {
+              batch.items[index] =
+                  failure == null
+                      ? new MintedTokens.Item(subject, result, null)
+                      : new MintedTokens.Item(subject, null, asFlowException(subject, failure));
+              return null;
+            })
+        .thenCompose(ignored -> mintNext(spec, batch, prepared));
+  }
+
+  private static HydraFlowException asFlowException(String subject, Throwable failure) {
+    Throwable cause = Http.unwrap(failure);
+    return cause instanceof HydraFlowException e
+        ? e
+        : new HydraFlowException("Minting a token for '" + subject + "' failed", cause);
+  }
+
+  private static Duration nanosSince(long start) {
+    return Duration.ofNanos(System.nanoTime() - start);
+  }
+
+  // Per-run state shared by the lanes; subjects are claimed by index so items stay in order.
+  private static final class Batch {
+
+    private final int count;
+    private final IntFunction<String> subjects;
+    private final Function<String, Map<String, Object>> accessTokenClaims;
+    private final Function<String, Map<String, Object>> idTokenClaims;
+    private final MintedTokens.Item[] items;
+    private final AtomicInteger next = new AtomicInteger();
+
+    Batch(
+        int count,
+        IntFunction<String> subjects,
+        Function<String, Map<String, Object>> accessTokenClaims,
+        Function<String, Map<String, Object>> idTokenClaims,
+        MintedTokens.Item[] items) {
+      this.count = count;
+      this.subjects = subjects;
+      this.accessTokenClaims = accessTokenClaims;
+      this.idTokenClaims = idTokenClaims;
+      this.items = items;
+    }
+  }
+}
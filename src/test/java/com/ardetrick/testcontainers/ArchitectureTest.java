@@ -57,10 +57,22 @@ class ArchitectureTest {
                       AuthorizationCodeFlow.class,
                       ClientCredentialsFlow.class,
                       FlowResult.class,
+                      FlowTrace.class,
+                      HttpTransportStats.class,
                       HydraFlowException.class,
                       IntrospectionResponse.class,
+                      IntrospectionResults.class,
+                      JanitorStats.class,
+                      JwtVerifier.class,
+                      LoadGenerator.class,
+                      LoadReport.class,
+                      MintedTokens.class,
                       OAuth2ClientRegistration.class,
-                      OpenIdConfiguration.class)))
+                      OpenIdConfiguration.class,
+                      StartupTimings.class,
+                      TokenCacheStats.class,
+                      TokenIntrospector.class,
+                      TokenMinter.class)))
           .should()
           .notBePublic();
 }
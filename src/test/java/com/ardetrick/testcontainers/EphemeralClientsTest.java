@@ -0,0 +1,189 @@
+package com.ardetrick.testcontainers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/** Runs against a stub admin API that records the requests it receives. */
+class EphemeralClientsTest {
+
+  private static final Map<String, Object> CONFIDENTIAL =
+      Map.of(
+          "grant_types",
+          List.of("client_credentials"),
+          "token_endpoint_auth_method",
+          "client_secret_basic");
+
+  private final List<String> requests = new CopyOnWriteArrayList<>();
+  private final List<Map<String, Object>> registered = new CopyOnWriteArrayList<>();
+  private final AtomicInteger failuresLeft = new AtomicInteger();
+  private volatile CountDownLatch release = new CountDownLatch(0);
+  private final EphemeralClients clients = new EphemeralClients();
+  private final HttpTransport transport = new HttpTransport(4, null);
+  private HttpServer server;
+  private URI adminBaseUri;
+
+  @BeforeEach
+  void startServer() throws IOException {
+    server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+    server.createContext("/", this::handle);
+    server.setExecutor(Executors.newCachedThreadPool());
+    server.start();
+    adminBaseUri = URI.create("http://127.0.0.1:" + server.getAddress().getPort());
+  }
+
+  @AfterEach
+  void stopServer() {
+    transport.close();
+    server.stop(0);
+  }
+
+  @Test
+  void sameRegistrationIsRegisteredOnce() {
+    EphemeralClients.Client first = obtain(CONFIDENTIAL);
+    EphemeralClients.Client second = obtain(Map.copyOf(CONFIDENTIAL));
+
+    assertThat(second).isEqualTo(first);
+    assertThat(first.clientId()).startsWith("tc-");
+    assertThat(first.clientSecret()).isNotNull();
+    assertThat(registered).hasSize(1);
+    assertThat(registered.get(0))
+        .containsEntry("client_id", first.clientId())
+        .containsEntry("client_secret", first.clientSecret())
+        .containsEntry("grant_types", List.of("client_credentials"));
+  }
+
+  @Test
+  void differentRegistrationsGetDifferentClients() {
+    EphemeralClients.Client plain = obtain(CONFIDENTIAL);
+    EphemeralClients.Client scoped = obtain(withEntry(CONFIDENTIAL, "scope", "read"));
+    EphemeralClients.Client publicClient =
+        obtain(withEntry(CONFIDENTIAL, "token_endpoint_auth_method", "none"));
+
+    assertThat(scoped.clientId()).isNotEqualTo(plain.clientId());
+    assertThat(publicClient.clientId()).isNotIn(plain.clientId(), scoped.clientId());
+    assertThat(publicClient.clientSecret()).isNull();
+    assertThat(registered.get(2)).doesNotContainKey("client_secret");
+    assertThat(clients.size()).isEqualTo(3);
+  }
+
+  @Test
+  void concurrentRequestsShareOneRegistration() {
+    release = new CountDownLatch(1);
+    List<CompletableFuture<EphemeralClients.Client>> pending =
+        List.of(
+            clients.obtain(transport, adminBaseUri, CONFIDENTIAL),
+            clients.obtain(transport, adminBaseUri, CONFIDENTIAL),
+            clients.obtain(transport, adminBaseUri, CONFIDENTIAL));
+    release.countDown();
+
+    assertThat(pending.stream().map(CompletableFuture::join).distinct()).hasSize(1);
+    assertThat(registered).hasSize(1);
+  }
+
+  @Test
+  void failedRegistrationIsForgotten() {
+    failuresLeft.set(1);
+
+    assertThatThrownBy(() -> obtain(CONFIDENTIAL))
+        .isInstanceOf(HydraFlowException.class)
+        .hasMessageContaining("HTTP 500");
+    assertThat(clients.size()).isZero();
+
+    assertThat(obtain(CONFIDENTIAL).clientId()).startsWith("tc-");
+    assertThat(registered).hasSize(1);
+  }
+
+  @Test
+  void deleteAllDeletesEachClientWithItsTokens() {
+    EphemeralClients.Client client = obtain(CONFIDENTIAL);
+    requests.clear();
+
+    assertThat(clients.deleteAll(transport)).isEqualTo(1);
+
+    assertThat(requests)
+        .containsExactly(
+            "DELETE /admin/oauth2/tokens?client_id=" + client.clientId(),
+            "DELETE /admin/clients/" + client.clientId());
+    assertThat(clients.size()).isZero();
+    assertThat(obtain(CONFIDENTIAL).clientId()).isNotEqualTo(client.clientId());
+  }
+
+  @Test
+  void deleteUnusedDeletesOnlyClientsNotObtainedSinceThePreviousCall() {
+    EphemeralClients.Client stale = obtain(CONFIDENTIAL);
+    EphemeralClients.Client reused = obtain(withEntry(CONFIDENTIAL, "scope", "read"));
+    assertThat(clients.deleteUnused(transport)).isZero();
+    obtain(withEntry(CONFIDENTIAL, "scope", "read"));
+    requests.clear();
+
+    assertThat(clients.deleteUnused(transport)).isEqualTo(1);
+
+    assertThat(requests)
+        .containsExactly(
+            "DELETE /admin/oauth2/tokens?client_id=" + stale.clientId(),
+            "DELETE /admin/clients/" + stale.clientId());
+    assertThat(obtain(withEntry(CONFIDENTIAL, "scope", "read"))).isEqualTo(reused);
+    assertThat(obtain(CONFIDENTIAL).clientId()).isNotEqualTo(stale.clientId());
+  }
+
+  @Test
+  void clearForgetsClientsWithoutDeletingThem() {
+    EphemeralClients.Client client = obtain(CONFIDENTIAL);
+    requests.clear();
+
+    clients.clear();
+
+    assertThat(requests).isEmpty();
+    assertThat(obtain(CONFIDENTIAL).clientId()).isNotEqualTo(client.clientId());
+  }
+
+  private EphemeralClients.Client obtain(Map<String, Object> registration) {
+    return Http.await(clients.obtain(transport, adminBaseUri, registration));
+  }
+
+  private static Map<String, Object> withEntry(
+      Map<String, Object> registration, String name, Object value) {
+    Map<String, Object> copy = new HashMap<>(registration);
+    copy.put(name, value);
+    return copy;
+  }
+
+  private void handle(HttpExchange exchange) throws IOException {
+    try (exchange) {
+      requests.add(exchange.getRequestMethod() + " " + exchange.getRequestURI());
+      if (!"POST".equals(exchange.getRequestMethod())) {
+        exchange.sendResponseHeaders(204, -1);
+        return;
+      }
+      byte[] body = exchange.getRequestBody().readAllBytes();
+      release.await(5, TimeUnit.SECONDS);
+      if (failuresLeft.getAndDecrement() > 0) {
+        exchange.sendResponseHeaders(500, -1);
+        return;
+      }
+      registered.add(Json.parseObject(body));
+      exchange.sendResponseHeaders(201, body.length);
+      exchange.getResponseBody().write(body);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -0,0 +1,84 @@
+package com.ardetrick.testcontainers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executors;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/** Runs against a stub server answering every request with a fixed body. */
+class FlowTracerTest {
+
+  private static final byte[] BODY = "{\"ok\":true}".getBytes(StandardCharsets.UTF_8);
+
+  private final HttpTransport transport = new HttpTransport(4, null);
+  private HttpServer server;
+  private URI baseUri;
+
+  @BeforeEach
+  void startServer() throws IOException {
+    server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+    server.createContext("/", this::handle);
+    server.setExecutor(Executors.newCachedThreadPool());
+    server.start();
+    baseUri = URI.create("http://127.0.0.1:" + server.getAddress().getPort());
+  }
+
+  @AfterEach
+  void stopServer() {
+    transport.close();
+    server.stop(0);
+  }
+
+  @Test
+  void recordsEachRequestWithItsStatusSizesAndTimings() {
+    FlowTracer tracer = new FlowTracer();
+    HttpRequest get = HttpRequest.newBuilder(baseUri.resolve("/oauth2/auth")).GET().build();
+    HttpRequest post =
+        HttpRequest.newBuilder(baseUri.resolve("/oauth2/token"))
+            .POST(HttpRequest.BodyPublishers.ofString("grant_type=authorization_code"))
+            .build();
+
+    tracer
+        .record(FlowTrace.Kind.AUTHORIZE, get, System.nanoTime(), transport.sendAsync(get))
+        .join();
+    tracer
+        .record(FlowTrace.Kind.CODE_EXCHANGE, post, System.nanoTime(), transport.sendAsync(post))
+        .join();
+    FlowTrace trace = tracer.finish();
+
+    assertThat(trace.hops())
+        .extracting(FlowTrace.Hop::kind, FlowTrace.Hop::method, FlowTrace.Hop::status)
+        .containsExactly(
+            tuple(FlowTrace.Kind.AUTHORIZE, "GET", 200),
+            tuple(FlowTrace.Kind.CODE_EXCHANGE, "POST", 200));
+    FlowTrace.Hop authorize = trace.hops().get(0);
+    FlowTrace.Hop exchange = trace.hops().get(1);
+    assertThat(authorize.uri()).isEqualTo(baseUri.resolve("/oauth2/auth"));
+    assertThat(authorize.requestBytes()).isZero();
+    assertThat(exchange.requestBytes()).isEqualTo("grant_type=authorization_code".length());
+    assertThat(exchange.responseBytes()).isEqualTo(BODY.length);
+    assertThat(exchange.startNanos())
+        .isGreaterThanOrEqualTo(authorize.startNanos() + authorize.durationNanos());
+    assertThat(trace.durationNanos())
+        .isGreaterThanOrEqualTo(exchange.startNanos() + exchange.durationNanos());
+    assertThat(trace.nanos(FlowTrace.Kind.CODE_EXCHANGE)).isEqualTo(exchange.durationNanos());
+    assertThat(trace.nanos(FlowTrace.Kind.LOGIN)).isZero();
+  }
+
+  private void handle(HttpExchange exchange) throws IOException {
+    exchange.getRequestBody().readAllBytes();
+    exchange.sendResponseHeaders(200, BODY.length);
+    exchange.getResponseBody().write(BODY);
+    exchange.close();
+  }
+}
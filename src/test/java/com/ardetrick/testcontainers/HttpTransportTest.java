@@ -0,0 +1,167 @@
+package com.ardetrick.testcontainers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.net.CookieManager;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/** Runs against a stub server, which reports the client connections it actually saw. */
+class HttpTransportTest {
+
+  private final Set<Integer> clientPorts = ConcurrentHashMap.newKeySet();
+  private final AtomicInteger inFlight = new AtomicInteger();
+  private final AtomicInteger maxInFlight = new AtomicInteger();
+  private HttpServer server;
+  private URI baseUri;
+
+  @BeforeEach
+  void startServer() throws IOException {
+    server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+    server.createContext("/", this::handle);
+    server.setExecutor(Executors.newCachedThreadPool());
+    server.start();
+    baseUri = URI.create("http://127.0.0.1:" + server.getAddress().getPort());
+  }
+
+  @AfterEach
+  void stopServer() {
+    server.stop(0);
+  }
+
+  @Test
+  void sequentialRequestsReuseOneConnection() {
+    HttpTransport transport = new HttpTransport(4, null);
+
+    for (int i = 0; i < 10; i++) {
+      assertThat(transport.send(get("/")).statusCode()).isEqualTo(200);
+    }
+
+    assertThat(clientPorts).hasSize(1);
+    HttpTransportStats stats = transport.stats();
+    assertThat(stats.requests()).isEqualTo(10);
+    assertThat(stats.connections()).isEqualTo(1);
+    assertThat(stats.reusedConnections()).isEqualTo(9);
+    assertThat(stats.maxConnections()).isEqualTo(4);
+  }
+
+  @Test
+  void concurrentRequestsNeverExceedMaxConnections() throws Exception {
+    HttpTransport transport = new HttpTransport(2, null);
+    ExecutorService callers = Executors.newFixedThreadPool(8);
+    try {
+      List<Future<Integer>> responses = new ArrayList<>();
+      for (int i = 0; i < 16; i++) {
+        responses.add(callers.submit(() -> transport.send(get("/slow")).statusCode()));
+      }
+      for (Future<Integer> response : responses) {
+        assertThat(response.get()).isEqualTo(200);
+      }
+    } finally {
+      callers.shutdownNow();
+    }
+
+    assertThat(maxInFlight.get()).isEqualTo(2);
+    assertThat(clientPorts).hasSizeLessThanOrEqualTo(2);
+    assertThat(transport.stats().connections()).isEqualTo(2);
+    assertThat(transport.stats().reusedConnections()).isEqualTo(14);
+  }
+
+  @Test
+  void asyncRequestsBeyondMaxConnectionsQueueWithoutBlockingTheCaller() {
+    HttpTransport transport = new HttpTransport(2, null);
+
+    List<CompletableFuture<HttpResponse<byte[]>>> responses = new ArrayList<>();
+    for (int i = 0; i < 40; i++) {
+      responses.add(transport.sendAsync(get("/slow")));
+    }
+
+    assertThat(responses).allMatch(response -> response.join().statusCode() == 200);
+    assertThat(maxInFlight.get()).isEqualTo(2);
+    assertThat(transport.stats().requests()).isEqualTo(40);
+  }
+
+  @Test
+  void blockingSendFailsWithTheAsyncFailure() {
+    HttpTransport transport = new HttpTransport(4, null);
+    server.stop(0);
+
+    assertThatThrownBy(() -> transport.send(get("/")))
+        .isInstanceOf(HydraFlowException.class)
+        .hasMessage("Request to " + baseUri.resolve("/") + " failed")
+        .hasCauseInstanceOf(IOException.class);
+  }
+
+  @Test
+  void cookiesTravelOnlyWithTheirJar() {
+    HttpTransport transport = new HttpTransport(4, null);
+    CookieManager cookies = new CookieManager();
+
+    transport.sendAsync(get("/set-cookies"), cookies).join();
+
+    assertThat(Http.text(transport.sendAsync(get("/echo-cookies"), cookies).join()))
+        .isEqualTo("[a=1; b=2]");
+    assertThat(Http.text(transport.send(get("/echo-cookies")))).isEqualTo("[none]");
+  }
+
+  @Test
+  void closedTransportRejectsRequests() {
+    HttpTransport transport = new HttpTransport(4, null);
+    transport.close();
+
+    assertThatThrownBy(() -> transport.send(get("/")))
+        .isInstanceOf(HydraFlowException.class)
+        .hasMessageContaining("closed");
+  }
+
+  private HttpRequest get(String path) {
+    return HttpRequest.newBuilder(baseUri.resolve(path)).GET().build();
+  }
+
+  private void handle(HttpExchange exchange) throws IOException {
+    clientPorts.add(exchange.getRemoteAddress().getPort());
+    exchange.getRequestBody().readAllBytes();
+    String path = exchange.getRequestURI().getPath();
+    if (path.equals("/slow")) {
+      maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+      try {
+        Thread.sleep(20);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      } finally {
+        inFlight.decrementAndGet();
+      }
+    } else if (path.equals("/set-cookies")) {
+      exchange.getResponseHeaders().add("Set-Cookie", "a=1; Path=/");
+      exchange.getResponseHeaders().add("Set-Cookie", "b=2; Path=/");
+    }
+    String body =
+        path.equals("/echo-cookies")
+            ? exchange.getRequestHeaders().getOrDefault("Cookie", List.of("none")).toString()
+            : "ok";
+    // A response without a body and length would end the connection, so every one has a body.
+    byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+    exchange.sendResponseHeaders(200, bytes.length);
+    exchange.getResponseBody().write(bytes);
+    exchange.close();
+  }
+}
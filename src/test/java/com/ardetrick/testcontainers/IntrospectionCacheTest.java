@@ -0,0 +1,136 @@
+package com.ardetrick.testcontainers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+/** Drives the cache with a hand-set wall clock and stubbed introspection requests. */
+class IntrospectionCacheTest {
+
+  private static final long NOW_MILLIS = 1_800_000_000_000L;
+
+  private final AtomicLong now = new AtomicLong(NOW_MILLIS);
+  private final IntrospectionCache cache =
+      new IntrospectionCache(3, Duration.ofSeconds(5), now::get);
+  private final AtomicInteger requests = new AtomicInteger();
+
+  @Test
+  void activeResponsesAreKeptUntilTheTokensExpiry() {
+    long exp = NOW_MILLIS / 1000 + 60;
+
+    IntrospectionResponse first = lookup("a", active(exp));
+    now.set(exp * 1000 - 1);
+    IntrospectionResponse cached = lookup("a", active(exp));
+    now.set(exp * 1000);
+    IntrospectionResponse expired = lookup("a", active(exp));
+
+    assertThat(cached).isSameAs(first);
+    assertThat(expired).isNotSameAs(first);
+    assertThat(requests).hasValue(2);
+  }
+
+  @Test
+  void inactiveResponsesAreKeptBriefly() {
+    IntrospectionResponse first = lookup("a", inactive());
+    now.addAndGet(4_999);
+    IntrospectionResponse cached = lookup("a", inactive());
+    now.addAndGet(1);
+    lookup("a", inactive());
+
+    assertThat(cached).isSameAs(first);
+    assertThat(requests).hasValue(2);
+  }
+
+  @Test
+  void cachingAnActiveResponseDoesNotParseItsBody() {
+    long exp = NOW_MILLIS / 1000 + 60;
+    byte[] body =
+        ("{\"active\":true,\"sub\":\"alice\",\"exp\":" + exp + ",\"ext\":{\"dept\":\"eng\"}}")
+            .getBytes(StandardCharsets.UTF_8);
+    String[] fields = {"active", "exp"};
+    LazyJsonObject raw = new LazyJsonObject(body, fields, Json.parseFields(body, fields));
+
+    lookup("a", new IntrospectionResponse(true, "alice", null, null, raw));
+    lookup("a", active(exp));
+
+    assertThat(requests).hasValue(1);
+    assertThat(raw.isParsed()).isFalse();
+  }
+
+  @Test
+  void activeResponsesWithoutExpiryAreNotKept() {
+    lookup("a", new IntrospectionResponse(true, null, null, null, Map.of()));
+    lookup("a", new IntrospectionResponse(true, null, null, null, Map.of()));
+
+    assertThat(requests).hasValue(2);
+    assertThat(cache.size()).isZero();
+  }
+
+  @Test
+  void concurrentLookupsShareOneRequest() {
+    CompletableFuture<IntrospectionResponse> pending = new CompletableFuture<>();
+
+    IntrospectionCache.Lookup first = cache.get("a", token -> count(pending));
+    IntrospectionCache.Lookup second = cache.get("a", token -> count(pending));
+    pending.complete(inactive());
+
+    assertThat(first.hit()).isFalse();
+    assertThat(second.hit()).isTrue();
+    assertThat(second.response().join()).isSameAs(first.response().join());
+    assertThat(requests).hasValue(1);
+  }
+
+  @Test
+  void failuresAreNotKept() {
+    IntrospectionCache.Lookup failed =
+        cache.get(
+            "a", token -> count(CompletableFuture.failedFuture(new HydraFlowException("down"))));
+
+    assertThatThrownBy(() -> Http.await(failed.response())).hasMessage("down");
+    lookup("a", inactive());
+    assertThat(requests).hasValue(2);
+  }
+
+  @Test
+  void leastRecentlyUsedEntryIsEvicted() {
+    lookup("a", inactive());
+    lookup("b", inactive());
+    lookup("c", inactive());
+    lookup("a", inactive());
+    lookup("d", inactive());
+    lookup("a", inactive());
+    lookup("b", inactive());
+
+    assertThat(requests).hasValue(5);
+    assertThat(cache.size()).isEqualTo(3);
+    cache.clear();
+    assertThat(cache.size()).isZero();
+  }
+
+  private IntrospectionResponse lookup(String token, IntrospectionResponse response) {
+    return cache
+        .get(token, t -> count(CompletableFuture.completedFuture(response)))
+        .response()
+        .join();
+  }
+
+  private <T> CompletableFuture<T> count(CompletableFuture<T> response) {
+    requests.incrementAndGet();
+    return response;
+  }
+
+  private static IntrospectionResponse active(long exp) {
+    return new IntrospectionResponse(true, "alice", null, "client", Map.of("exp", exp));
+  }
+
+  private static IntrospectionResponse inactive() {
+    return new IntrospectionResponse(false, null, null, null, Map.of("active", false));
+  }
+}
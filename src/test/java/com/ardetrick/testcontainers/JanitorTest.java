@@ -0,0 +1,102 @@
+package com.ardetrick.testcontainers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class JanitorTest {
+
+  private static final Duration CHECK_INTERVAL = Duration.ofMillis(10);
+
+  private final List<JanitorStats.Trigger> triggers = new CopyOnWriteArrayList<>();
+  private final AtomicInteger failuresLeft = new AtomicInteger();
+  private final AtomicLong requests = new AtomicLong();
+  private Janitor janitor;
+
+  @AfterEach
+  void stopJanitor() {
+    if (janitor != null) {
+      janitor.stop();
+    }
+  }
+
+  @Test
+  void intervalRunsRepeatedlyUntilStopped() throws InterruptedException {
+    janitor = new Janitor(Duration.ofMillis(20), 0, CHECK_INTERVAL);
+    janitor.start(this::work, requests::get);
+
+    awaitUntil(() -> janitor.stats().runs() >= 2);
+    janitor.stop();
+    long runs = janitor.stats().runs();
+    Thread.sleep(100);
+
+    assertThat(janitor.stats().runs()).isEqualTo(runs);
+    assertThat(triggers).containsOnly(JanitorStats.Trigger.INTERVAL);
+    assertThat(janitor.stats().clientsDeleted()).isEqualTo(runs);
+    assertThat(janitor.stats().lastRun().trigger()).isEqualTo(JanitorStats.Trigger.INTERVAL);
+  }
+
+  @Test
+  void requestThresholdStartsARunOnceEnoughRequestsWereSent() throws InterruptedException {
+    janitor = new Janitor(null, 10, CHECK_INTERVAL);
+    requests.set(5);
+    janitor.start(this::work, requests::get);
+
+    requests.addAndGet(9);
+    Thread.sleep(100);
+    assertThat(janitor.stats().runs()).isZero();
+    requests.incrementAndGet();
+
+    awaitUntil(() -> janitor.stats().runs() == 1);
+    assertThat(triggers).containsExactly(JanitorStats.Trigger.REQUESTS);
+  }
+
+  @Test
+  void failedScheduledRunIsCountedAndTheScheduleContinues() {
+    failuresLeft.set(1);
+    janitor = new Janitor(Duration.ofMillis(20), 0, CHECK_INTERVAL);
+    janitor.start(this::work, requests::get);
+
+    awaitUntil(() -> janitor.stats().runs() >= 1);
+
+    assertThat(janitor.stats().failures()).isEqualTo(1);
+  }
+
+  @Test
+  void manualRunIsCountedAndItsFailureReachesTheCaller() {
+    janitor = new Janitor(null, 0);
+    janitor.start(this::work, requests::get);
+
+    JanitorStats.Run run = janitor.run(this::work, JanitorStats.Trigger.MANUAL, requests::get);
+    failuresLeft.set(1);
+
+    assertThat(run.trigger()).isEqualTo(JanitorStats.Trigger.MANUAL);
+    assertThatThrownBy(() -> janitor.run(this::work, JanitorStats.Trigger.MANUAL, requests::get))
+        .isInstanceOf(IllegalStateException.class);
+    assertThat(janitor.stats()).isEqualTo(new JanitorStats(1, 0, 1, Duration.ofMillis(3), run));
+  }
+
+  private JanitorStats.Run work(JanitorStats.Trigger trigger) {
+    triggers.add(trigger);
+    if (failuresLeft.getAndDecrement() > 0) {
+      throw new IllegalStateException("hydra janitor failed");
+    }
+    return new JanitorStats.Run(trigger, Duration.ofMillis(3), Duration.ofMillis(2), 1, "");
+  }
+
+  private static void awaitUntil(BooleanSupplier condition) {
+    long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+    while (!condition.getAsBoolean()) {
+      assertThat(System.nanoTime()).as("condition met in time").isLessThan(deadline);
+      Thread.onSpinWait();
+    }
+  }
+}
@@ -3,6 +3,10 @@ package com.ardetrick.testcontainers;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Map;
 import org.junit.jupiter.api.Test;
@@ -59,6 +63,18 @@ class JsonTest {
             List.of(Map.of("a", List.of(1L, 2L)), java.util.Collections.singletonMap("b", null)));
   }
 
+  @Test
+  void parsesTopLevelArray() {
+    assertThat(Json.parseArray(" [{\"client_id\":\"a\"},{\"client_id\":\"b\"}] "))
+        .isEqualTo(List.of(Map.of("client_id", "a"), Map.of("client_id", "b")));
+    assertThat(Json.parseArray("[]")).isEmpty();
+  }
+
+  @Test
+  void rejectsObjectWhereArrayExpected() {
+    assertThatThrownBy(() -> Json.parseArray("{}")).isInstanceOf(JsonParseException.class);
+  }
+
   @Test
   void rejectsUnterminatedArray() {
     assertThatThrownBy(() -> Json.parseObject("{\"a\":[1,2"))
@@ -81,4 +97,79 @@ class JsonTest {
     assertThatThrownBy(() -> Json.parseObject("{\"k\":\"\\uZZZZ\"}"))
         .isInstanceOf(JsonParseException.class);
   }
+
+  @Test
+  void decodesMultiByteUtf8WithAndWithoutEscapes() {
+    var parsed = Json.parseObject("{\"plain\":\"grüße 🙂\",\"escaped\":\"grüße\\t🙂\\u00e9\"}");
+
+    assertThat(parsed.get("plain")).isEqualTo("grüße 🙂");
+    assertThat(parsed.get("escaped")).isEqualTo("grüße\t🙂é");
+  }
+
+  @Test
+  void parsesIntegersAcrossTheLongRange() {
+    var parsed =
+        Json.parseObject(
+            "{\"neg\":-42,\"max\":9223372036854775807,\"big\":92233720368547758070,"
+                + "\"exp\":1e3,\"zero\":-0}");
+
+    assertThat(parsed.get("neg")).isEqualTo(-42L);
+    assertThat(parsed.get("max")).isEqualTo(Long.MAX_VALUE);
+    assertThat(parsed.get("big")).isEqualTo(9.223372036854776E19d);
+    assertThat(parsed.get("exp")).isEqualTo(1000.0d);
+    assertThat(parsed.get("zero")).isEqualTo(0L);
+  }
+
+  @Test
+  void byteInputsParseLikeText() throws IOException {
+    String text = "{\"sub\":\"ü\",\"aud\":[\"a\"],\"exp\":1}";
+    byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+    var expected = Json.parseObject(text);
+
+    assertThat(Json.parseObject(bytes)).isEqualTo(expected);
+    assertThat(Json.parseObject(new ByteArrayInputStream(bytes))).isEqualTo(expected);
+    assertThat(Json.parseObject(ByteBuffer.wrap(bytes))).isEqualTo(expected);
+    ByteBuffer direct = ByteBuffer.allocateDirect(bytes.length + 2);
+    direct.put((byte) ' ').put(bytes).flip().position(1);
+    assertThat(Json.parseObject(direct)).isEqualTo(expected);
+    assertThat(direct.hasRemaining()).isFalse();
+    assertThat(Json.parseArray(ByteBuffer.wrap("[1,2]".getBytes(StandardCharsets.UTF_8))))
+        .isEqualTo(List.of(1L, 2L));
+  }
+
+  @Test
+  void rejectsLoneSign() {
+    assertThatThrownBy(() -> Json.parseObject("{\"n\":-}"))
+        .isInstanceOf(JsonParseException.class)
+        .hasMessage("Invalid number '-' at index 5");
+  }
+
+  @Test
+  void parseFieldsDecodesOnlyTheNamedTopLevelMembers() {
+    byte[] json =
+        ("{\"ext\":{\"sub\":\"nested\",\"l\":[1,{\"a\":\"\\u00fc\"}]},\"sub\":\"top\","
+                + "\"exp\":1.5e3,\"s\\u0063ope\":\"read\",\"active\":true}")
+            .getBytes(StandardCharsets.UTF_8);
+
+    assertThat(Json.parseFields(json, "sub", "scope", "active", "client_id", "ext"))
+        .containsExactly(
+            "top", "read", true, null, Map.of("sub", "nested", "l", List.of(1L, Map.of("a", "ü"))));
+  }
+
+  @Test
+  void parseFieldsValidatesSkippedMembers() {
+    assertThatThrownBy(() -> Json.parseFields(bytes("{\"a\":\"\\x\",\"b\":1}"), "b"))
+        .isInstanceOf(JsonParseException.class)
+        .hasMessage("Invalid escape '\\x' at index 8");
+    assertThatThrownBy(() -> Json.parseFields(bytes("{\"a\":[1 2],\"b\":1}"), "b"))
+        .isInstanceOf(JsonParseException.class)
+        .hasMessage("Expected ',' or ']' at index 8");
+    assertThatThrownBy(() -> Json.parseFields(bytes("{\"a\":{}} x"), "a"))
+        .isInstanceOf(JsonParseException.class)
+        .hasMessage("Unexpected trailing content at index 9");
+  }
+
+  private static byte[] bytes(String json) {
+    return json.getBytes(StandardCharsets.UTF_8);
+  }
 }
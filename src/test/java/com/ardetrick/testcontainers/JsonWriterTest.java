@@ -3,6 +3,7 @@ package com.ardetrick.testcontainers;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
+import java.nio.charset.StandardCharsets;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -19,7 +20,7 @@ class JsonWriterTest {
     object.put("nothing", null);
     object.put("list", List.of("x", "y"));
 
-    assertThat(JsonWriter.write(object))
+    assertThat(text(JsonWriter.write(object)))
         .isEqualTo(
             "{\"s\":\"a\\\"b\",\"n\":3,\"flag\":true,\"nothing\":null,\"list\":[\"x\",\"y\"]}");
   }
@@ -29,7 +30,7 @@ class JsonWriterTest {
     Map<String, Object> session = new LinkedHashMap<>();
     session.put("access_token", Map.of("email", "u@example.com"));
 
-    assertThat(JsonWriter.write(session))
+    assertThat(text(JsonWriter.write(session)))
         .isEqualTo("{\"access_token\":{\"email\":\"u@example.com\"}}");
   }
 
@@ -38,4 +39,54 @@ class JsonWriterTest {
     assertThatThrownBy(() -> JsonWriter.write(Map.of("x", new Object())))
         .isInstanceOf(IllegalArgumentException.class);
   }
+
+  @Test
+  void encodesEscapesAndNonAsciiAsUtf8() {
+    String value = "tab\tnul\u0000unit\u001fé€😀 lone\ud800";
+
+    assertThat(JsonWriter.write(List.of(value)))
+        .isEqualTo("[\"tab\\tnul\\u0000unit\\u001fé€😀 lone?\"]".getBytes(StandardCharsets.UTF_8));
+    assertThat(Json.parseArray(JsonWriter.write(List.of(value.substring(0, 17)))))
+        .containsExactly(value.substring(0, 17));
+  }
+
+  @Test
+  void writesIntegersAcrossTheLongRange() {
+    assertThat(text(JsonWriter.write(List.of(0, -7, 1234567890, Long.MAX_VALUE, Long.MIN_VALUE))))
+        .isEqualTo("[0,-7,1234567890,9223372036854775807,-9223372036854775808]");
+  }
+
+  @Test
+  void templatesWriteTheSameJsonAsTheEquivalentMap() {
+    JsonWriter.Template template =
+        JsonWriter.template("{\"subject\":", ",\"scope\":", ",\"remember\":false}");
+    Map<String, Object> map = new LinkedHashMap<>();
+    map.put("subject", "user \"1\"");
+    map.put("scope", List.of("openid", "offline"));
+    map.put("remember", false);
+
+    assertThat(template.write("user \"1\"", List.of("openid", "offline")))
+        .isEqualTo(JsonWriter.write(map));
+  }
+
+  @Test
+  void templatesRejectTheWrongNumberOfValues() {
+    JsonWriter.Template template = JsonWriter.template("{\"a\":", "}");
+
+    assertThatThrownBy(() -> template.write("x", "y"))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("Template takes 1 values, got 2");
+  }
+
+  @Test
+  void reusesItsBufferAcrossBodiesOfDifferentSizes() {
+    String large = "x".repeat(100_000);
+
+    assertThat(JsonWriter.write(large)).hasSize(100_002);
+    assertThat(text(JsonWriter.write(Map.of("a", 1)))).isEqualTo("{\"a\":1}");
+  }
+
+  private static String text(byte[] json) {
+    return new String(json, StandardCharsets.UTF_8);
+  }
 }
@@ -0,0 +1,247 @@
+package com.ardetrick.testcontainers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PrivateKey;
+import java.security.Signature;
+import java.security.interfaces.ECPublicKey;
+import java.security.interfaces.RSAPublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+/** Signs tokens with freshly generated keys served by an in-memory key source. */
+class JwtVerifierTest {
+
+  private static final String ISSUER = "http://hydra.example/";
+  private static final Instant NOW = Instant.parse("2026-01-01T00:00:00Z");
+
+  private final List<Map<String, Object>> jwks = new ArrayList<>();
+  private final AtomicInteger fetches = new AtomicInteger();
+  private final AtomicInteger refreshes = new AtomicInteger();
+  private final SettableClock clock = new SettableClock();
+  private final JwtVerifier verifier =
+      new JwtVerifier(
+          ISSUER,
+          refresh -> {
+            (refresh ? refreshes : fetches).incrementAndGet();
+            return Map.of("keys", List.copyOf(jwks));
+          },
+          clock);
+
+  @Test
+  void verifiesRs256AndEs256Tokens() throws Exception {
+    KeyPair rsa = rsaKey("rsa-1");
+    KeyPair ec = ecKey("ec-1");
+
+    Map<String, Object> rsaClaims = verifier.verify(sign("RS256", "rsa-1", rsa, claims()));
+    Map<String, Object> ecClaims = verifier.verify(sign("ES256", "ec-1", ec, claims()));
+
+    assertThat(rsaClaims).containsEntry("sub", "alice").containsEntry("iss", ISSUER);
+    assertThat(ecClaims).containsEntry("sub", "alice");
+    assertThat(fetches).hasValue(1);
+    assertThat(refreshes).hasValue(0);
+  }
+
+  @Test
+  void refetchesTheKeySetOnlyForAnUnknownKid() throws Exception {
+    KeyPair first = rsaKey("first");
+    verifier.verify(sign("RS256", "first", first, claims()));
+
+    KeyPair rotated = rsaKey("rotated");
+    verifier.verify(sign("RS256", "rotated", rotated, claims()));
+    verifier.verify(sign("RS256", "rotated", rotated, claims()));
+    verifier.verify(sign("RS256", "first", first, claims()));
+
+    assertThat(fetches).hasValue(1);
+    assertThat(refreshes).hasValue(1);
+    assertThatThrownBy(() -> verifier.verify(sign("RS256", "missing", first, claims())))
+        .isInstanceOf(HydraFlowException.class)
+        .hasMessage("JWT rejected: unknown kid missing");
+    assertThat(refreshes).hasValue(1);
+
+    clock.now = NOW.plusSeconds(5);
+    assertThatThrownBy(() -> verifier.verify(sign("RS256", "missing", first, claims())))
+        .hasMessage("JWT rejected: unknown kid missing");
+    assertThatThrownBy(() -> verifier.verify(sign("RS256", "missing", first, claims())))
+        .hasMessage("JWT rejected: unknown kid missing");
+    assertThat(refreshes).hasValue(2);
+  }
+
+  @Test
+  void keysRetiredFromTheKeySetStopVerifying() throws Exception {
+    KeyPair retired = rsaKey("retired");
+    verifier.verify(sign("RS256", "retired", retired, claims()));
+
+    jwks.clear();
+    KeyPair current = rsaKey("current");
+    verifier.verify(sign("RS256", "current", current, claims()));
+
+    assertThat(refreshes).hasValue(1);
+    assertThatThrownBy(() -> verifier.verify(sign("RS256", "retired", retired, claims())))
+        .hasMessage("JWT rejected: unknown kid retired");
+  }
+
+  @Test
+  void rejectsBadSignaturesAndUnsupportedAlgorithms() throws Exception {
+    KeyPair rsa = rsaKey("rsa-1");
+    KeyPair other = rsaKey("other");
+    ecKey("ec-1");
+
+    assertThatThrownBy(() -> verifier.verify(sign("RS256", "rsa-1", other, claims())))
+        .hasMessage("JWT rejected: invalid signature");
+    assertThatThrownBy(() -> verifier.verify(sign("RS256", "ec-1", rsa, claims())))
+        .hasMessage("JWT rejected: key ec-1 is not usable with RS256");
+    String token = sign("RS256", "rsa-1", rsa, claims());
+    String unsigned = token.substring(0, token.lastIndexOf('.') + 1);
+    assertThatThrownBy(() -> verifier.verify(unsigned))
+        .hasMessage("JWT rejected: invalid signature");
+    String none = encode(Map.of("alg", "none", "kid", "rsa-1")) + "." + encode(claims()) + ".";
+    assertThatThrownBy(() -> verifier.verify(none))
+        .hasMessage("JWT rejected: unsupported alg none");
+    assertThatThrownBy(() -> verifier.verify("not-a-jwt"))
+        .hasMessage("JWT rejected: not a compact JWS");
+  }
+
+  @Test
+  void checksExpiryIssuerAndAudience() throws Exception {
+    KeyPair rsa = rsaKey("rsa-1");
+    Map<String, Object> expired = claims();
+    expired.put("exp", NOW.getEpochSecond() - 10);
+    Map<String, Object> future = claims();
+    future.put("nbf", NOW.getEpochSecond() + 10);
+    Map<String, Object> foreign = claims();
+    foreign.put("iss", "http://elsewhere.example/");
+
+    assertThatThrownBy(() -> verifier.verify(sign("RS256", "rsa-1", rsa, expired)))
+        .hasMessageStartingWith("JWT rejected: expired");
+    assertThatThrownBy(() -> verifier.verify(sign("RS256", "rsa-1", rsa, future)))
+        .hasMessageStartingWith("JWT rejected: not valid before");
+    assertThatThrownBy(() -> verifier.verify(sign("RS256", "rsa-1", rsa, foreign)))
+        .hasMessageStartingWith("JWT rejected: iss");
+    verifier.clockSkew(Duration.ofSeconds(30));
+    assertThat(verifier.verify(sign("RS256", "rsa-1", rsa, expired))).containsKey("exp");
+    assertThat(verifier.verify(sign("RS256", "rsa-1", rsa, future))).containsKey("nbf");
+
+    verifier.audience("client-a");
+    assertThat(verifier.verify(sign("RS256", "rsa-1", rsa, claims()))).containsKey("aud");
+    verifier.audience("client-b");
+    assertThatThrownBy(() -> verifier.verify(sign("RS256", "rsa-1", rsa, claims())))
+        .hasMessageStartingWith("JWT rejected: aud");
+    assertThatIllegalArgumentException()
+        .isThrownBy(() -> verifier.clockSkew(Duration.ofSeconds(-1)))
+        .withMessage("clockSkew must not be negative, was PT-1S");
+  }
+
+  private static final class SettableClock extends Clock {
+
+    private Instant now = NOW;
+
+    @Override
+    public Instant instant() {
+      return now;
+    }
+
+    @Override
+    public ZoneId getZone() {
+      return ZoneOffset.UTC;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+      throw new UnsupportedOperationException();
+    }
+  }
+
+  private static Map<String, Object> claims() {
+    Map<String, Object> claims = new LinkedHashMap<>();
+    claims.put("iss", ISSUER);
+    claims.put("sub", "alice");
+    claims.put("aud", List.of("client-a"));
+    claims.put("exp", NOW.getEpochSecond() + 60);
+    return claims;
+  }
+
+  private KeyPair rsaKey(String kid) throws GeneralSecurityException {
+    KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+    generator.initialize(2048);
+    KeyPair pair = generator.generateKeyPair();
+    RSAPublicKey key = (RSAPublicKey) pair.getPublic();
+    jwks.add(
+        Map.of(
+            "kty",
+            "RSA",
+            "use",
+            "sig",
+            "kid",
+            kid,
+            "n",
+            unsigned(key.getModulus()),
+            "e",
+            unsigned(key.getPublicExponent())));
+    return pair;
+  }
+
+  private KeyPair ecKey(String kid) throws GeneralSecurityException {
+    KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+    generator.initialize(new ECGenParameterSpec("secp256r1"));
+    KeyPair pair = generator.generateKeyPair();
+    ECPublicKey key = (ECPublicKey) pair.getPublic();
+    jwks.add(
+        Map.of(
+            "kty",
+            "EC",
+            "crv",
+            "P-256",
+            "kid",
+            kid,
+            "x",
+            unsigned(key.getW().getAffineX()),
+            "y",
+            unsigned(key.getW().getAffineY())));
+    return pair;
+  }
+
+  private static String sign(String alg, String kid, KeyPair pair, Map<String, Object> claims)
+      throws GeneralSecurityException {
+    String signingInput = encode(Map.of("alg", alg, "kid", kid)) + "." + encode(claims);
+    PrivateKey key = pair.getPrivate();
+    Signature signature =
+        Signature.getInstance(
+            key.getAlgorithm().equals("RSA") ? "SHA256withRSA" : "SHA256withECDSAinP1363Format");
+    signature.initSign(key);
+    signature.update(signingInput.getBytes(StandardCharsets.US_ASCII));
+    return signingInput
+        + "."
+        + Base64.getUrlEncoder().withoutPadding().encodeToString(signature.sign());
+  }
+
+  private static String encode(Map<String, Object> json) {
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(JsonWriter.write(json));
+  }
+
+  private static String unsigned(BigInteger value) {
+    byte[] bytes = value.toByteArray();
+    int offset = bytes[0] == 0 && bytes.length > 1 ? 1 : 0;
+    byte[] trimmed = Arrays.copyOfRange(bytes, offset, bytes.length);
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(trimmed);
+  }
+}
@@ -0,0 +1,82 @@
+package com.ardetrick.testcontainers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import org.junit.jupiter.api.Test;
+
+class LatencyHistogramTest {
+
+  @Test
+  void smallValuesAreExact() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    for (int i = 1; i <= 100; i++) {
+      histogram.record(i);
+    }
+
+    assertThat(histogram.count()).isEqualTo(100);
+    assertThat(histogram.valueAtPercentile(50)).isEqualTo(50);
+    assertThat(histogram.valueAtPercentile(99)).isEqualTo(99);
+    assertThat(histogram.valueAtPercentile(100)).isEqualTo(100);
+    assertThat(histogram.mean()).isEqualTo(50.5);
+    assertThat(histogram.max()).isEqualTo(100);
+  }
+
+  @Test
+  void largeValuesStayWithinBucketPrecision() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    for (long millis = 1; millis <= 1000; millis++) {
+      histogram.record(millis * 1_000_000);
+    }
+
+    assertThat((double) histogram.valueAtPercentile(50)).isCloseTo(500e6, within(500e6 / 64));
+    assertThat((double) histogram.valueAtPercentile(99.9)).isCloseTo(999e6, within(999e6 / 64));
+    assertThat(histogram.valueAtPercentile(100)).isEqualTo(1_000_000_000);
+  }
+
+  @Test
+  void everyValueMapsToABucketThatContainsIt() {
+    for (long value = 0; value < 1 << 20; value = value * 3 / 2 + 1) {
+      int index = LatencyHistogram.index(value);
+      assertThat(LatencyHistogram.highestEquivalentValue(index)).isGreaterThanOrEqualTo(value);
+      if (index > 0) {
+        assertThat(LatencyHistogram.highestEquivalentValue(index - 1)).isLessThan(value);
+      }
+    }
+  }
+
+  @Test
+  void outOfRangeValuesAreClamped() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    histogram.record(-5);
+    histogram.record(Long.MAX_VALUE);
+
+    assertThat(histogram.valueAtPercentile(50)).isZero();
+    assertThat(histogram.max()).isEqualTo(LatencyHistogram.MAX_VALUE);
+  }
+
+  @Test
+  void correctionBackFillsTheRequestsAStalledCallerCouldNotSend() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    for (int i = 0; i < 99; i++) {
+      histogram.record(10);
+    }
+    histogram.record(100);
+
+    LatencyHistogram corrected = histogram.corrected(10);
+
+    // The stalled request hid 9 more that would have waited 90, 80, ... 10.
+    assertThat(corrected.count()).isEqualTo(109);
+    assertThat(corrected.valueAtPercentile(95)).isGreaterThan(histogram.valueAtPercentile(95));
+    assertThat(corrected.max()).isEqualTo(100);
+    assertThat(histogram.corrected(0).count()).isEqualTo(100);
+  }
+
+  @Test
+  void emptyHistogramReportsZero() {
+    LatencyHistogram histogram = new LatencyHistogram();
+
+    assertThat(histogram.valueAtPercentile(99)).isZero();
+    assertThat(histogram.mean()).isZero();
+  }
+}
@@ -0,0 +1,56 @@
+package com.ardetrick.testcontainers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class LazyJsonObjectTest {
+
+  private static final String JSON = "{\"active\":true,\"aud\":[\"a\"],\"ext\":{\"dept\":\"eng\"}}";
+
+  @Test
+  void parsesOnFirstAccessOnly() {
+    LazyJsonObject raw = new LazyJsonObject(JSON.getBytes(StandardCharsets.UTF_8));
+
+    assertThat(raw.isParsed()).isFalse();
+    assertThat(raw.get("aud")).isEqualTo(List.of("a"));
+    assertThat(raw.isParsed()).isTrue();
+  }
+
+  @Test
+  void answersDecodedFieldsWithoutParsing() {
+    byte[] body = JSON.getBytes(StandardCharsets.UTF_8);
+    String[] fields = {"active"};
+    LazyJsonObject raw = new LazyJsonObject(body, fields, Json.parseFields(body, fields));
+
+    assertThat(raw.field("active")).isEqualTo(true);
+    assertThat(raw.isParsed()).isFalse();
+    assertThat(raw.field("aud")).isEqualTo(List.of("a"));
+    assertThat(raw.isParsed()).isTrue();
+  }
+
+  @Test
+  void behavesLikeTheEagerlyParsedMap() {
+    LazyJsonObject raw = new LazyJsonObject(JSON.getBytes(StandardCharsets.UTF_8));
+    Map<String, Object> eager = Json.parseObject(JSON);
+
+    assertThat(raw).isEqualTo(eager);
+    assertThat(raw.hashCode()).isEqualTo(eager.hashCode());
+    assertThat(raw).containsOnlyKeys("active", "aud", "ext");
+    assertThat(raw.toString()).isEqualTo(eager.toString());
+  }
+
+  @Test
+  void isUnmodifiable() {
+    LazyJsonObject raw = new LazyJsonObject(JSON.getBytes(StandardCharsets.UTF_8));
+
+    assertThatThrownBy(() -> raw.put("active", false))
+        .isInstanceOf(UnsupportedOperationException.class);
+    assertThatThrownBy(() -> raw.entrySet().clear())
+        .isInstanceOf(UnsupportedOperationException.class);
+  }
+}
@@ -0,0 +1,187 @@
+package com.ardetrick.testcontainers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.assertj.core.api.InstanceOfAssertFactories;
+import org.junit.jupiter.api.Test;
+
+/** Drives custom operations only, so no container is needed. */
+class LoadGeneratorTest {
+
+  private static final Executor ONE_MILLISECOND =
+      CompletableFuture.delayedExecutor(1, TimeUnit.MILLISECONDS);
+
+  @Test
+  void closedLoopKeepsEachLaneBusyAndCyclesThroughOperations() {
+    AtomicInteger inFlight = new AtomicInteger();
+    AtomicInteger maxInFlight = new AtomicInteger();
+
+    LoadReport report =
+        generator()
+            .operation("slow", () -> delayed(inFlight, maxInFlight))
+            .operation("instant", () -> CompletableFuture.completedFuture("ok"))
+            .fixedConcurrency(4)
+            .duration(Duration.ofMillis(200))
+            .run();
+
+    assertThat(report.mode()).isEqualTo(LoadReport.Mode.CLOSED_LOOP);
+    assertThat(report.concurrency()).isEqualTo(4);
+    assertThat(maxInFlight.get()).isLessThanOrEqualTo(4);
+    LoadReport.Operation slow = report.operation("slow");
+    LoadReport.Operation instant = report.operation("instant");
+    assertThat(slow.requests()).isPositive();
+    assertThat(instant.requests()).isCloseTo(slow.requests(), within(4L));
+    assertThat(slow.errors()).isZero();
+    assertThat(slow.latency().p50()).isGreaterThanOrEqualTo(1_000_000);
+    assertThat(slow.latency()).isEqualTo(slow.uncorrectedLatency());
+  }
+
+  @Test
+  void closedLoopCorrectsAgainstTheExpectedInterval() {
+    LoadReport report =
+        generator()
+            .operation("slow", () -> delayed(new AtomicInteger(), new AtomicInteger()))
+            .fixedConcurrency(2, Duration.ofNanos(100_000))
+            .duration(Duration.ofMillis(200))
+            .run();
+
+    LoadReport.Operation slow = report.operation("slow");
+    // Back-filled requests waited less than the one that stalled their lane.
+    assertThat(slow.latency().mean()).isLessThan(slow.uncorrectedLatency().mean());
+    assertThat(slow.latency().p50()).isLessThan(slow.uncorrectedLatency().p50());
+    assertThat(slow.latency().max()).isGreaterThanOrEqualTo(slow.uncorrectedLatency().max());
+  }
+
+  @Test
+  void openLoopStartsRequestsAtTheTargetRate() {
+    LoadReport report =
+        generator()
+            .operation("instant", () -> CompletableFuture.completedFuture("ok"))
+            .fixedRate(1000)
+            .warmup(Duration.ofMillis(50))
+            .duration(Duration.ofMillis(300))
+            .run();
+
+    assertThat(report.mode()).isEqualTo(LoadReport.Mode.OPEN_LOOP);
+    assertThat(report.targetRate()).isEqualTo(1000);
+    // 300 ms at 1000/s, give or take the scheduler's first and last tick.
+    assertThat(report.operation("instant").requests()).isBetween(280L, 301L);
+    assertThat(report.operation("instant").throughput()).isBetween(930.0, 1010.0);
+  }
+
+  @Test
+  void failuresAndOAuthErrorsCountAsErrors() {
+    AtomicInteger calls = new AtomicInteger();
+
+    LoadReport report =
+        generator()
+            .operation(
+                "flaky",
+                () ->
+                    switch (calls.incrementAndGet() % 3) {
+                      case 0 -> CompletableFuture.failedFuture(new HydraFlowException("down"));
+                      case 1 -> CompletableFuture.completedFuture("ok");
+                      default ->
+                          CompletableFuture.completedFuture(
+                              new FlowResult.OAuthError("invalid_client", null, null));
+                    })
+            .fixedConcurrency(1)
+            .duration(Duration.ofMillis(50))
+            .run();
+
+    LoadReport.Operation flaky = report.operation("flaky");
+    assertThat(flaky.errors()).isCloseTo(flaky.requests() * 2 / 3, within(2L));
+  }
+
+  @Test
+  void anOperationFailingBeforeTheRunFailsTheRun() {
+    LoadGenerator generator =
+        generator()
+            .operation(
+                "broken",
+                () ->
+                    CompletableFuture.completedFuture(
+                        new FlowResult.OAuthError("invalid_scope", null, null)));
+
+    assertThatThrownBy(generator::run)
+        .isInstanceOf(HydraFlowException.class)
+        .hasMessageContaining("Operation 'broken' failed before the run")
+        .hasMessageContaining("invalid_scope");
+  }
+
+  @Test
+  void reportSerializesToJson() {
+    LoadReport report =
+        generator()
+            .operation("instant", () -> CompletableFuture.completedFuture("ok"))
+            .duration(Duration.ofMillis(20))
+            .run();
+
+    Map<String, Object> json = Json.parseObject(report.toJson().getBytes(StandardCharsets.UTF_8));
+
+    assertThat(json)
+        .containsEntry("mode", "closed_loop")
+        .containsEntry("durationNanos", 20_000_000L);
+    assertThat(json.get("operations"))
+        .asInstanceOf(InstanceOfAssertFactories.LIST)
+        .first(InstanceOfAssertFactories.map(String.class, Object.class))
+        .containsEntry("name", "instant")
+        .containsKeys("latencyNanos", "throughput")
+        .extractingByKey("latencyNanos", InstanceOfAssertFactories.map(String.class, Object.class))
+        .containsKeys("p50", "p99", "p999", "max");
+  }
+
+  @Test
+  void rejectsInvalidConfiguration() {
+    LoadGenerator generator = generator();
+
+    assertThatIllegalStateException()
+        .isThrownBy(generator::run)
+        .withMessage("at least one operation must be added before running");
+    assertThatIllegalArgumentException()
+        .isThrownBy(() -> generator.fixedRate(0))
+        .withMessage("requestsPerSecond must be positive, was 0.0");
+    assertThatIllegalArgumentException()
+        .isThrownBy(() -> generator.fixedConcurrency(0))
+        .withMessage("concurrency must be positive, was 0");
+    assertThatIllegalArgumentException()
+        .isThrownBy(() -> generator.fixedConcurrency(1, Duration.ZERO))
+        .withMessage("expectedInterval must be positive, was PT0S");
+    assertThatIllegalArgumentException()
+        .isThrownBy(() -> generator.duration(Duration.ZERO))
+        .withMessage("duration must be positive, was PT0S");
+    assertThatIllegalArgumentException()
+        .isThrownBy(() -> generator.warmup(Duration.ofSeconds(-1)))
+        .withMessage("warmup must not be negative, was PT-1S");
+    generator.operation("a", () -> CompletableFuture.completedFuture(null));
+    assertThatIllegalArgumentException()
+        .isThrownBy(() -> generator.operation("a", () -> CompletableFuture.completedFuture(null)))
+        .withMessage("operation 'a' was already added");
+  }
+
+  private static LoadGenerator generator() {
+    return new LoadGenerator(null, null, null);
+  }
+
+  private static CompletableFuture<String> delayed(
+      AtomicInteger inFlight, AtomicInteger maxInFlight) {
+    maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+    return CompletableFuture.supplyAsync(
+        () -> {
+          inFlight.decrementAndGet();
+          return "ok";
+        },
+        ONE_MILLISECOND);
+  }
+}
@@ -0,0 +1,238 @@
+package com.ardetrick.testcontainers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/** Runs against a stub server whose caching headers each test sets, with a hand-driven clock. */
+class MetadataCacheTest {
+
+  private static final String DISCOVERY = "/.well-known/openid-configuration";
+  private static final String JWKS = "/.well-known/jwks.json";
+
+  private final AtomicLong now = new AtomicLong();
+  private final MetadataCache cache = new MetadataCache(Duration.ofMinutes(5), now::get);
+  private final HttpTransport transport = new HttpTransport(4, null);
+  private final List<String> requests = new CopyOnWriteArrayList<>();
+  private final Map<String, String> responseHeaders = new ConcurrentHashMap<>();
+  private volatile String issuer = "http://issuer.example";
+  private volatile int status = 200;
+  private volatile CountDownLatch release = new CountDownLatch(0);
+  private HttpServer server;
+  private URI publicBaseUri;
+
+  @BeforeEach
+  void startServer() throws IOException {
+    server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+    server.createContext("/", this::handle);
+    server.setExecutor(Executors.newCachedThreadPool());
+    server.start();
+    publicBaseUri = URI.create("http://127.0.0.1:" + server.getAddress().getPort());
+  }
+
+  @AfterEach
+  void stopServer() {
+    transport.close();
+    server.stop(0);
+  }
+
+  @Test
+  void servesFreshDocumentsWithoutRequests() {
+    responseHeaders.put("Cache-Control", "public, max-age=60");
+
+    OpenIdConfiguration first = discovery();
+    now.addAndGet(Duration.ofSeconds(59).toNanos());
+    OpenIdConfiguration second = discovery();
+
+    assertThat(second).isSameAs(first);
+    assertThat(first.issuer()).isEqualTo("http://issuer.example");
+    assertThat(first.jwksUri()).isEqualTo(publicBaseUri.resolve(JWKS));
+    assertThat(requests).containsExactly("GET " + DISCOVERY);
+  }
+
+  @Test
+  void revalidatesStaleDocumentsWithTheirValidators() {
+    responseHeaders.put("Cache-Control", "max-age=60");
+    responseHeaders.put("ETag", "\"v1\"");
+    responseHeaders.put("Last-Modified", "Sat, 17 Oct 2026 10:00:00 GMT");
+
+    OpenIdConfiguration first = discovery();
+    now.addAndGet(Duration.ofSeconds(60).toNanos());
+    OpenIdConfiguration revalidated = discovery();
+    OpenIdConfiguration fresh = discovery();
+
+    assertThat(revalidated).isSameAs(first);
+    assertThat(fresh).isSameAs(first);
+    assertThat(requests)
+        .containsExactly(
+            "GET " + DISCOVERY,
+            "GET "
+                + DISCOVERY
+                + " If-None-Match: \"v1\" If-Modified-Since: Sat, 17 Oct 2026 10:00:00 GMT");
+  }
+
+  @Test
+  void changedDocumentReplacesTheCachedOne() {
+    responseHeaders.put("Cache-Control", "no-cache");
+    responseHeaders.put("ETag", "\"v1\"");
+    discovery();
+
+    issuer = "http://other.example";
+    responseHeaders.put("ETag", "\"v2\"");
+
+    assertThat(discovery().issuer()).isEqualTo("http://other.example");
+    assertThat(requests).hasSize(2);
+  }
+
+  @Test
+  void ageShortensFreshness() {
+    responseHeaders.put("Cache-Control", "max-age=60");
+    responseHeaders.put("Age", "50");
+
+    discovery();
+    now.addAndGet(Duration.ofSeconds(10).toNanos());
+    discovery();
+
+    assertThat(requests).hasSize(2);
+  }
+
+  @Test
+  void noStoreIsNeverCached() {
+    responseHeaders.put("Cache-Control", "no-store");
+    responseHeaders.put("ETag", "\"v1\"");
+
+    discovery();
+    discovery();
+
+    assertThat(requests).containsExactly("GET " + DISCOVERY, "GET " + DISCOVERY);
+  }
+
+  @Test
+  void documentsWithoutCachingHeadersUseTheDefaultFreshness() {
+    discovery();
+    now.addAndGet(Duration.ofMinutes(5).minusNanos(1).toNanos());
+    discovery();
+    now.addAndGet(1);
+    discovery();
+
+    assertThat(requests).containsExactly("GET " + DISCOVERY, "GET " + DISCOVERY);
+  }
+
+  @Test
+  void concurrentReadsShareOneRequest() {
+    release = new CountDownLatch(1);
+    List<CompletableFuture<OpenIdConfiguration>> pending =
+        List.of(
+            cache.openIdConfiguration(transport, publicBaseUri),
+            cache.openIdConfiguration(transport, publicBaseUri),
+            cache.openIdConfiguration(transport, publicBaseUri));
+    release.countDown();
+
+    assertThat(pending.stream().map(CompletableFuture::join).distinct()).hasSize(1);
+    assertThat(requests).hasSize(1);
+  }
+
+  @Test
+  void failuresAreNotCached() {
+    status = 503;
+
+    assertThatThrownBy(this::discovery)
+        .isInstanceOf(HydraFlowException.class)
+        .hasMessageContaining("HTTP 503");
+
+    status = 200;
+    assertThat(discovery().issuer()).isEqualTo("http://issuer.example");
+  }
+
+  @Test
+  void invalidateDropsDocumentsAndValidators() {
+    responseHeaders.put("ETag", "\"v1\"");
+    discovery();
+
+    cache.invalidate();
+    discovery();
+
+    assertThat(requests).containsExactly("GET " + DISCOVERY, "GET " + DISCOVERY);
+  }
+
+  @Test
+  void keySetIsFetchedFromTheAdvertisedJwksUri() {
+    responseHeaders.put("Cache-Control", "max-age=60");
+
+    Map<String, Object> keys = Http.await(cache.jsonWebKeySet(transport, publicBaseUri));
+    Map<String, Object> again = Http.await(cache.jsonWebKeySet(transport, publicBaseUri));
+
+    assertThat(keys).containsEntry("keys", List.of());
+    assertThat(again).isSameAs(keys);
+    assertThat(requests).containsExactly("GET " + DISCOVERY, "GET " + JWKS);
+  }
+
+  @Test
+  void refreshRevalidatesAFreshKeySetButNotTheDiscoveryDocument() {
+    responseHeaders.put("Cache-Control", "max-age=60");
+    responseHeaders.put("ETag", "\"v1\"");
+
+    Map<String, Object> keys = Http.await(cache.jsonWebKeySet(transport, publicBaseUri));
+    Map<String, Object> refreshed =
+        Http.await(cache.refreshJsonWebKeySet(transport, publicBaseUri));
+
+    assertThat(refreshed).isSameAs(keys);
+    assertThat(requests)
+        .containsExactly(
+            "GET " + DISCOVERY, "GET " + JWKS, "GET " + JWKS + " If-None-Match: \"v1\"");
+  }
+
+  private OpenIdConfiguration discovery() {
+    return Http.await(cache.openIdConfiguration(transport, publicBaseUri));
+  }
+
+  private void handle(HttpExchange exchange) throws IOException {
+    try (exchange) {
+      StringBuilder request =
+          new StringBuilder(exchange.getRequestMethod() + " " + exchange.getRequestURI());
+      for (String validator : List.of("If-None-Match", "If-Modified-Since")) {
+        String value = exchange.getRequestHeaders().getFirst(validator);
+        if (value != null) {
+          request.append(' ').append(validator).append(": ").append(value);
+        }
+      }
+      requests.add(request.toString());
+      release.await(5, TimeUnit.SECONDS);
+      responseHeaders.forEach(exchange.getResponseHeaders()::set);
+      String etag = responseHeaders.get("ETag");
+      String ifNoneMatch = exchange.getRequestHeaders().getFirst("If-None-Match");
+      if (etag != null && etag.equals(ifNoneMatch)) {
+        exchange.sendResponseHeaders(304, -1);
+        return;
+      }
+      String json =
+          exchange.getRequestURI().getPath().equals(JWKS)
+              ? "{\"keys\":[]}"
+              : "{\"issuer\":\"" + issuer + "\",\"jwks_uri\":\"" + issuer + JWKS + "\"}";
+      byte[] body = json.getBytes(StandardCharsets.UTF_8);
+      exchange.sendResponseHeaders(status, body.length);
+      exchange.getResponseBody().write(body);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -0,0 +1,57 @@
+package com.ardetrick.testcontainers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class MigratedDatabaseCacheTest {
+
+  @TempDir Path directory;
+
+  @Test
+  void migratesOncePerImageAndServesLaterRequestsFromTheHostFile() {
+    var migrations = new AtomicInteger();
+    var cache = new MigratedDatabaseCache(directory);
+
+    byte[] first = cache.get("sha256:abc", () -> bytes(migrations.incrementAndGet()));
+    // A fresh instance over the same directory stands in for another JVM (e.g. a test fork).
+    byte[] second =
+        new MigratedDatabaseCache(directory)
+            .get("sha256:abc", () -> bytes(migrations.incrementAndGet()));
+
+    assertThat(migrations).hasValue(1);
+    assertThat(second).isEqualTo(first);
+    assertThat(directory.resolve("sha256-abc.sqlite")).exists();
+  }
+
+  @Test
+  void keysEntriesByImage() {
+    var cache = new MigratedDatabaseCache(directory);
+
+    cache.get("sha256:one", () -> bytes(1));
+    byte[] other = cache.get("sha256:two", () -> bytes(2));
+
+    assertThat(other).isEqualTo(bytes(2));
+  }
+
+  @Test
+  void unwritableCacheStillReturnsTheMigratedDatabase() throws Exception {
+    Path notADirectory = Files.createFile(directory.resolve("file"));
+    var migrations = new AtomicInteger();
+    var cache = new MigratedDatabaseCache(notADirectory);
+
+    cache.get("sha256:abc", () -> bytes(migrations.incrementAndGet()));
+    byte[] again = cache.get("sha256:abc", () -> bytes(migrations.incrementAndGet()));
+
+    assertThat(again).isEqualTo(bytes(2));
+    assertThat(migrations).hasValue(2);
+  }
+
+  private static byte[] bytes(int value) {
+    return new byte[] {(byte) value};
+  }
+}
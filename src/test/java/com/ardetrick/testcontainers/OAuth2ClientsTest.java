@@ -0,0 +1,188 @@
+package com.ardetrick.testcontainers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/** Runs against a stub admin API, so paging and error handling are covered without Docker. */
+class OAuth2ClientsTest {
+
+  private final List<String> requests = new CopyOnWriteArrayList<>();
+  private final AtomicInteger inFlight = new AtomicInteger();
+  private final AtomicInteger maxInFlight = new AtomicInteger();
+  private final Set<String> failDeletesOf = ConcurrentHashMap.newKeySet();
+  private final HttpTransport http = new HttpTransport(HttpTransport.DEFAULT_MAX_CONNECTIONS, null);
+  private HttpServer server;
+  private URI adminBaseUri;
+
+  @BeforeEach
+  void startServer() throws IOException {
+    server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+    server.createContext("/", this::handle);
+    server.setExecutor(Executors.newCachedThreadPool());
+    server.start();
+    adminBaseUri = URI.create("http://127.0.0.1:" + server.getAddress().getPort());
+  }
+
+  @AfterEach
+  void stopServer() {
+    server.stop(0);
+  }
+
+  @Test
+  void deleteAllFollowsLinkPaginationAndRevokesTokensBeforeDeletingEachClient() {
+    int deleted = OAuth2Clients.deleteAll(http, adminBaseUri);
+
+    assertThat(deleted).isEqualTo(3);
+    assertThat(requests.subList(0, 2))
+        .containsExactly(
+            "GET /admin/clients?page_size=500",
+            "GET /admin/clients?page_size=500&page_token=second");
+    // Clients are deleted concurrently, but each one's tokens go before the client itself.
+    assertThat(requests.subList(2, requests.size()))
+        .containsExactlyInAnyOrder(
+            "DELETE /admin/oauth2/tokens?client_id=a",
+            "DELETE /admin/clients/a",
+            "DELETE /admin/oauth2/tokens?client_id=b",
+            "DELETE /admin/clients/b",
+            "DELETE /admin/oauth2/tokens?client_id=c%2Fd",
+            "DELETE /admin/clients/c%2Fd");
+    for (String clientId : List.of("a", "b", "c%2Fd")) {
+      assertThat(requests.indexOf("DELETE /admin/oauth2/tokens?client_id=" + clientId))
+          .isLessThan(requests.indexOf("DELETE /admin/clients/" + clientId));
+    }
+  }
+
+  @Test
+  void deleteAllDeletesConcurrentlyAndReportsEveryFailureTogether() {
+    failDeletesOf.addAll(List.of("a", "c%2Fd"));
+
+    assertThatThrownBy(() -> OAuth2Clients.deleteAll(http, adminBaseUri))
+        .isInstanceOf(HydraFlowException.class)
+        .hasMessageStartingWith("2 of 3 client deletions failed:")
+        .hasMessageContaining("'a'")
+        .hasMessageContaining("'c/d'")
+        .satisfies(e -> assertThat(e.getSuppressed()).hasSize(2));
+
+    assertThat(requests).contains("DELETE /admin/clients/b");
+    assertThat(maxInFlight.get()).isGreaterThan(1);
+  }
+
+  @Test
+  void createOrReplaceAllRegistersConcurrentlyAndReportsEveryFailureTogether() {
+    List<Map<String, Object>> registrations = new ArrayList<>();
+    for (int i = 0; i < 6; i++) {
+      registrations.add(Map.of("client_id", "fresh-" + i));
+    }
+    registrations.add(Map.of("client_id", "existing"));
+    registrations.add(Map.of("client_id", "broken-1"));
+    registrations.add(Map.of("client_id", "broken-2"));
+
+    assertThatThrownBy(() -> OAuth2Clients.createOrReplaceAll(http, adminBaseUri, registrations))
+        .isInstanceOf(HydraFlowException.class)
+        .hasMessageStartingWith("2 of 9 client registrations failed:")
+        .hasMessageContaining("'broken-1'")
+        .hasMessageContaining("'broken-2'")
+        .satisfies(e -> assertThat(e.getSuppressed()).hasSize(2));
+
+    // Every registration was attempted, and a 409 still falls back to replacing the client.
+    assertThat(requests).filteredOn(r -> r.equals("POST /admin/clients")).hasSize(9);
+    assertThat(requests).contains("PUT /admin/clients/existing");
+    assertThat(maxInFlight.get()).isGreaterThan(1);
+  }
+
+  private void handle(HttpExchange exchange) throws IOException {
+    String request = exchange.getRequestMethod() + " " + exchange.getRequestURI().getRawPath();
+    if (exchange.getRequestURI().getRawQuery() != null) {
+      request += "?" + exchange.getRequestURI().getRawQuery();
+    }
+    requests.add(request);
+    String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+    if (request.equals("POST /admin/clients")) {
+      handleCreate(exchange, body);
+    } else if (request.equals("PUT /admin/clients/existing")) {
+      respond(exchange, 200, body);
+    } else if (request.equals("GET /admin/clients?page_size=500")) {
+      // Hydra advertises its own idea of its authority; only the query may be trusted.
+      exchange
+          .getResponseHeaders()
+          .add(
+              "Link",
+              "<http://hydra.internal:4445/admin/clients?page_size=500&page_token=second>;"
+                  + " rel=\"next\"");
+      respond(exchange, 200, "[{\"client_id\":\"a\"},{\"client_id\":\"b\"}]");
+    } else if (request.startsWith("GET /admin/clients?")) {
+      respond(exchange, 200, "[{\"client_id\":\"c/d\"}]");
+    } else if (request.startsWith("DELETE /admin/oauth2/tokens?client_id=")) {
+      handleTokenDelete(exchange, request.substring(request.indexOf('=') + 1));
+    } else if (request.equals("DELETE /admin/clients/b")) {
+      // Deleted concurrently by someone else: still the desired end state.
+      respond(exchange, 404, "{}");
+    } else {
+      exchange.sendResponseHeaders(204, -1);
+      exchange.close();
+    }
+  }
+
+  private void handleTokenDelete(HttpExchange exchange, String clientId) throws IOException {
+    maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+    try {
+      Thread.sleep(50);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } finally {
+      inFlight.decrementAndGet();
+    }
+    if (failDeletesOf.contains(clientId)) {
+      respond(exchange, 500, "{\"error\":\"boom\"}");
+    } else {
+      exchange.sendResponseHeaders(204, -1);
+      exchange.close();
+    }
+  }
+
+  private void handleCreate(HttpExchange exchange, String body) throws IOException {
+    maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+    try {
+      // Slow enough that sequential registration could never overlap two requests.
+      Thread.sleep(50);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } finally {
+      inFlight.decrementAndGet();
+    }
+    String clientId = Json.parseObject(body).get("client_id").toString();
+    if (clientId.equals("existing")) {
+      respond(exchange, 409, "{\"error\":\"conflict\"}");
+    } else if (clientId.startsWith("broken")) {
+      respond(exchange, 500, "{\"error\":\"boom\"}");
+    } else {
+      respond(exchange, 201, body);
+    }
+  }
+
+  private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+    byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+    exchange.getResponseHeaders().add("Content-Type", "application/json");
+    exchange.sendResponseHeaders(status, bytes.length);
+    exchange.getResponseBody().write(bytes);
+    exchange.close();
+  }
+}
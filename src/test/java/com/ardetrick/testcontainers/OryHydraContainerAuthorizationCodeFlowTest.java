@@ -8,8 +8,15 @@ import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Base64;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
 import org.junit.jupiter.api.Test;
 
 public class OryHydraContainerAuthorizationCodeFlowTest {
@@ -226,6 +233,156 @@ public class OryHydraContainerAuthorizationCodeFlowTest {
     }
   }
 
+  @Test
+  public void fastModeSkipsOnlyTheConsentHops() {
+    try (var container = OryHydraContainer.builder().build()) {
+      container.start();
+      List<FlowTrace> traces = new ArrayList<>();
+      AuthorizationCodeFlow fast =
+          container
+              .authorizationCodeFlow()
+              .scopes("openid")
+              .subject("fast-user")
+              .fastMode(true)
+              .trace(traces::add);
+
+      FlowResult regular =
+          container
+              .authorizationCodeFlow()
+              .scopes("openid")
+              .subject("fast-user")
+              .trace(traces::add)
+              .execute();
+      FlowResult first = fast.execute();
+      FlowResult repeat = fast.execute();
+
+      assertThat(regular).isInstanceOf(FlowResult.TokenResponse.class);
+      assertThat(first).isInstanceOf(FlowResult.TokenResponse.class);
+      assertThat(repeat).isInstanceOf(FlowResult.TokenResponse.class);
+      // Consent is skipped: no consent redirect and no consent answer. The login hops remain.
+      int regularHops = traces.get(0).hops().size();
+      int firstHops = traces.get(1).hops().size();
+      assertThat(firstHops).isLessThanOrEqualTo(regularHops - 2);
+      assertThat(traces.get(2).hops()).hasSize(firstHops);
+      assertThat(traces.get(1).hops())
+          .extracting(FlowTrace.Hop::kind)
+          .doesNotContain(FlowTrace.Kind.CONSENT)
+          .contains(FlowTrace.Kind.LOGIN);
+      var token = (FlowResult.TokenResponse) repeat;
+      assertThat(container.introspect(token.accessToken()).subject()).isEqualTo("fast-user");
+    }
+  }
+
+  @Test
+  public void tracedFlowRecordsEveryHopInOrder() {
+    try (var container = OryHydraContainer.builder().build()) {
+      container.start();
+
+      AtomicReference<FlowTrace> traced = new AtomicReference<>();
+      FlowResult result = container.authorizationCodeFlow().trace(traced::set).execute();
+
+      assertThat(result).isInstanceOf(FlowResult.TokenResponse.class);
+      FlowTrace trace = traced.get();
+      assertThat(trace.hops())
+          .extracting(FlowTrace.Hop::kind)
+          .startsWith(FlowTrace.Kind.AUTHORIZE)
+          .contains(FlowTrace.Kind.LOGIN, FlowTrace.Kind.CONSENT)
+          .endsWith(FlowTrace.Kind.CODE_EXCHANGE);
+      FlowTrace.Hop exchange = trace.hops().get(trace.hops().size() - 1);
+      assertThat(exchange.method()).isEqualTo("POST");
+      assertThat(exchange.status()).isEqualTo(200);
+      assertThat(exchange.requestBytes()).isPositive();
+      assertThat(exchange.responseBytes()).isPositive();
+      long previousStart = -1;
+      for (FlowTrace.Hop hop : trace.hops()) {
+        assertThat(hop.startNanos()).isGreaterThan(previousStart);
+        assertThat(hop.durationNanos()).isPositive();
+        previousStart = hop.startNanos();
+      }
+      assertThat(trace.durationNanos())
+          .isGreaterThanOrEqualTo(exchange.startNanos() + exchange.durationNanos());
+    }
+  }
+
+  @Test
+  public void manyAsyncFlowsCompleteOnASingleHttpThread() {
+    ExecutorService httpThread = Executors.newSingleThreadExecutor();
+    try (var container = OryHydraContainer.builder().httpExecutor(httpThread).build()) {
+      container.start();
+
+      List<CompletableFuture<FlowResult>> flows = new ArrayList<>();
+      for (int i = 0; i < 20; i++) {
+        flows.add(container.authorizationCodeFlow().subject("async-" + i).executeAsync());
+      }
+
+      for (int i = 0; i < flows.size(); i++) {
+        FlowResult result = flows.get(i).join();
+        assertThat(result).isInstanceOf(FlowResult.TokenResponse.class);
+        String accessToken = ((FlowResult.TokenResponse) result).accessToken();
+        assertThat(container.introspectAsync(accessToken).join().subject()).isEqualTo("async-" + i);
+      }
+    } finally {
+      httpThread.shutdownNow();
+    }
+  }
+
+  @Test
+  public void oneSpecRunsConcurrentlyFromManyThreadsUnaffectedByLaterConfiguration()
+      throws Exception {
+    try (var container = OryHydraContainer.builder().build()) {
+      container.start();
+      var flow =
+          container
+              .authorizationCodeFlow()
+              .subject("spec-user")
+              .scopes("openid", "offline_access")
+              .usePkce(true);
+      AuthorizationCodeFlow.Spec spec = flow.spec();
+      flow.subject("other-user").rejectLogin("login_required", "changed after spec()");
+
+      ExecutorService threads = Executors.newFixedThreadPool(8);
+      List<FlowResult> results;
+      try {
+        List<Callable<FlowResult>> executions = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+          executions.add(spec::execute);
+        }
+        results = new ArrayList<>();
+        for (var future : threads.invokeAll(executions)) {
+          results.add(future.get());
+        }
+      } finally {
+        threads.shutdownNow();
+      }
+
+      assertThat(results).allMatch(FlowResult.TokenResponse.class::isInstance);
+      assertThat(results)
+          .extracting(result -> ((FlowResult.TokenResponse) result).accessToken())
+          .doesNotHaveDuplicates();
+      var first = (FlowResult.TokenResponse) results.get(0);
+      assertThat(container.introspect(first.accessToken()).subject()).isEqualTo("spec-user");
+      assertThat(spec.refresh(first.refreshToken())).isInstanceOf(FlowResult.TokenResponse.class);
+    }
+  }
+
+  @Test
+  public void asyncRejectedLoginCompletesWithTheSameOAuthErrorAsSync() {
+    try (var container = OryHydraContainer.builder().build()) {
+      container.start();
+
+      FlowResult sync =
+          container.authorizationCodeFlow().rejectLogin("login_required", "no user").execute();
+      FlowResult async =
+          container
+              .authorizationCodeFlow()
+              .rejectLogin("login_required", "no user")
+              .executeAsync()
+              .join();
+
+      assertThat(async).isEqualTo(sync);
+    }
+  }
+
   private static void createClient(
       OryHydraContainer container, String clientId, String clientSecret, String scope)
       throws Exception {
@@ -1,5 +1,6 @@
 package com.ardetrick.testcontainers;
 
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
 import static org.assertj.core.api.Assertions.assertThatNullPointerException;
 
 import org.junit.jupiter.api.Test;
@@ -110,4 +111,92 @@ class OryHydraContainerBuilderTest {
         .isThrownBy(() -> builder.waitStrategy(null))
         .withMessage("waitStrategy must not be null");
   }
+
+  @Test
+  void migrationCacheRequiresTheDefaultDsn() {
+    var builder = OryHydraContainer.builder().migrationCache(true).dsn("postgres://db/hydra");
+    assertThatIllegalStateException()
+        .isThrownBy(builder::build)
+        .withMessageContaining("migrationCache requires the default SQLite DSN");
+  }
+
+  @Test
+  void poolRejectsNonPositiveSize() {
+    var builder = OryHydraContainer.builder();
+    org.assertj.core.api.Assertions.assertThatIllegalArgumentException()
+        .isThrownBy(() -> builder.pool(0))
+        .withMessage("pool size must be positive, was 0");
+  }
+
+  @Test
+  void httpConnectionsRejectsNonPositiveCount() {
+    var builder = OryHydraContainer.builder();
+    org.assertj.core.api.Assertions.assertThatIllegalArgumentException()
+        .isThrownBy(() -> builder.httpConnections(0))
+        .withMessage("httpConnections must be positive, was 0");
+  }
+
+  @Test
+  void httpExecutorRejectsNull() {
+    var builder = OryHydraContainer.builder();
+    assertThatNullPointerException()
+        .isThrownBy(() -> builder.httpExecutor(null))
+        .withMessage("executor must not be null");
+  }
+
+  @Test
+  void tokenCacheSizeRejectsNonPositiveCount() {
+    var builder = OryHydraContainer.builder();
+    org.assertj.core.api.Assertions.assertThatIllegalArgumentException()
+        .isThrownBy(() -> builder.tokenCacheSize(0))
+        .withMessage("tokenCacheSize must be positive, was 0");
+  }
+
+  @Test
+  void tokenCacheSkewRejectsNegativeAndNullSkew() {
+    var builder = OryHydraContainer.builder();
+    org.assertj.core.api.Assertions.assertThatIllegalArgumentException()
+        .isThrownBy(() -> builder.tokenCacheSkew(java.time.Duration.ofSeconds(-1)))
+        .withMessage("tokenCacheSkew must not be negative, was PT-1S");
+    assertThatNullPointerException()
+        .isThrownBy(() -> builder.tokenCacheSkew(null))
+        .withMessage("skew must not be null");
+  }
+
+  @Test
+  void janitorTriggersRejectNonPositiveValues() {
+    var builder = OryHydraContainer.builder();
+    org.assertj.core.api.Assertions.assertThatIllegalArgumentException()
+        .isThrownBy(() -> builder.janitorInterval(java.time.Duration.ZERO))
+        .withMessage("janitorInterval must be positive, was PT0S");
+    org.assertj.core.api.Assertions.assertThatIllegalArgumentException()
+        .isThrownBy(() -> builder.janitorRequestThreshold(0))
+        .withMessage("janitorRequestThreshold must be positive, was 0");
+    assertThatNullPointerException()
+        .isThrownBy(() -> builder.janitorInterval(null))
+        .withMessage("interval must not be null");
+  }
+
+  @Test
+  void poolSnapshotCopiesEveryOption() {
+    var builder =
+        OryHydraContainer.builder()
+            .env("LOG_LEVEL", "debug")
+            .client(registration -> registration.clientId("fixture"))
+            .migrationCache(false)
+            .fastSecretHashing(false)
+            .httpConnections(3)
+            .httpExecutor(Runnable::run)
+            .tokenCacheSize(7)
+            .tokenCacheSkew(java.time.Duration.ofSeconds(5))
+            .janitorInterval(java.time.Duration.ofMinutes(2))
+            .janitorRequestThreshold(500);
+
+    var snapshot = new OryHydraContainer.Builder(builder);
+
+    org.assertj.core.api.Assertions.assertThat(snapshot)
+        .hasNoNullFieldsOrProperties()
+        .usingRecursiveComparison()
+        .isEqualTo(builder);
+  }
 }
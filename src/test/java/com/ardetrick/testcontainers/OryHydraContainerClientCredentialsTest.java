@@ -2,6 +2,11 @@ package com.ardetrick.testcontainers;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import org.junit.jupiter.api.Test;
 
 public class OryHydraContainerClientCredentialsTest {
@@ -24,6 +29,79 @@ public class OryHydraContainerClientCredentialsTest {
     }
   }
 
+  @Test
+  public void asyncVariantsReturnTheSameResultsAsBlockingOnes() {
+    try (var container = OryHydraContainer.builder().build()) {
+      container.start();
+      container
+          .createOrReplaceClientAsync(
+              client ->
+                  client
+                      .clientId("async-client")
+                      .clientSecret("async-secret")
+                      .grantTypes("client_credentials"))
+          .join();
+
+      FlowResult token =
+          container
+              .clientCredentialsFlow()
+              .clientId("async-client")
+              .clientSecret("async-secret")
+              .executeAsync()
+              .join();
+      assertThat(token).isInstanceOf(FlowResult.TokenResponse.class);
+      String accessToken = ((FlowResult.TokenResponse) token).accessToken();
+      assertThat(container.introspectAsync(accessToken).join())
+          .isEqualTo(container.introspect(accessToken));
+
+      FlowResult asyncError =
+          container
+              .clientCredentialsFlow()
+              .clientId("async-client")
+              .clientSecret("wrong-secret")
+              .executeAsync()
+              .join();
+      FlowResult syncError =
+          container
+              .clientCredentialsFlow()
+              .clientId("async-client")
+              .clientSecret("wrong-secret")
+              .execute();
+      assertThat(asyncError).isInstanceOf(FlowResult.OAuthError.class).isEqualTo(syncError);
+    }
+  }
+
+  @Test
+  public void fastSecretHashingStillAuthenticatesClientsBySecret() throws Exception {
+    try (var container = OryHydraContainer.builder().fastSecretHashing(true).build()) {
+      container.start();
+      container.createOrReplaceClient(
+          client ->
+              client
+                  .clientId("fast-hash-client")
+                  .clientSecret("right-secret")
+                  .grantTypes("client_credentials")
+                  .tokenEndpointAuthMethod("client_secret_basic"));
+
+      var algorithm = container.execInContainer("printenv", "OAUTH2_HASHERS_ALGORITHM");
+      assertThat(algorithm.getStdout().trim()).isEqualTo("pbkdf2");
+      FlowResult right =
+          container
+              .clientCredentialsFlow()
+              .clientId("fast-hash-client")
+              .clientSecret("right-secret")
+              .execute();
+      assertThat(right).isInstanceOf(FlowResult.TokenResponse.class);
+      FlowResult wrong =
+          container
+              .clientCredentialsFlow()
+              .clientId("fast-hash-client")
+              .clientSecret("wrong-secret")
+              .execute();
+      assertThat(wrong).isInstanceOf(FlowResult.OAuthError.class);
+    }
+  }
+
   @Test
   public void clientCredentialsFlowWithWrongSecretReturnsOAuthError() throws Exception {
     try (var container = OryHydraContainer.builder().build()) {
@@ -56,4 +134,99 @@ public class OryHydraContainerClientCredentialsTest {
       assertThat(((FlowResult.OAuthError) result).error()).isEqualTo("invalid_client");
     }
   }
+
+  @Test
+  public void cachedFlowsShareOneTokenPerClientAndScopes() {
+    try (var container = OryHydraContainer.builder().build()) {
+      container.start();
+      container.createOrReplaceClient(
+          client ->
+              client
+                  .clientId("cached-client")
+                  .clientSecret("cached-secret")
+                  .grantTypes("client_credentials")
+                  .scope("read", "write"));
+
+      List<CompletableFuture<FlowResult>> concurrent = new ArrayList<>();
+      for (int i = 0; i < 10; i++) {
+        concurrent.add(cachedFlow(container).scopes("read", "write").executeAsync());
+      }
+      Set<FlowResult> results = new HashSet<>();
+      concurrent.forEach(result -> results.add(result.join()));
+      FlowResult again = cachedFlow(container).scopes("write", "read").execute();
+      FlowResult otherScopes = cachedFlow(container).scopes("read").execute();
+      FlowResult uncached =
+          container
+              .clientCredentialsFlow()
+              .clientId("cached-client")
+              .clientSecret("cached-secret")
+              .scopes("read", "write")
+              .execute();
+
+      assertThat(results).hasSize(1).containsExactly(again);
+      assertThat(otherScopes).isNotEqualTo(again);
+      assertThat(uncached).isNotEqualTo(again);
+      TokenCacheStats stats = container.tokenCacheStats();
+      assertThat(stats.misses()).isEqualTo(2);
+      assertThat(stats.hits() + stats.coalesced()).isEqualTo(10);
+
+      container.reset();
+
+      assertThat(container.tokenCacheStats().size()).isZero();
+    }
+  }
+
+  @Test
+  public void flowsWithTheSameConfigurationShareOneEphemeralClient() {
+    try (var container = OryHydraContainer.builder().build()) {
+      container.start();
+
+      String first = ephemeralClientId(container, container.clientCredentialsFlow());
+      String second = ephemeralClientId(container, container.clientCredentialsFlow());
+      String scoped =
+          ephemeralClientId(container, container.clientCredentialsFlow().scopes("offline"));
+
+      assertThat(second).isEqualTo(first);
+      assertThat(scoped).isNotEqualTo(first);
+
+      container.reset();
+
+      assertThat(ephemeralClientId(container, container.clientCredentialsFlow()))
+          .isNotEqualTo(first);
+    }
+  }
+
+  @Test
+  public void specIsUnaffectedByLaterConfigurationAndSharesTheEphemeralClient() {
+    try (var container = OryHydraContainer.builder().build()) {
+      container.start();
+      var flow = container.clientCredentialsFlow();
+      ClientCredentialsFlow.Spec spec = flow.spec();
+      flow.clientId("unknown-client").clientSecret("unknown-secret");
+
+      List<CompletableFuture<FlowResult>> concurrent = new ArrayList<>();
+      for (int i = 0; i < 8; i++) {
+        concurrent.add(spec.executeAsync());
+      }
+
+      assertThat(concurrent)
+          .extracting(future -> (FlowResult.TokenResponse) future.join())
+          .extracting(token -> container.introspect(token.accessToken()).clientId())
+          .containsOnly(ephemeralClientId(container, container.clientCredentialsFlow()));
+      assertThat(flow.execute()).isInstanceOf(FlowResult.OAuthError.class);
+    }
+  }
+
+  private static String ephemeralClientId(OryHydraContainer container, ClientCredentialsFlow flow) {
+    var token = (FlowResult.TokenResponse) flow.execute();
+    return container.introspect(token.accessToken()).clientId();
+  }
+
+  private static ClientCredentialsFlow cachedFlow(OryHydraContainer container) {
+    return container
+        .clientCredentialsFlow()
+        .clientId("cached-client")
+        .clientSecret("cached-secret")
+        .cached(true);
+  }
 }
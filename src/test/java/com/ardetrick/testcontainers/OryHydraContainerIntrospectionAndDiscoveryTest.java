@@ -2,8 +2,10 @@ package com.ardetrick.testcontainers;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 import org.junit.jupiter.api.Test;
 
 public class OryHydraContainerIntrospectionAndDiscoveryTest {
@@ -35,6 +37,35 @@ public class OryHydraContainerIntrospectionAndDiscoveryTest {
     }
   }
 
+  @Test
+  public void batchIntrospectionKeepsTokenOrderAndCachesRepeats() {
+    try (var container = OryHydraContainer.builder().build()) {
+      container.start();
+      List<String> tokens =
+          container.tokenMinter().subjects(20, i -> "batch-" + i).mint().tokens().stream()
+              .map(FlowResult.TokenResponse::accessToken)
+              .collect(Collectors.toCollection(ArrayList::new));
+      tokens.add("not-a-real-token");
+
+      IntrospectionResults first = container.tokenIntrospector().cached(true).introspect(tokens);
+      IntrospectionResults second = container.tokenIntrospector().cached(true).introspect(tokens);
+
+      for (int i = 0; i < 20; i++) {
+        assertThat(first.responses().get(i).active()).isTrue();
+        assertThat(first.responses().get(i).subject()).isEqualTo("batch-" + i);
+      }
+      assertThat(first.responses().get(20).active()).isFalse();
+      assertThat(first.requests()).isEqualTo(21);
+      assertThat(second.requests()).isZero();
+      assertThat(second.cacheHits()).isEqualTo(21);
+      assertThat(second.responses()).isEqualTo(first.responses());
+
+      container.reset();
+      assertThat(container.tokenIntrospector().cached(true).introspect(tokens).requests())
+          .isEqualTo(21);
+    }
+  }
+
   @Test
   public void openIdConfigurationStripsPathBearingIssuerPrefix() {
     try (var container =
@@ -0,0 +1,54 @@
+package com.ardetrick.testcontainers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+
+public class OryHydraContainerJanitorTest {
+
+  @Test
+  public void manualRunPurgesAndDeletesEphemeralClientsUnusedSinceThePreviousRun() {
+    try (var container = OryHydraContainer.builder().env("TTL_ACCESS_TOKEN", "1s").build()) {
+      container.start();
+      var token = (FlowResult.TokenResponse) container.clientCredentialsFlow().execute();
+      String clientId = container.introspect(token.accessToken()).clientId();
+
+      JanitorStats.Run first = container.runJanitor();
+      JanitorStats.Run second = container.runJanitor();
+
+      assertThat(first.trigger()).isEqualTo(JanitorStats.Trigger.MANUAL);
+      assertThat(first.clientsDeleted()).isZero();
+      assertThat(second.clientsDeleted()).isEqualTo(1);
+      assertThat(second.elapsed()).isGreaterThanOrEqualTo(second.commandElapsed());
+      assertThat(container.janitorStats().runs()).isEqualTo(2);
+      assertThat(container.janitorStats().clientsDeleted()).isEqualTo(1);
+      assertThat(container.janitorStats().lastRun()).isEqualTo(second);
+      // The next flow with the same registration registers a new client.
+      var next = (FlowResult.TokenResponse) container.clientCredentialsFlow().execute();
+      assertThat(container.introspect(next.accessToken()).clientId()).isNotEqualTo(clientId);
+    }
+  }
+
+  @Test
+  public void scheduledRunsStartWhileTheContainerRuns() throws InterruptedException {
+    try (var container =
+        OryHydraContainer.builder()
+            .janitorInterval(Duration.ofMillis(200))
+            .janitorRequestThreshold(5)
+            .build()) {
+      container.start();
+      for (int i = 0; i < 5; i++) {
+        container.clientCredentialsFlow().execute();
+      }
+
+      long deadline = System.nanoTime() + Duration.ofSeconds(30).toNanos();
+      while (container.janitorStats().runs() < 2 && System.nanoTime() < deadline) {
+        Thread.sleep(100);
+      }
+
+      assertThat(container.janitorStats().runs()).isGreaterThanOrEqualTo(2);
+      assertThat(container.janitorStats().failures()).isZero();
+    }
+  }
+}
@@ -0,0 +1,51 @@
+package com.ardetrick.testcontainers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+public class OryHydraContainerJwtVerifierTest {
+
+  @Test
+  public void verifiesIdTokensWithoutIntrospection() {
+    try (var container = OryHydraContainer.builder().build()) {
+      container.start();
+      var token =
+          (FlowResult.TokenResponse)
+              container.authorizationCodeFlow().scopes("openid").subject("jwt-user").execute();
+      String clientId = container.introspect(token.accessToken()).clientId();
+
+      Map<String, Object> claims =
+          container.jwtVerifier().audience(clientId).verify(token.idToken());
+
+      assertThat(claims).containsEntry("sub", "jwt-user");
+      assertThatThrownBy(
+              () -> container.jwtVerifier().audience("someone-else").verify(token.idToken()))
+          .isInstanceOf(HydraFlowException.class)
+          .hasMessageContaining("aud");
+    }
+  }
+
+  @Test
+  public void verifiesJwtAccessTokens() {
+    try (var container =
+        OryHydraContainer.builder().env("STRATEGIES_ACCESS_TOKEN", "jwt").build()) {
+      container.start();
+      var token = (FlowResult.TokenResponse) container.clientCredentialsFlow().execute();
+
+      JwtVerifier verifier = container.jwtVerifier();
+      for (int i = 0; i < 1000; i++) {
+        verifier.verify(token.accessToken());
+      }
+
+      assertThat(verifier.verify(token.accessToken()))
+          .containsEntry("iss", container.openIdConfiguration().issuer());
+      String tampered = token.accessToken().substring(0, token.accessToken().length() - 4) + "AAAA";
+      assertThatThrownBy(() -> verifier.verify(tampered))
+          .isInstanceOf(HydraFlowException.class)
+          .hasMessageContaining("signature");
+    }
+  }
+}
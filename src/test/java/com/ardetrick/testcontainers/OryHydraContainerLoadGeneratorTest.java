@@ -0,0 +1,56 @@
+package com.ardetrick.testcontainers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+
+public class OryHydraContainerLoadGeneratorTest {
+
+  @Test
+  public void closedLoopRunDrivesEveryOperationWithoutErrors() {
+    try (var container = OryHydraContainer.builder().build()) {
+      container.start();
+
+      LoadReport report =
+          container
+              .loadGenerator()
+              .clientCredentials(flow -> {})
+              .refresh(flow -> flow.subject("load-user"))
+              .introspection(flow -> {})
+              .fixedConcurrency(4)
+              .warmup(Duration.ofMillis(200))
+              .duration(Duration.ofSeconds(1))
+              .run();
+
+      for (String name : new String[] {"client_credentials", "refresh_token", "introspection"}) {
+        LoadReport.Operation operation = report.operation(name);
+        assertThat(operation.requests()).as(name).isPositive();
+        assertThat(operation.errors()).as(name).isZero();
+        assertThat(operation.latency().p50()).as(name).isPositive();
+      }
+      assertThat(Json.parseObject(report.toJson().getBytes(StandardCharsets.UTF_8)))
+          .containsEntry("mode", "closed_loop");
+    }
+  }
+
+  @Test
+  public void openLoopRunStartsRequestsAtTheTargetRate() {
+    try (var container = OryHydraContainer.builder().build()) {
+      container.start();
+
+      LoadReport report =
+          container
+              .loadGenerator()
+              .clientCredentials(flow -> {})
+              .fixedRate(50)
+              .duration(Duration.ofSeconds(1))
+              .run();
+
+      LoadReport.Operation operation = report.operation("client_credentials");
+      assertThat(operation.requests()).isBetween(45L, 51L);
+      assertThat(operation.errors()).isZero();
+    }
+  }
+}
@@ -0,0 +1,27 @@
+package com.ardetrick.testcontainers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+public class OryHydraContainerMigrationCacheTest {
+
+  @Test
+  public void containersStartedFromTheCachedDatabaseServeTokens() {
+    // The first container populates the cache (or reuses one from an earlier run); the second is
+    // guaranteed to start from it.
+    for (int i = 0; i < 2; i++) {
+      try (var container = OryHydraContainer.builder().migrationCache(true).build()) {
+        container.start();
+
+        FlowResult result = container.clientCredentialsFlow().execute();
+
+        assertThat(result).isInstanceOf(FlowResult.TokenResponse.class);
+        var token =
+            (FlowResult.TokenResponse)
+                container.authorizationCodeFlow().subject("cached").execute();
+        assertThat(container.introspect(token.accessToken()).subject()).isEqualTo("cached");
+      }
+    }
+  }
+}
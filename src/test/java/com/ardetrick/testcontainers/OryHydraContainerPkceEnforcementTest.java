@@ -37,7 +37,8 @@ public class OryHydraContainerPkceEnforcementTest {
               .cookieHandler(new CookieManager())
               .followRedirects(HttpClient.Redirect.NEVER)
               .build();
-      var admin = new AdminClient(http, URI.create(container.adminBaseUriString()));
+      var admin =
+          new AdminClient(HttpTransport.shared(), URI.create(container.adminBaseUriString()));
 
       Map<String, Object> registration = new LinkedHashMap<>();
       registration.put("client_id", "pkce-client");
@@ -47,7 +48,7 @@ public class OryHydraContainerPkceEnforcementTest {
       registration.put("redirect_uris", List.of(REDIRECT_URI));
       registration.put("scope", "openid");
       registration.put("token_endpoint_auth_method", "client_secret_basic");
-      admin.createClient(registration);
+      admin.createClientAsync(registration).join();
 
       var verifier = "correct-verifier-correct-verifier-correct-verifier-1234";
       var challenge =
@@ -80,12 +81,15 @@ public class OryHydraContainerPkceEnforcementTest {
         var query = location.getRawQuery() == null ? "" : location.getRawQuery();
         if (query.contains("login_challenge=")) {
           current =
-              onPublicPort(admin.acceptLogin(param(query, "login_challenge"), "u"), publicBase);
+              onPublicPort(
+                  admin.acceptLoginAsync(param(query, "login_challenge"), "u").join(), publicBase);
         } else if (query.contains("consent_challenge=")) {
           current =
               onPublicPort(
-                  admin.acceptConsent(
-                      param(query, "consent_challenge"), List.of("openid"), List.of(), Map.of()),
+                  admin
+                      .acceptConsentAsync(
+                          param(query, "consent_challenge"), List.of("openid"), List.of(), Map.of())
+                      .join(),
                   publicBase);
         } else if ("localhost".equals(location.getHost())
             && "/callback".equals(location.getPath())) {
@@ -99,12 +103,15 @@ public class OryHydraContainerPkceEnforcementTest {
       // Exchange the code with a verifier that does NOT match the challenge above.
       var result =
           TokenEndpointClient.authorizationCode(
-              publicBase.resolve("/oauth2/token"),
-              "pkce-client",
-              "pkce-secret",
-              code,
-              REDIRECT_URI,
-              "wrong-verifier-wrong-verifier-wrong-verifier-9999999999");
+                  HttpTransport.shared(),
+                  publicBase.resolve("/oauth2/token"),
+                  "pkce-client",
+                  "pkce-secret",
+                  code,
+                  REDIRECT_URI,
+                  "wrong-verifier-wrong-verifier-wrong-verifier-9999999999",
+                  null)
+              .join();
 
       assertThat(result)
           .as("Hydra must reject a code exchange whose verifier does not match the challenge")
@@ -0,0 +1,55 @@
+package com.ardetrick.testcontainers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+import org.junit.jupiter.api.Test;
+
+public class OryHydraContainerPoolTest {
+
+  @Test
+  public void leasedContainersAreStartedAndResetOnReturn() {
+    try (var pool = OryHydraContainer.builder().migrationCache(true).pool(1)) {
+      String firstContainerId;
+      try (var lease = pool.lease()) {
+        var hydra = lease.container();
+        assertThat(hydra.isRunning()).isTrue();
+        hydra.createOrReplaceClient(
+            client ->
+                client
+                    .clientId("leased-client")
+                    .clientSecret("secret")
+                    .grantTypes("client_credentials"));
+        firstContainerId = hydra.getContainerId();
+      }
+
+      try (var lease = pool.lease()) {
+        var hydra = lease.container();
+        assertThat(hydra.isRunning()).isTrue();
+        // The same container comes back, reset: state from the previous lease is gone.
+        assertThat(hydra.getContainerId()).isEqualTo(firstContainerId);
+        var result =
+            hydra
+                .clientCredentialsFlow()
+                .clientId("leased-client")
+                .clientSecret("secret")
+                .execute();
+        assertThat(result).isInstanceOf(FlowResult.OAuthError.class);
+      }
+
+      var stats = pool.stats();
+      assertThat(stats.size()).isEqualTo(1);
+      assertThat(stats.leases()).isEqualTo(2);
+      // The first lease raced the initial start; the second may have raced the reset.
+      assertThat(stats.emptyPoolLeases()).isBetween(1L, 2L);
+    }
+  }
+
+  @Test
+  public void closedPoolRejectsLeases() {
+    var pool = OryHydraContainer.builder().pool(1);
+    pool.close();
+
+    assertThatIllegalStateException().isThrownBy(pool::lease).withMessage("pool is closed");
+  }
+}
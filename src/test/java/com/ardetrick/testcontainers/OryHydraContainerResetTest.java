@@ -0,0 +1,66 @@
+package com.ardetrick.testcontainers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+public class OryHydraContainerResetTest {
+
+  @Test
+  public void resetDropsClientsAndTokensButKeepsDeclaredFixtures() {
+    try (var container =
+        OryHydraContainer.builder()
+            .client(
+                client ->
+                    client
+                        .clientId("fixture-service")
+                        .clientSecret("fixture-secret")
+                        .grantTypes("client_credentials")
+                        .tokenEndpointAuthMethod("client_secret_basic"))
+            .build()) {
+      container.start();
+      container.createOrReplaceClient(
+          client ->
+              client
+                  .clientId("mid-test-app")
+                  .clientSecret("mid-test-secret")
+                  .grantTypes("client_credentials")
+                  .tokenEndpointAuthMethod("client_secret_basic"));
+      var userToken =
+          (FlowResult.TokenResponse)
+              container.authorizationCodeFlow().scopes("openid", "offline_access").execute();
+      var fixtureToken =
+          (FlowResult.TokenResponse)
+              container
+                  .clientCredentialsFlow()
+                  .clientId("fixture-service")
+                  .clientSecret("fixture-secret")
+                  .execute();
+
+      container.reset();
+
+      // Tokens minted before the reset are gone, including those of re-declared fixtures.
+      assertThat(container.introspect(userToken.accessToken()).active()).isFalse();
+      assertThat(container.introspect(userToken.refreshToken()).active()).isFalse();
+      assertThat(container.introspect(fixtureToken.accessToken()).active()).isFalse();
+      // Clients registered after start are gone; declared fixtures are back.
+      var midTest =
+          container
+              .clientCredentialsFlow()
+              .clientId("mid-test-app")
+              .clientSecret("mid-test-secret")
+              .execute();
+      assertThat(midTest).isInstanceOf(FlowResult.OAuthError.class);
+      var fixture =
+          container
+              .clientCredentialsFlow()
+              .clientId("fixture-service")
+              .clientSecret("fixture-secret")
+              .execute();
+      assertThat(fixture).isInstanceOf(FlowResult.TokenResponse.class);
+      // The reset container serves full flows again.
+      assertThat(container.authorizationCodeFlow().execute())
+          .isInstanceOf(FlowResult.TokenResponse.class);
+    }
+  }
+}
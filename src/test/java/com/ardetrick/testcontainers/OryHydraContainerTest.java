@@ -1,12 +1,16 @@
 package com.ardetrick.testcontainers;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
 
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.time.Duration;
 import java.util.List;
+import java.util.Objects;
+import java.util.stream.Stream;
 import org.junit.jupiter.api.Test;
 import org.testcontainers.containers.wait.strategy.Wait;
 
@@ -105,4 +109,49 @@ public class OryHydraContainerTest {
       assertThat(container.isRunning()).isTrue();
     }
   }
+
+  @Test
+  public void startupTimingsBreakDownTheLatestStart() {
+    try (var container = OryHydraContainer.builder().build()) {
+      assertThatIllegalStateException().isThrownBy(container::startupTimings);
+
+      container.start();
+
+      var timings = container.startupTimings();
+      assertThat(timings.total()).isPositive();
+      assertThat(timings.migration()).isNotNull();
+      var phases =
+          Stream.of(
+                  timings.imageResolution(),
+                  timings.containerCreation(),
+                  timings.migration(),
+                  timings.serverStartup(),
+                  timings.readinessWait(),
+                  timings.fixtureRegistration())
+              .filter(Objects::nonNull)
+              .reduce(Duration.ZERO, Duration::plus);
+      assertThat(phases).isEqualTo(timings.total());
+    }
+  }
+
+  @Test
+  public void flowsAndHelpersShareOneKeepAliveTransport() {
+    try (var container = OryHydraContainer.builder().httpConnections(4).build()) {
+      assertThatIllegalStateException().isThrownBy(container::httpStats);
+
+      container.start();
+      long before = container.httpStats().requests();
+      for (int i = 0; i < 5; i++) {
+        container.clientCredentialsFlow().execute();
+      }
+      container.openIdConfiguration();
+
+      var stats = container.httpStats();
+      // Each client-credentials flow registers a client and requests a token.
+      assertThat(stats.requests() - before).isEqualTo(11);
+      assertThat(stats.connections()).isLessThanOrEqualTo(4);
+      assertThat(stats.reusedConnections()).isPositive();
+      assertThat(stats.maxConnections()).isEqualTo(4);
+    }
+  }
 }
@@ -0,0 +1,92 @@
+package com.ardetrick.testcontainers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+public class OryHydraContainerTokenMinterTest {
+
+  @Test
+  public void mintsOneTokenPerSubjectInOrderWithOneClient() {
+    try (var container = OryHydraContainer.builder().build()) {
+      container.start();
+
+      MintedTokens minted =
+          container
+              .tokenMinter()
+              .subjects(40, i -> "user-" + i)
+              .scopes("openid", "offline_access")
+              .claims(subject -> Map.of("email", subject + "@example.com"))
+              .concurrency(8)
+              .mint();
+
+      assertThat(minted.failures()).isEmpty();
+      assertThat(minted.items()).hasSize(40);
+      assertThat(minted.tokensPerSecond()).isPositive();
+      for (int i = 0; i < 40; i++) {
+        MintedTokens.Item item = minted.items().get(i);
+        assertThat(item.subject()).isEqualTo("user-" + i);
+        IntrospectionResponse introspection = container.introspect(item.token().accessToken());
+        assertThat(introspection.subject()).isEqualTo("user-" + i);
+        assertThat(introspection.raw().get("ext"))
+            .isEqualTo(Map.of("email", "user-" + i + "@example.com"));
+        assertThat(idTokenPayload(item.token())).contains("\"sub\":\"user-" + i + "\"");
+      }
+      assertThat(minted.tokens())
+          .extracting(token -> container.introspect(token.accessToken()).clientId())
+          .containsOnly(container.introspect(minted.tokens().get(0).accessToken()).clientId());
+    }
+  }
+
+  @Test
+  public void emptyBatchMintsNothing() {
+    try (var container = OryHydraContainer.builder().build()) {
+      container.start();
+
+      MintedTokens minted = container.tokenMinter().subjects(List.of()).mint();
+
+      assertThat(minted.items()).isEmpty();
+      assertThat(minted.tokensPerSecond()).isZero();
+    }
+  }
+
+  @Test
+  public void resetRevokesTheSessionsOfMintedSubjects() {
+    try (var container = OryHydraContainer.builder().build()) {
+      container.start();
+      String token =
+          container.tokenMinter().subjects(List.of("minted")).mint().tokens().get(0).accessToken();
+
+      container.reset();
+
+      assertThat(container.introspect(token).active()).isFalse();
+    }
+  }
+
+  @Test
+  public void rejectsInvalidConfiguration() {
+    TokenMinter minter =
+        new TokenMinter(URI.create("http://127.0.0.1:1"), URI.create("http://127.0.0.1:1"));
+
+    assertThatThrownBy(() -> minter.concurrency(0))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("concurrency must be positive, was 0");
+    assertThatThrownBy(() -> minter.subjects(-1, i -> "x"))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("count must not be negative, was -1");
+    assertThatThrownBy(minter::mint)
+        .isInstanceOf(IllegalStateException.class)
+        .hasMessage("subjects must be set before minting");
+  }
+
+  private static String idTokenPayload(FlowResult.TokenResponse token) {
+    return new String(
+        Base64.getUrlDecoder().decode(token.idToken().split("\\.")[1]), StandardCharsets.UTF_8);
+  }
+}
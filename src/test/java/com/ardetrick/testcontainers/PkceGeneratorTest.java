@@ -0,0 +1,83 @@
+package com.ardetrick.testcontainers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.Test;
+
+class PkceGeneratorTest {
+
+  private final List<Runnable> refills = new ArrayList<>();
+  private final PkceGenerator generator = new PkceGenerator(8, refills::add);
+
+  @Test
+  void challengeIsTheS256HashOfTheVerifier() throws Exception {
+    PkceGenerator.Secrets secrets = generator.next();
+
+    byte[] hash =
+        MessageDigest.getInstance("SHA-256")
+            .digest(secrets.codeVerifier().getBytes(StandardCharsets.US_ASCII));
+    assertThat(secrets.codeChallenge())
+        .isEqualTo(Base64.getUrlEncoder().withoutPadding().encodeToString(hash));
+    assertThat(secrets.codeVerifier()).hasSize(86).matches("[A-Za-z0-9_-]+");
+    assertThat(secrets.state()).hasSize(22).matches("[A-Za-z0-9_-]+");
+  }
+
+  @Test
+  void emptyPoolGeneratesInlineAndSchedulesOneRefill() {
+    generator.next();
+    generator.next();
+
+    assertThat(refills).hasSize(1);
+    assertThat(generator.pooled()).isZero();
+    refills.get(0).run();
+    assertThat(generator.pooled()).isEqualTo(8);
+
+    for (int i = 0; i < 4; i++) {
+      generator.next();
+    }
+    assertThat(refills).hasSize(1);
+    generator.next();
+    assertThat(refills).hasSize(2);
+    assertThat(generator.pooled()).isEqualTo(3);
+  }
+
+  @Test
+  void concurrentCallersNeverReceiveTheSameValues() throws Exception {
+    PkceGenerator shared = new PkceGenerator(64, Runnable::run);
+    Set<String> states = ConcurrentHashMap.newKeySet();
+    Set<String> verifiers = ConcurrentHashMap.newKeySet();
+    ExecutorService threads = Executors.newFixedThreadPool(8);
+    try {
+      List<Future<?>> done = new ArrayList<>();
+      for (int t = 0; t < 8; t++) {
+        done.add(
+            threads.submit(
+                () -> {
+                  for (int i = 0; i < 1000; i++) {
+                    PkceGenerator.Secrets secrets = shared.next();
+                    states.add(secrets.state());
+                    verifiers.add(secrets.codeVerifier());
+                  }
+                }));
+      }
+      for (Future<?> future : done) {
+        future.get();
+      }
+    } finally {
+      threads.shutdownNow();
+    }
+
+    assertThat(states).hasSize(8000);
+    assertThat(verifiers).hasSize(8000);
+  }
+}
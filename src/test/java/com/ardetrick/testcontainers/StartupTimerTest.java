@@ -0,0 +1,74 @@
+package com.ardetrick.testcontainers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+class StartupTimerTest {
+
+  private final AtomicLong now = new AtomicLong();
+
+  @Test
+  void splitsStartIntoConsecutivePhasesFromHooksAndLogLines() {
+    var timer = new StartupTimer(now::get);
+    now.set(100);
+    timer.imageResolved();
+    now.set(300);
+    timer.containerStarted();
+    now.set(1_300);
+    timer.observeLog("Successfully applied migrations!");
+    now.set(1_500);
+    timer.observeLog("time=... level=info msg=\"Setting up http server on :4445\"");
+    now.set(1_600);
+    timer.observeLog("time=... level=info msg=\"Setting up http server on :4444\"");
+    now.set(1_850);
+    timer.ready();
+    now.set(1_900);
+
+    var timings = timer.finish();
+
+    assertThat(timings.imageResolution()).isEqualTo(Duration.ofNanos(100));
+    assertThat(timings.containerCreation()).isEqualTo(Duration.ofNanos(200));
+    assertThat(timings.migration()).isEqualTo(Duration.ofNanos(1_000));
+    assertThat(timings.serverStartup()).isEqualTo(Duration.ofNanos(300));
+    assertThat(timings.readinessWait()).isEqualTo(Duration.ofNanos(250));
+    assertThat(timings.fixtureRegistration()).isEqualTo(Duration.ofNanos(50));
+    assertThat(timings.total()).isEqualTo(Duration.ofNanos(1_900));
+  }
+
+  @Test
+  void unobservedLogBoundariesFoldIntoTheNextPhase() {
+    var timer = new StartupTimer(now::get);
+    now.set(100);
+    timer.imageResolved();
+    now.set(300);
+    timer.containerStarted();
+    // Only one listener is logged, and the migration line arrives after readiness.
+    now.set(500);
+    timer.observeLog("Setting up http server on :4444");
+    now.set(900);
+    timer.ready();
+    now.set(950);
+    timer.observeLog("Successfully applied migrations!");
+    now.set(1_000);
+
+    var timings = timer.finish();
+
+    assertThat(timings.migration()).isNull();
+    assertThat(timings.serverStartup()).isNull();
+    assertThat(timings.readinessWait()).isEqualTo(Duration.ofNanos(600));
+  }
+
+  @Test
+  void listeningCompletesOnceBothListenersAreLogged() {
+    var timer = new StartupTimer(now::get);
+
+    timer.observeLog("Setting up http server on :4445");
+    assertThat(timer.listening()).isNotDone();
+    timer.observeLog("Setting up http server on :4444");
+
+    assertThat(timer.listening()).isCompleted();
+  }
+}
@@ -0,0 +1,128 @@
+package com.ardetrick.testcontainers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.ardetrick.testcontainers.FlowResult.OAuthError;
+import com.ardetrick.testcontainers.FlowResult.TokenResponse;
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+class TokenCacheTest {
+
+  private static final URI TOKEN_ENDPOINT = URI.create("http://127.0.0.1:4444/oauth2/token");
+
+  private final AtomicLong now = new AtomicLong();
+  private final AtomicInteger requests = new AtomicInteger();
+  private final TokenCache cache = new TokenCache(2, Duration.ofSeconds(30), now::get);
+
+  @Test
+  void returnsTheCachedTokenUntilExpiryMinusSkew() {
+    TokenCache.Key key = key("client", "read");
+
+    FlowResult first = cache.get(key, () -> token("a", 60)).join();
+    now.addAndGet(Duration.ofSeconds(29).toNanos());
+    FlowResult cached = cache.get(key, () -> token("b", 60)).join();
+    now.addAndGet(Duration.ofSeconds(1).toNanos());
+    FlowResult refreshed = cache.get(key, () -> token("c", 60)).join();
+
+    assertThat(cached).isSameAs(first);
+    assertThat(((TokenResponse) refreshed).accessToken()).isEqualTo("c");
+    assertThat(requests).hasValue(2);
+    assertThat(cache.stats()).isEqualTo(new TokenCacheStats(1, 2, 0, 1, 2));
+  }
+
+  @Test
+  void mergesConcurrentMissesIntoOneRequest() {
+    CompletableFuture<FlowResult> inFlight = new CompletableFuture<>();
+    TokenCache.Key key = key("client", "read");
+
+    CompletableFuture<FlowResult> first = cache.get(key, () -> inFlight);
+    CompletableFuture<FlowResult> second = cache.get(key, () -> token("other", 60));
+    second.cancel(false);
+    CompletableFuture<FlowResult> third = cache.get(key, () -> token("other", 60));
+    inFlight.complete(tokenResponse("shared", 60));
+
+    assertThat(first.join()).isSameAs(third.join());
+    assertThat(requests).hasValue(0);
+    assertThat(cache.stats().coalesced()).isEqualTo(2);
+    assertThat(cache.stats().misses()).isEqualTo(1);
+  }
+
+  @Test
+  void comparesScopesAsASet() {
+    FlowResult first = cache.get(key("client", "read", "write"), () -> token("a", 60)).join();
+
+    assertThat(cache.get(key("client", "write", "read", "read"), () -> token("b", 60)).join())
+        .isSameAs(first);
+    assertThat(requests).hasValue(1);
+  }
+
+  @Test
+  void forgetsErrorsAndFailuresAfterHandingThemToWaiters() {
+    TokenCache.Key key = key("client", "read");
+    OAuthError error = new OAuthError("invalid_client", null, null);
+
+    assertThat(cache.get(key, () -> CompletableFuture.completedFuture(error)).join())
+        .isEqualTo(error);
+    CompletableFuture<FlowResult> failed =
+        cache.get(
+            key, () -> CompletableFuture.failedFuture(new HydraFlowException("Hydra is down")));
+    assertThatThrownBy(failed::join)
+        .isInstanceOf(CompletionException.class)
+        .hasRootCauseMessage("Hydra is down");
+    assertThat(cache.get(key, () -> token("a", 60)).join()).isInstanceOf(TokenResponse.class);
+
+    assertThat(cache.stats().misses()).isEqualTo(3);
+  }
+
+  @Test
+  void doesNotCacheTokensLivingNoLongerThanTheSkew() {
+    TokenCache.Key key = key("client", "read");
+
+    cache.get(key, () -> token("a", 30)).join();
+    cache.get(key, () -> token("b", 30)).join();
+
+    assertThat(requests).hasValue(2);
+    assertThat(cache.stats().size()).isZero();
+  }
+
+  @Test
+  void evictsTheLeastRecentlyUsedEntryBeyondMaxEntries() {
+    cache.get(key("a"), () -> token("a", 60)).join();
+    cache.get(key("b"), () -> token("b", 60)).join();
+    cache.get(key("a"), () -> token("a2", 60)).join();
+    cache.get(key("c"), () -> token("c", 60)).join();
+
+    cache.get(key("a"), () -> token("a3", 60)).join();
+    cache.get(key("b"), () -> token("b2", 60)).join();
+
+    assertThat(requests).hasValue(4);
+    assertThat(cache.stats().size()).isEqualTo(2);
+  }
+
+  @Test
+  void keyNeverPrintsTheSecret() {
+    assertThat(key("client", "read").toString()).doesNotContain("secret");
+  }
+
+  private static TokenCache.Key key(String clientId, String... scopes) {
+    return TokenCache.Key.of(TOKEN_ENDPOINT, clientId, "secret", List.of(scopes));
+  }
+
+  private CompletableFuture<FlowResult> token(String accessToken, long expiresIn) {
+    requests.incrementAndGet();
+    return CompletableFuture.completedFuture(tokenResponse(accessToken, expiresIn));
+  }
+
+  private static TokenResponse tokenResponse(String accessToken, long expiresIn) {
+    return new TokenResponse(accessToken, null, null, "bearer", expiresIn, null, Map.of());
+  }
+}
@@ -0,0 +1,114 @@
+package com.ardetrick.testcontainers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import org.junit.jupiter.api.Test;
+
+/** Introspects against a stub that answers each token after a short delay. */
+class TokenIntrospectorTest {
+
+  private final AtomicInteger inFlight = new AtomicInteger();
+  private final AtomicInteger maxInFlight = new AtomicInteger();
+  private final AtomicInteger requests = new AtomicInteger();
+  private final Function<String, CompletableFuture<IntrospectionResponse>> stub =
+      token -> {
+        requests.incrementAndGet();
+        maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+        return CompletableFuture.supplyAsync(
+            () -> {
+              inFlight.decrementAndGet();
+              if (token.equals("broken")) {
+                throw new HydraFlowException("Introspection failed (HTTP 500)");
+              }
+              return new IntrospectionResponse(
+                  !token.startsWith("revoked"),
+                  token,
+                  null,
+                  null,
+                  Map.of("exp", System.currentTimeMillis() / 1000 + 60));
+            },
+            CompletableFuture.delayedExecutor(1, TimeUnit.MILLISECONDS));
+      };
+
+  @Test
+  void returnsResponsesInTokenOrderWithBoundedConcurrency() {
+    List<String> tokens = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      tokens.add((i % 10 == 0 ? "revoked-" : "token-") + i);
+    }
+
+    IntrospectionResults results =
+        new TokenIntrospector(stub, new IntrospectionCache()).concurrency(4).introspect(tokens);
+
+    assertThat(results.responses())
+        .extracting(IntrospectionResponse::subject)
+        .containsExactlyElementsOf(tokens);
+    assertThat(results.responses().get(10).active()).isFalse();
+    assertThat(results.requests()).isEqualTo(100);
+    assertThat(results.cacheHits()).isZero();
+    assertThat(maxInFlight.get()).isLessThanOrEqualTo(4);
+  }
+
+  @Test
+  void cachedBatchesAnswerRepeatsWithoutRequests() {
+    IntrospectionCache cache = new IntrospectionCache();
+    List<String> tokens = new ArrayList<>();
+    for (int i = 0; i < 5_000; i++) {
+      tokens.add("token-" + (i % 50));
+    }
+
+    IntrospectionResults first = new TokenIntrospector(stub, cache).cached(true).introspect(tokens);
+    IntrospectionResults second =
+        new TokenIntrospector(stub, cache).cached(true).introspect(tokens);
+
+    assertThat(first.requests()).isEqualTo(50);
+    assertThat(first.cacheHits()).isEqualTo(4_950);
+    assertThat(second.requests()).isZero();
+    assertThat(second.hitRatio()).isEqualTo(1.0);
+    assertThat(second.responses()).hasSize(5_000);
+    assertThat(second.responses().get(4_999).subject()).isEqualTo("token-49");
+    assertThat(requests).hasValue(50);
+  }
+
+  @Test
+  void aFailedRequestFailsOnlyItsItem() {
+    TokenIntrospector introspector = new TokenIntrospector(stub, new IntrospectionCache());
+
+    IntrospectionResults results = introspector.introspect(List.of("a", "broken", "c"));
+
+    assertThat(results.items())
+        .extracting(IntrospectionResults.Item::token)
+        .containsExactly("a", "broken", "c");
+    assertThat(results.responses())
+        .extracting(IntrospectionResponse::subject)
+        .containsExactly("a", "c");
+    assertThat(results.failures())
+        .singleElement()
+        .satisfies(
+            item -> {
+              assertThat(item.token()).isEqualTo("broken");
+              assertThat(item.response()).isNull();
+              assertThat(item.error()).hasMessage("Introspection failed (HTTP 500)");
+            });
+  }
+
+  @Test
+  void emptyBatchSendsNothing() {
+    IntrospectionResults results =
+        new TokenIntrospector(stub, new IntrospectionCache()).introspect(List.of());
+
+    assertThat(results.responses()).isEmpty();
+    assertThat(results.hitRatio()).isZero();
+    assertThatIllegalArgumentException()
+        .isThrownBy(() -> new TokenIntrospector(stub, new IntrospectionCache()).concurrency(0))
+        .withMessage("concurrency must be positive, was 0");
+  }
+}